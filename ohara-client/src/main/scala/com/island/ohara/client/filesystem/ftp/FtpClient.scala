@@ -43,7 +43,16 @@ private[ftp] trait FtpClient extends Releasable {
     * @param path file path
     * @return input stream
     */
-  def open(path: String): InputStream
+  def open(path: String): InputStream = open(path, 0)
+
+  /**
+    * open an input stream from the byte position of a existent file. If file doesn't exist, an IllegalArgumentException
+    * will be thrown.
+    * @param path file path
+    * @param position the byte position to start reading
+    * @return input stream
+    */
+  def open(path: String, position: Long): InputStream
 
   /**
     * create an new file. If file already exists, an IllegalArgumentException will be thrown.
@@ -290,7 +299,7 @@ private[ftp] object FtpClient {
           else throw new IllegalArgumentException("still fail...but there is no root cause ...")
         }
         override def listFileNames(dir: String): Seq[String] = retry(() => client().listFileNames(dir))
-        override def open(path: String): InputStream = retry(() => client().open(path))
+        override def open(path: String, position: Long): InputStream = retry(() => client().open(path, position))
         override def create(path: String): OutputStream = retry(() => client().create(path))
         override def append(path: String): OutputStream = retry(() => client().append(path))
         override def moveFile(from: String, to: String): Unit = retry(() => client().moveFile(from, to))
@@ -322,10 +331,12 @@ private[ftp] object FtpClient {
 
       override def listFileNames(dir: String): Seq[String] = connectIfNeeded().listFiles(dir).map(_.getName).toSeq
 
-      override def open(path: String): InputStream = {
+      override def open(path: String, position: Long): InputStream = {
         val client = connectIfNeeded()
         client.setFileType(FTP.BINARY_FILE_TYPE)
         if (nonExist(path)) throw new IllegalArgumentException(s"$path doesn't exist")
+        // the REST command is sent before RETR, and the offset is reset after the transfer is started
+        client.setRestartOffset(position)
         val inputStream = client.retrieveFileStream(path)
         if (inputStream == null)
           throw new IllegalStateException(s"Failed to open $path because from ${client.getReplyCode}")
@@ -203,6 +203,21 @@ private[filesystem] object FtpFileSystem {
         client.open(path)
       }
 
+      /**
+        * Open for reading an file from the given byte position. The position is sent to ftp server by REST command
+        * so the skipped bytes are not transferred.
+        *
+        * @param path the path of the file
+        * @param position the byte position to start reading
+        * @throws IllegalArgumentException if the file does not exist
+        * @return an input stream with the requested file
+        */
+      override def open(path: String, position: Long): InputStream = wrap { () =>
+        if (position < 0) throw new IllegalArgumentException("the position can't be negative")
+        if (nonExists(path)) throw new IllegalArgumentException(s"The path ${path} doesn't exist")
+        client.open(path, position)
+      }
+
       /**
         * Delete the given file for folder (If empty)
         *
@@ -129,6 +129,29 @@ private[filesystem] object HdfsFileSystem {
         hadoopFS.open(new Path(path))
       }
 
+      /**
+        * Open for reading an file from the given byte position. The stream seeks to the position directly.
+        *
+        * @param path the path of the file
+        * @param position the byte position to start reading
+        * @throws IllegalArgumentException if the file does not exist or the position is out of file
+        * @return an input stream with the requested file
+        */
+      override def open(path: String, position: Long): InputStream = wrap { () =>
+        if (nonExists(path)) throw new IllegalArgumentException(s"The path $path doesn't exist")
+        if (position < 0 || position > hadoopFS.getFileStatus(new Path(path)).getLen)
+          throw new IllegalArgumentException(s"The position $position is out of $path")
+        val input = hadoopFS.open(new Path(path))
+        try {
+          input.seek(position)
+          input
+        } catch {
+          case e: Throwable =>
+            Releasable.close(input)
+            throw e
+        }
+      }
+
       /**
         * Delete the given file for folder (If empty)
         *
@@ -193,6 +216,16 @@ private[filesystem] object HdfsFileSystem {
         */
       override def fileType(path: String): FileType = throw new UnsupportedOperationException
 
+      /**
+        * Returns the last modified time of a file or folder
+        *
+        * @param path the path of the file or folder
+        * @return the last modified time in milliseconds
+        */
+      override def lastModified(path: String): java.util.Optional[java.lang.Long] = wrap { () =>
+        java.util.Optional.of(java.lang.Long.valueOf(hadoopFS.getFileStatus(new Path(path)).getModificationTime))
+      }
+
       /**
         * Get the working folder of account. An exception will be thrown if it fails to get working folder.
         *
@@ -16,6 +16,9 @@
 
 package com.island.ohara.client.filesystem
 
+import java.io.{BufferedReader, InputStreamReader}
+import java.nio.charset.StandardCharsets
+
 import com.island.ohara.common.exception.OharaFileSystemException
 import com.island.ohara.common.rule.OharaTest
 import com.island.ohara.common.util.{CommonUtils, Releasable}
@@ -110,6 +113,17 @@ abstract class FileSystemTestBase extends OharaTest with Matchers {
     fileSystem.readLines(file) shouldBe Array(text)
   }
 
+  @Test
+  def testOpenFromPosition(): Unit = {
+    val file = randomFile()
+    val text = randomText()
+    fileSystem.attach(file, text)
+
+    val reader = new BufferedReader(new InputStreamReader(fileSystem.open(file, 3), StandardCharsets.UTF_8))
+    try reader.readLine() shouldBe text.substring(3)
+    finally reader.close()
+  }
+
   @Test
   def testAppendWithNonExistedPath(): Unit =
     an[IllegalArgumentException] should be thrownBy fileSystem.append(randomFile())
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.common.util.Releasable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The asynchronous version of {@link BrokerClient}. All remote calls return {@link
+ * CompletableFuture} so the caller is not blocked. The multi-topic operations are sent by a single
+ * request.
+ *
+ * <p>Noted: the future completes on the internal thread of kafka admin client. Don't run blocking
+ * operations in the callbacks of returned future.
+ */
+public interface AsyncBrokerClient extends Releasable {
+
+  /**
+   * the setting of a topic to create.
+   *
+   * @see #createTopics(List)
+   */
+  final class TopicSpec {
+    private final String name;
+    private final int numberOfPartitions;
+    private final short numberOfReplications;
+    private final Map<String, String> options;
+
+    public TopicSpec(String name, int numberOfPartitions, short numberOfReplications) {
+      this(name, numberOfPartitions, numberOfReplications, Collections.emptyMap());
+    }
+
+    public TopicSpec(
+        String name,
+        int numberOfPartitions,
+        short numberOfReplications,
+        Map<String, String> options) {
+      this.name = CommonUtils.requireNonEmpty(name);
+      this.numberOfPartitions = CommonUtils.requirePositiveInt(numberOfPartitions);
+      this.numberOfReplications = CommonUtils.requirePositiveShort(numberOfReplications);
+      this.options = Collections.unmodifiableMap(new HashMap<>(Objects.requireNonNull(options)));
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public int numberOfPartitions() {
+      return numberOfPartitions;
+    }
+
+    public short numberOfReplications() {
+      return numberOfReplications;
+    }
+
+    public Map<String, String> options() {
+      return options;
+    }
+  }
+
+  /**
+   * create the topics by a single request. The future fails if any topic is failed to be created.
+   *
+   * @param topics topics to create
+   * @return a future which is completed when all topics are created
+   */
+  CompletableFuture<Void> createTopics(List<TopicSpec> topics);
+
+  default CompletableFuture<Void> createTopic(TopicSpec topic) {
+    return createTopics(Collections.singletonList(topic));
+  }
+
+  /** @return the names of all topics */
+  CompletableFuture<Set<String>> topicNames();
+
+  /**
+   * @param topicName topic name
+   * @return true if topic exists. Otherwise, false
+   */
+  default CompletableFuture<Boolean> exist(String topicName) {
+    return topicNames().thenApply(names -> names.contains(topicName));
+  }
+
+  /**
+   * describe the specified topics. The future fails if any topic doesn't exist.
+   *
+   * @param topicNames topic names
+   * @return TopicDescriptions in the order of topic names
+   */
+  CompletableFuture<List<TopicDescription>> topicDescriptions(List<String> topicNames);
+
+  default CompletableFuture<TopicDescription> topicDescription(String topicName) {
+    return topicDescriptions(Collections.singletonList(topicName)).thenApply(ds -> ds.get(0));
+  }
+
+  /** @return the descriptions of all topics */
+  CompletableFuture<List<TopicDescription>> topicDescriptions();
+
+  /**
+   * increase the number of partitions of specified topic. The future fails with {@link
+   * IllegalArgumentException} if the new number is smaller than current number.
+   *
+   * @param topicName topic name
+   * @param numberOfPartitions the total number of partitions
+   * @return a future which is completed when the partitions are created
+   */
+  CompletableFuture<Void> createPartitions(String topicName, int numberOfPartitions);
+
+  /**
+   * delete the topics by a single request.
+   *
+   * @param topicNames topic names
+   * @return a future which is completed when all topics are deleted
+   */
+  CompletableFuture<Void> deleteTopics(List<String> topicNames);
+
+  default CompletableFuture<Void> deleteTopic(String topicName) {
+    return deleteTopics(Collections.singletonList(topicName));
+  }
+
+  /** @return the host and port of active brokers */
+  CompletableFuture<Map<String, Integer>> brokerPorts();
+
+  /** @return Connection information. form: host:port,host:port */
+  String connectionProps();
+
+  static AsyncBrokerClient of(String connectionProps) {
+    return builder().connectionProps(connectionProps).build();
+  }
+
+  /**
+   * get a client which shares the admin connections with other shared clients of the same
+   * connection props. The underlying connections are closed when all shared clients are closed.
+   * Noted: the shared client doesn't cache the topic metadata.
+   *
+   * @param connectionProps connection props
+   * @return a shared client
+   */
+  static AsyncBrokerClient shared(String connectionProps) {
+    return SharedAdminClients.acquire(CommonUtils.requireNonEmpty(connectionProps));
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  class Builder implements com.island.ohara.common.pattern.Builder<AsyncBrokerClient> {
+    private String connectionProps;
+    private Duration metadataCacheTimeout = Duration.ZERO;
+
+    private Builder() {
+      // do nothing
+    }
+
+    public Builder connectionProps(String connectionProps) {
+      this.connectionProps = CommonUtils.requireNonEmpty(connectionProps);
+      return this;
+    }
+
+    /**
+     * enable the cache of topic metadata. The cached metadata of a topic is invalidated when the
+     * topic is created, altered or deleted by this client. Noted: the changes made by other clients
+     * are visible after the cache expires.
+     *
+     * @param metadataCacheTimeout the lifetime of cached metadata
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is zero (the cache is disabled)")
+    public Builder metadataCacheTimeout(Duration metadataCacheTimeout) {
+      this.metadataCacheTimeout = Objects.requireNonNull(metadataCacheTimeout);
+      return this;
+    }
+
+    @Override
+    public AsyncBrokerClient build() {
+      CommonUtils.requireNonEmpty(connectionProps);
+      Objects.requireNonNull(metadataCacheTimeout);
+      return AsyncBrokerClientImpl.create(connectionProps, metadataCacheTimeout);
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.util.ReleaseOnce;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.config.ConfigResource;
+
+/**
+ * the implementation of {@link AsyncBrokerClient}. The admin client may be shared by many instances
+ * so the release of admin client is delegated to the passed callback.
+ */
+final class AsyncBrokerClientImpl extends ReleaseOnce implements AsyncBrokerClient {
+
+  static AdminClient createAdmin(String connectionProps) {
+    Properties adminProps = new Properties();
+    adminProps.put(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, connectionProps);
+    return AdminClient.create(adminProps);
+  }
+
+  static AsyncBrokerClientImpl create(String connectionProps, Duration metadataCacheTimeout) {
+    AdminClient admin = createAdmin(connectionProps);
+    return new AsyncBrokerClientImpl(connectionProps, admin, metadataCacheTimeout, admin::close);
+  }
+
+  /**
+   * convert kafka future to java future. Noted: the exception passed to java future is not wrapped
+   * so the caller can catch the kafka exception from {@link
+   * java.util.concurrent.ExecutionException#getCause()}.
+   */
+  private static <T> CompletableFuture<T> toCompletableFuture(KafkaFuture<T> kafkaFuture) {
+    CompletableFuture<T> f = new CompletableFuture<>();
+    kafkaFuture.whenComplete(
+        (value, exception) -> {
+          if (exception == null) f.complete(value);
+          else f.completeExceptionally(exception);
+        });
+    return f;
+  }
+
+  private final String connectionProps;
+  private final AdminClient admin;
+  private final TopicMetadataCache cache;
+  private final Runnable release;
+
+  AsyncBrokerClientImpl(
+      String connectionProps, AdminClient admin, Duration metadataCacheTimeout, Runnable release) {
+    this.connectionProps = connectionProps;
+    this.admin = admin;
+    this.cache = new TopicMetadataCache(metadataCacheTimeout);
+    this.release = release;
+  }
+
+  @Override
+  public CompletableFuture<Void> createTopics(List<TopicSpec> topics) {
+    return toCompletableFuture(
+            admin
+                .createTopics(
+                    topics.stream()
+                        .map(
+                            t ->
+                                new NewTopic(
+                                        t.name(), t.numberOfPartitions(), t.numberOfReplications())
+                                    .configs(t.options()))
+                        .collect(Collectors.toList()))
+                .all())
+        .whenComplete((v, e) -> topics.forEach(t -> cache.invalidate(t.name())));
+  }
+
+  @Override
+  public CompletableFuture<Set<String>> topicNames() {
+    return cache
+        .topicNames()
+        .map(CompletableFuture::completedFuture)
+        .orElseGet(
+            () ->
+                toCompletableFuture(admin.listTopics().names())
+                    .thenApply(
+                        names -> {
+                          cache.topicNames(names);
+                          return names;
+                        }));
+  }
+
+  @Override
+  public CompletableFuture<List<TopicDescription>> topicDescriptions(List<String> topicNames) {
+    Map<String, TopicDescription> cached = new HashMap<>();
+    topicNames.forEach(name -> cache.topicDescription(name).ifPresent(d -> cached.put(name, d)));
+    List<String> missed =
+        topicNames.stream()
+            .filter(name -> !cached.containsKey(name))
+            .distinct()
+            .collect(Collectors.toList());
+    CompletableFuture<Map<String, TopicDescription>> fetched =
+        missed.isEmpty()
+            ? CompletableFuture.completedFuture(Collections.emptyMap())
+            : describe(missed);
+    return fetched.thenApply(
+        descriptions -> {
+          descriptions.values().forEach(cache::topicDescription);
+          return topicNames.stream()
+              .map(name -> cached.getOrDefault(name, descriptions.get(name)))
+              .collect(Collectors.toList());
+        });
+  }
+
+  /**
+   * fetch the descriptions and configs of specified topics. The descriptions and configs are
+   * fetched by two concurrent requests.
+   *
+   * @param topicNames topic names
+   * @return topic name and description
+   */
+  private CompletableFuture<Map<String, TopicDescription>> describe(List<String> topicNames) {
+    CompletableFuture<Map<String, org.apache.kafka.clients.admin.TopicDescription>> topics =
+        toCompletableFuture(admin.describeTopics(topicNames).all());
+    CompletableFuture<Map<ConfigResource, Config>> configs =
+        toCompletableFuture(
+            admin
+                .describeConfigs(
+                    topicNames.stream()
+                        .map(name -> new ConfigResource(ConfigResource.Type.TOPIC, name))
+                        .collect(Collectors.toList()))
+                .all());
+    return topics.thenCombine(
+        configs,
+        (ts, cs) ->
+            ts.values().stream()
+                .map(
+                    topic ->
+                        new TopicDescription(
+                            topic.name(),
+                            topic.partitions().size(),
+                            (short) topic.partitions().get(0).replicas().size(),
+                            cs.get(new ConfigResource(ConfigResource.Type.TOPIC, topic.name()))
+                                .entries().stream()
+                                .map(
+                                    o ->
+                                        new TopicOption(
+                                            o.name(),
+                                            o.value(),
+                                            o.isDefault(),
+                                            o.isSensitive(),
+                                            o.isReadOnly()))
+                                .collect(Collectors.toList()),
+                            topic.isInternal()))
+                .collect(Collectors.toMap(TopicDescription::name, Function.identity())));
+  }
+
+  @Override
+  public CompletableFuture<List<TopicDescription>> topicDescriptions() {
+    return topicNames().thenCompose(names -> topicDescriptions(new ArrayList<>(names)));
+  }
+
+  @Override
+  public CompletableFuture<Void> createPartitions(String topicName, int numberOfPartitions) {
+    // the check is based on the latest description since the cached one may be stale
+    return describe(Collections.singletonList(topicName))
+        .thenApply(descriptions -> descriptions.get(topicName))
+        .thenCompose(
+            current -> {
+              if (current.numberOfPartitions() > numberOfPartitions)
+                throw new IllegalArgumentException(
+                    "Reducing the number from partitions is disallowed. current:"
+                        + current.numberOfPartitions()
+                        + ", expected:"
+                        + numberOfPartitions);
+              if (current.numberOfPartitions() == numberOfPartitions)
+                return CompletableFuture.<Void>completedFuture(null);
+              return toCompletableFuture(
+                  admin
+                      .createPartitions(
+                          Collections.singletonMap(
+                              topicName, NewPartitions.increaseTo(numberOfPartitions)))
+                      .all());
+            })
+        .whenComplete((v, e) -> cache.invalidate(topicName));
+  }
+
+  @Override
+  public CompletableFuture<Void> deleteTopics(List<String> topicNames) {
+    return toCompletableFuture(admin.deleteTopics(topicNames).all())
+        .whenComplete((v, e) -> topicNames.forEach(cache::invalidate));
+  }
+
+  @Override
+  public CompletableFuture<Map<String, Integer>> brokerPorts() {
+    return toCompletableFuture(admin.describeCluster().nodes())
+        .thenApply(nodes -> nodes.stream().collect(Collectors.toMap(Node::host, Node::port)));
+  }
+
+  @Override
+  public String connectionProps() {
+    return connectionProps;
+  }
+
+  @Override
+  protected void doClose() {
+    release.run();
+  }
+}
@@ -16,31 +16,21 @@
 
 package com.island.ohara.kafka;
 
-import com.google.common.collect.ImmutableMap;
 import com.island.ohara.common.exception.ExceptionHandler;
-import com.island.ohara.common.exception.OharaException;
 import com.island.ohara.common.exception.OharaExecutionException;
 import com.island.ohara.common.exception.OharaInterruptedException;
 import com.island.ohara.common.exception.OharaTimeoutException;
+import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.common.util.Releasable;
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
-import java.util.Set;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.stream.Collectors;
-import org.apache.kafka.clients.CommonClientConfigs;
-import org.apache.kafka.clients.admin.AdminClient;
-import org.apache.kafka.clients.admin.NewPartitions;
-import org.apache.kafka.clients.admin.NewTopic;
-import org.apache.kafka.common.KafkaFuture;
-import org.apache.kafka.common.Node;
-import org.apache.kafka.common.config.ConfigResource;
 
 /**
  * a helper methods used by configurator. It provide many helper method to operate kafka cluster.
@@ -74,11 +64,14 @@ public interface BrokerClient extends Releasable {
     return topicDescriptions(Collections.singletonList(topicName)).get(0);
   }
 
-  default List<TopicDescription> topicDescriptions(List<String> topicNames) {
-    return topicDescriptions().stream()
-        .filter(t -> topicNames.stream().anyMatch(n -> n.equals(t.name())))
-        .collect(Collectors.toList());
-  }
+  /**
+   * describe the specified topics. Only the specified topics are fetched from kafka. If any topic
+   * doesn't exist, exception will be thrown
+   *
+   * @param topicNames topic names
+   * @return TopicDescriptions in the order of topic names
+   */
+  List<TopicDescription> topicDescriptions(List<String> topicNames);
 
   /**
    * list all topics details from kafka
@@ -115,172 +108,150 @@ public interface BrokerClient extends Releasable {
   Map<String, Integer> brokerPorts();
 
   static BrokerClient of(String connectionProps) {
-    Duration timeout = Duration.ofSeconds(30);
-    return new BrokerClient() {
+    return builder().connectionProps(connectionProps).build();
+  }
 
-      private final AdminClient admin = AdminClient.create(toAdminProps(connectionProps));
+  /**
+   * get a client which shares the admin connections with other shared clients of the same
+   * connection props. The underlying connections are closed when all shared clients are closed.
+   *
+   * @param connectionProps connection props
+   * @return a shared client
+   */
+  static BrokerClient shared(String connectionProps) {
+    return Builder.of(AsyncBrokerClient.shared(connectionProps));
+  }
 
-      private final ExceptionHandler handler =
+  static Builder builder() {
+    return new Builder();
+  }
+
+  class Builder implements com.island.ohara.common.pattern.Builder<BrokerClient> {
+    private String connectionProps;
+    private Duration metadataCacheTimeout = Duration.ZERO;
+
+    private Builder() {
+      // do nothing
+    }
+
+    public Builder connectionProps(String connectionProps) {
+      this.connectionProps = CommonUtils.requireNonEmpty(connectionProps);
+      return this;
+    }
+
+    /**
+     * enable the cache of topic metadata. The cached metadata of a topic is invalidated when the
+     * topic is created, altered or deleted by this client. Noted: the changes made by other clients
+     * are visible after the cache expires.
+     *
+     * @param metadataCacheTimeout the lifetime of cached metadata
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is zero (the cache is disabled)")
+    public Builder metadataCacheTimeout(Duration metadataCacheTimeout) {
+      this.metadataCacheTimeout = Objects.requireNonNull(metadataCacheTimeout);
+      return this;
+    }
+
+    @Override
+    public BrokerClient build() {
+      CommonUtils.requireNonEmpty(connectionProps);
+      Objects.requireNonNull(metadataCacheTimeout);
+      return of(
+          AsyncBrokerClient.builder()
+              .connectionProps(connectionProps)
+              .metadataCacheTimeout(metadataCacheTimeout)
+              .build());
+    }
+
+    /**
+     * wrap the async client to a blocking client. The async client is closed when the returned
+     * client is closed.
+     *
+     * @param async async client
+     * @return a blocking client
+     */
+    static BrokerClient of(AsyncBrokerClient async) {
+      Duration timeout = Duration.ofSeconds(30);
+      ExceptionHandler handler =
           ExceptionHandler.builder()
               .with(ExecutionException.class, (e) -> new OharaExecutionException(e.getCause()))
               .with(InterruptedException.class, OharaInterruptedException::new)
               .with(TimeoutException.class, OharaTimeoutException::new)
               .build();
+      return new BrokerClient() {
+
+        private <T> T await(CompletableFuture<T> f) {
+          return handler.handle(() -> f.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        }
+
+        /** the describe-related methods throw the cause of failure directly. */
+        private <T> T awaitCause(CompletableFuture<T> f) {
+          return handler.handle(
+              () -> {
+                try {
+                  return f.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (ExecutionException e) {
+                  if (e.getCause() != null) throw e.getCause();
+                  else throw e;
+                }
+              });
+        }
+
+        @Override
+        public TopicCreator topicCreator() {
+          return new TopicCreator() {
+
+            @Override
+            public Void create() {
+              return await(
+                  async.createTopic(
+                      new AsyncBrokerClient.TopicSpec(
+                          name, numberOfPartitions, numberOfReplications, options)));
+            }
+          };
+        }
+
+        @Override
+        public boolean exist(String topicName) {
+          return await(async.exist(topicName));
+        }
+
+        @Override
+        public List<TopicDescription> topicDescriptions() {
+          return awaitCause(async.topicDescriptions());
+        }
+
+        @Override
+        public List<TopicDescription> topicDescriptions(List<String> names) {
+          return awaitCause(async.topicDescriptions(names));
+        }
+
+        @Override
+        public void createPartitions(String topicName, int numberOfPartitions) {
+          awaitCause(async.createPartitions(topicName, numberOfPartitions));
+        }
+
+        @Override
+        public void deleteTopic(String topicName) {
+          await(async.deleteTopic(topicName));
+        }
+
+        @Override
+        public String connectionProps() {
+          return async.connectionProps();
+        }
+
+        @Override
+        public Map<String, Integer> brokerPorts() {
+          return await(async.brokerPorts());
+        }
 
-      @Override
-      public TopicCreator topicCreator() {
-        return new TopicCreator() {
-
-          @Override
-          public Void create() {
-            return handler.handle(
-                () ->
-                    admin
-                        .createTopics(
-                            Collections.singletonList(
-                                new NewTopic(name, numberOfPartitions, numberOfReplications)
-                                    .configs(options)))
-                        .values()
-                        .get(name)
-                        .get(timeout.toMillis(), TimeUnit.MILLISECONDS));
-          }
-        };
-      }
-
-      @Override
-      public boolean exist(String topicName) {
-        return handler.handle(
-            () ->
-                admin
-                    .listTopics()
-                    .names()
-                    .thenApply(
-                        new KafkaFuture.Function<Set<String>, Boolean>() {
-                          @Override
-                          public Boolean apply(Set<String> strings) {
-                            return strings.contains(topicName);
-                          }
-                        })
-                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS));
-      }
-
-      @Override
-      public List<TopicDescription> topicDescriptions() {
-        return topicDescriptions(topicNames());
-      }
-
-      @Override
-      public List<TopicDescription> topicDescriptions(List<String> names) {
-        return handler.handle(
-            () -> {
-              try {
-                return admin.describeTopics(names).all()
-                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS).entrySet().stream()
-                    .map(
-                        entry -> {
-                          ConfigResource configKey =
-                              new ConfigResource(ConfigResource.Type.TOPIC, entry.getKey());
-                          try {
-                            List<TopicOption> options =
-                                admin.describeConfigs(Collections.singletonList(configKey)).values()
-                                    .get(configKey).get().entries().stream()
-                                    .map(
-                                        o ->
-                                            new TopicOption(
-                                                o.name(),
-                                                o.value(),
-                                                o.isDefault(),
-                                                o.isSensitive(),
-                                                o.isReadOnly()))
-                                    .collect(Collectors.toList());
-                            return new TopicDescription(
-                                entry.getValue().name(),
-                                entry.getValue().partitions().size(),
-                                (short) entry.getValue().partitions().get(0).replicas().size(),
-                                options,
-                                entry.getValue().isInternal());
-                          } catch (InterruptedException e) {
-                            throw new OharaInterruptedException(e);
-                          } catch (ExecutionException e) {
-                            throw new OharaException(e.getCause());
-                          }
-                        })
-                    .collect(Collectors.toList());
-              } catch (ExecutionException e) {
-                if (e.getCause() != null) throw e.getCause();
-                else throw e;
-              }
-            });
-      }
-
-      @Override
-      public void createPartitions(String topicName, int numberOfPartitions) {
-        TopicDescription current = topicDescription(topicName);
-        if (current.numberOfPartitions() > numberOfPartitions)
-          throw new IllegalArgumentException(
-              "Reducing the number from partitions is disallowed. current:"
-                  + current.numberOfPartitions()
-                  + ", expected:"
-                  + numberOfPartitions);
-        if (current.numberOfPartitions() < numberOfPartitions) {
-          handler.handle(
-              () ->
-                  admin
-                      .createPartitions(
-                          ImmutableMap.of(topicName, NewPartitions.increaseTo(numberOfPartitions)))
-                      .all()
-                      .get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        @Override
+        public void close() {
+          async.close();
         }
-      }
-
-      @Override
-      public void deleteTopic(String topicName) {
-        handler.handle(
-            () ->
-                admin
-                    .deleteTopics(Collections.singletonList(topicName))
-                    .all()
-                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS));
-      }
-
-      List<String> topicNames() {
-        return handler.handle(
-            () ->
-                new ArrayList<>(
-                    admin.listTopics().names().get(timeout.toMillis(), TimeUnit.MILLISECONDS)));
-      }
-
-      @Override
-      public String connectionProps() {
-        return connectionProps;
-      }
-
-      @Override
-      public Map<String, Integer> brokerPorts() {
-        return handler.handle(
-            () ->
-                admin.describeCluster().nodes().get(timeout.toMillis(), TimeUnit.MILLISECONDS)
-                    .stream()
-                    .collect(Collectors.toMap(Node::host, Node::port)));
-      }
-
-      /**
-       * this impl will host a kafka.AdminClient so you must call the #close() to release the
-       * kafka.AdminClient.
-       *
-       * @param brokers the kafka brokers information
-       * @return a impl from BrokerClient
-       */
-      private Properties toAdminProps(String brokers) {
-        Properties adminProps = new Properties();
-        adminProps.put(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, brokers);
-        return adminProps;
-      }
-
-      @Override
-      public void close() {
-        admin.close();
-      }
-    };
+      };
+    }
   }
 }
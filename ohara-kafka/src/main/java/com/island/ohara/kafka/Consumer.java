@@ -22,6 +22,7 @@ import com.island.ohara.common.util.Releasable;
 import com.island.ohara.kafka.connector.TopicPartition;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -29,10 +30,15 @@ import java.util.stream.StreamSupport;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.common.serialization.Deserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A wrap of kafka consumer.
@@ -107,22 +113,229 @@ public interface Consumer<K, V> extends Releasable {
   /** Seek to the first offset for all partitions */
   void seekToBeginning();
 
+  /**
+   * Seek to the last offset for each of the given partitions. The next poll returns the records
+   * appended after this call.
+   *
+   * @param partitions setting Partition list
+   */
+  void seekToEnd(Collection<TopicPartition> partitions);
+
+  /** Seek to the last offset for all partitions */
+  void seekToEnd();
+
+  /**
+   * Overrides the offset used by next poll for specified partition. The partition must be assigned
+   * to this consumer.
+   *
+   * @param partition partition
+   * @param offset the offset of next record
+   */
+  void seek(TopicPartition partition, long offset);
+
+  /**
+   * Seek each of the given partitions to the earliest offset whose timestamp is greater than or
+   * equal to the given timestamp. The partitions which don't have such record are moved to the end.
+   *
+   * @param partitions partitions
+   * @param timestamp timestamp in milliseconds
+   */
+  default void seekToTimestamp(Collection<TopicPartition> partitions, long timestamp) {
+    Map<TopicPartition, Long> offsets =
+        offsetsForTimes(
+            partitions.stream().collect(Collectors.toMap(Function.identity(), p -> timestamp)));
+    offsets.forEach(this::seek);
+    seekToEnd(
+        partitions.stream().filter(p -> !offsets.containsKey(p)).collect(Collectors.toList()));
+  }
+
+  /**
+   * Seek all assigned partitions to the earliest offset whose timestamp is greater than or equal to
+   * the given timestamp.
+   *
+   * @param timestamp timestamp in milliseconds
+   */
+  default void seekToTimestamp(long timestamp) {
+    seekToTimestamp(assignment(), timestamp);
+  }
+
+  /**
+   * Look up the offsets for the given partitions by timestamp. The returned offset for each
+   * partition is the earliest offset whose timestamp is greater than or equal to the given
+   * timestamp. The partitions which don't have such record are excluded from the returned map.
+   *
+   * @param timestamps the timestamp to look up for each partition
+   * @return the offset of each partition
+   */
+  Map<TopicPartition, Long> offsetsForTimes(Map<TopicPartition, Long> timestamps);
+
+  /**
+   * @param partitions partitions
+   * @return the first offset of each partition
+   */
+  Map<TopicPartition, Long> beginningOffsets(Collection<TopicPartition> partitions);
+
+  /**
+   * @param partitions partitions
+   * @return the offset of next appended record of each partition
+   */
+  Map<TopicPartition, Long> endOffsets(Collection<TopicPartition> partitions);
+
+  /**
+   * Manually assign the partitions to this consumer. It replaces the previous assignment. Noted:
+   * this method is disallowed if this consumer subscribes topics.
+   *
+   * @param partitions partitions
+   */
+  void assign(Collection<TopicPartition> partitions);
+
+  /**
+   * The offset of the next record that will be returned by {@link #poll(Duration)}.
+   *
+   * @param partition partition
+   * @return the offset of next record
+   */
+  long position(TopicPartition partition);
+
+  /**
+   * @param partition partition
+   * @return the last committed offset. empty if there is no committed offset
+   */
+  Optional<Long> committed(TopicPartition partition);
+
+  /**
+   * commit the positions of all assigned partitions. It blocks until the commit succeeds or an
+   * unrecoverable error is encountered.
+   */
+  default void commitSync() {
+    commitSync(
+        assignment().stream().collect(Collectors.toMap(Function.identity(), this::position)));
+  }
+
+  /**
+   * commit the specified offsets. Noted: the committed offset should be the offset of next record
+   * you want to process.
+   *
+   * @param offsets the offsets to commit
+   */
+  void commitSync(Map<TopicPartition, Long> offsets);
+
+  /**
+   * commit the specified offsets asynchronously. Noted: the returned future is completed by the
+   * following {@link #poll(Duration)} or commit calls since kafka consumer invokes the callback on
+   * the polling thread.
+   *
+   * @param offsets the offsets to commit
+   * @return a future which is completed when the commit is done
+   */
+  CompletableFuture<Void> commitAsync(Map<TopicPartition, Long> offsets);
+
+  /**
+   * the lag of each assigned partition. It is the difference between the end offset and current
+   * position.
+   *
+   * @return lag of each assigned partition
+   */
+  default Map<TopicPartition, Long> lag() {
+    return endOffsets(assignment()).entrySet().stream()
+        .collect(
+            Collectors.toMap(
+                Map.Entry::getKey, e -> Math.max(0, e.getValue() - position(e.getKey()))));
+  }
+
+  /**
+   * create a committer which coalesces the offsets of processed records and then commits them
+   * asynchronously.
+   *
+   * @param interval the max interval between commits
+   * @param records the max number of uncommitted records in a partition
+   * @return committer
+   */
+  default Committer committer(Duration interval, int records) {
+    return new Committer(this, interval, records);
+  }
+
   /** break the poll right now. */
   void wakeup();
 
+  /**
+   * A helper used to control the commit cadence. It keeps the offset of the last processed record
+   * for each partition, and it sends the async commit when either the interval is elapsed or the
+   * number of uncommitted records in a partition reaches the threshold. It is not thread-safe, and
+   * it should be used by the thread which polls the consumer.
+   */
+  final class Committer {
+    private final Consumer<?, ?> consumer;
+    private final long interval;
+    private final int records;
+    private final Map<TopicPartition, Long> offsets = new HashMap<>();
+    private final Map<TopicPartition, Integer> counts = new HashMap<>();
+    private long lastCommit = CommonUtils.current();
+
+    private Committer(Consumer<?, ?> consumer, Duration interval, int records) {
+      this.consumer = Objects.requireNonNull(consumer);
+      this.interval = Objects.requireNonNull(interval).toMillis();
+      this.records = CommonUtils.requirePositiveInt(records);
+    }
+
+    /**
+     * mark the record as processed. It may trigger an async commit.
+     *
+     * @param record processed record
+     */
+    public void mark(Record<?, ?> record) {
+      TopicPartition partition = new TopicPartition(record.topicName(), record.partition());
+      offsets.put(partition, record.offset() + 1);
+      if (counts.merge(partition, 1, Integer::sum) >= records) commit(false);
+      else maybeCommit();
+    }
+
+    /**
+     * commit the marked offsets if the interval is elapsed. It is useful to call this method after
+     * an empty poll.
+     */
+    public void maybeCommit() {
+      if (CommonUtils.current() - lastCommit >= interval) commit(false);
+    }
+
+    /** commit all marked offsets synchronously. */
+    public void flush() {
+      commit(true);
+    }
+
+    /** @return the number of uncommitted records */
+    public int uncommitted() {
+      return counts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private void commit(boolean sync) {
+      if (!offsets.isEmpty()) {
+        Map<TopicPartition, Long> copy = new HashMap<>(offsets);
+        if (sync) consumer.commitSync(copy);
+        else consumer.commitAsync(copy);
+        offsets.clear();
+        counts.clear();
+      }
+      lastCommit = CommonUtils.current();
+    }
+  }
+
   static Builder<byte[], byte[]> builder() {
     return new Builder<>().keySerializer(Serializer.BYTES).valueSerializer(Serializer.BYTES);
   }
 
   class Builder<Key, Value>
       implements com.island.ohara.common.pattern.Builder<Consumer<Key, Value>> {
+    private static final Logger LOG = LoggerFactory.getLogger(Consumer.class);
     private Map<String, String> options = Collections.emptyMap();
     private OffsetResetStrategy fromBegin = OffsetResetStrategy.LATEST;
     private List<String> topicNames;
+    private Set<TopicPartition> assignments;
     private String groupId = String.format("ohara-consumer-%s", CommonUtils.randomString());
     private String connectionProps;
     private Serializer<?> keySerializer = null;
     private Serializer<?> valueSerializer = null;
+    private boolean autoCommit = true;
 
     private Builder() {
       // do nothing
@@ -173,6 +386,37 @@ public interface Consumer<K, V> extends Releasable {
       return this;
     }
 
+    /**
+     * assign the partitions manually. It is exclusive with {@link #topicNames(List)}. The consumer
+     * with manual assignment doesn't join the group management so it won't be rebalanced.
+     *
+     * @param assignments the partitions you want to read
+     * @return this builder
+     */
+    public Builder<Key, Value> assignments(Set<TopicPartition> assignments) {
+      this.assignments = CommonUtils.requireNonEmpty(assignments);
+      return this;
+    }
+
+    /**
+     * @param assignment the partition you want to read
+     * @return this builder
+     */
+    public Builder<Key, Value> assignment(TopicPartition assignment) {
+      return assignments(Collections.singleton(Objects.requireNonNull(assignment)));
+    }
+
+    /**
+     * @param autoCommit true if the offsets are committed automatically in the background. Disable
+     *     it if you want to control the commits by yourself.
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is true")
+    public Builder<Key, Value> autoCommit(boolean autoCommit) {
+      this.autoCommit = autoCommit;
+      return this;
+    }
+
     @com.island.ohara.common.annotations.Optional("default is random string")
     public Builder<Key, Value> groupId(String groupId) {
       this.groupId = Objects.requireNonNull(groupId);
@@ -196,6 +440,37 @@ public interface Consumer<K, V> extends Releasable {
       return (Builder<Key, NewValue>) this;
     }
 
+    private static org.apache.kafka.common.TopicPartition toKafka(TopicPartition partition) {
+      return new org.apache.kafka.common.TopicPartition(
+          partition.topicName(), partition.partition());
+    }
+
+    private static Map<org.apache.kafka.common.TopicPartition, OffsetAndMetadata> toKafka(
+        Map<TopicPartition, Long> offsets) {
+      return offsets.entrySet().stream()
+          .collect(
+              Collectors.toMap(e -> toKafka(e.getKey()), e -> new OffsetAndMetadata(e.getValue())));
+    }
+
+    private static List<org.apache.kafka.common.TopicPartition> toKafka(
+        Collection<TopicPartition> partitions) {
+      return partitions.stream().map(Builder::toKafka).collect(Collectors.toList());
+    }
+
+    /**
+     * convert the kafka's result to ohara's map. NOTED: kafka may return null value for specific
+     * partition, and the null value is excluded from the returned map.
+     */
+    private static <T> Map<TopicPartition, Long> fromKafka(
+        Map<org.apache.kafka.common.TopicPartition, T> result, Function<T, Long> offset) {
+      return result.entrySet().stream()
+          .filter(e -> e.getValue() != null)
+          .collect(
+              Collectors.toMap(
+                  e -> new TopicPartition(e.getKey().topic(), e.getKey().partition()),
+                  e -> offset.apply(e.getValue())));
+    }
+
     /**
      * Used to convert byte array to ohara row. It is a private class since ohara consumer will
      * instantiate one and pass it to kafka consumer. Hence, no dynamical call will happen in kafka
@@ -204,7 +479,7 @@ public interface Consumer<K, V> extends Releasable {
      * @param serializer ohara serializer
      * @return a wrapper from kafka deserializer
      */
-    private static <T> Deserializer<T> wrap(Serializer<T> serializer) {
+    static <T> Deserializer<T> wrap(Serializer<T> serializer) {
       return new org.apache.kafka.common.serialization.Deserializer<T>() {
 
         @Override
@@ -225,7 +500,10 @@ public interface Consumer<K, V> extends Releasable {
     }
 
     private void checkArguments() {
-      CommonUtils.requireNonEmpty(topicNames);
+      if (topicNames == null && assignments == null)
+        throw new NullPointerException("topicNames or assignments is required");
+      if (topicNames != null && assignments != null)
+        throw new IllegalArgumentException("topicNames and assignments are exclusive");
       CommonUtils.requireNonEmpty(connectionProps);
       CommonUtils.requireNonEmpty(groupId);
       Objects.requireNonNull(fromBegin);
@@ -244,6 +522,7 @@ public interface Consumer<K, V> extends Releasable {
       props.setProperty(ConsumerConfig.GROUP_ID_CONFIG, groupId);
       // kafka demand us to pass lowe case words...
       props.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, fromBegin.name().toLowerCase());
+      props.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, String.valueOf(autoCommit));
 
       KafkaConsumer<Key, Value> kafkaConsumer =
           new KafkaConsumer<>(
@@ -251,7 +530,8 @@ public interface Consumer<K, V> extends Releasable {
               wrap((Serializer<Key>) keySerializer),
               wrap((Serializer<Value>) valueSerializer));
 
-      kafkaConsumer.subscribe(topicNames);
+      if (topicNames != null) kafkaConsumer.subscribe(topicNames);
+      else kafkaConsumer.assign(toKafka(assignments));
 
       return new Consumer<Key, Value>() {
         private ConsumerRecords<Key, Value> firstPoll = kafkaConsumer.poll(Duration.ofMillis(0));
@@ -275,22 +555,7 @@ public interface Consumer<K, V> extends Releasable {
           else
             return StreamSupport.stream(
                     Spliterators.spliteratorUnknownSize(r.iterator(), Spliterator.ORDERED), false)
-                .map(
-                    cr ->
-                        new Record<>(
-                            cr.topic(),
-                            cr.timestamp(),
-                            TimestampType.of(cr.timestampType()),
-                            cr.offset(),
-                            Optional.ofNullable(cr.headers())
-                                .map(
-                                    headers ->
-                                        StreamSupport.stream(headers.spliterator(), false)
-                                            .map(header -> new Header(header.key(), header.value()))
-                                            .collect(Collectors.toList()))
-                                .orElse(Collections.emptyList()),
-                            cr.key(),
-                            cr.value()))
+                .map(Record::of)
                 .collect(Collectors.toList());
         }
 
@@ -308,11 +573,9 @@ public interface Consumer<K, V> extends Releasable {
 
         @Override
         public void seekToBeginning(Collection<TopicPartition> partitions) {
-          kafkaConsumer.seekToBeginning(
-              partitions.stream()
-                  .map(
-                      x -> new org.apache.kafka.common.TopicPartition(x.topicName(), x.partition()))
-                  .collect(Collectors.toList()));
+          // the records from first poll are stale after seeking
+          firstPoll = null;
+          kafkaConsumer.seekToBeginning(toKafka(partitions));
         }
 
         @Override
@@ -320,6 +583,93 @@ public interface Consumer<K, V> extends Releasable {
           seekToBeginning(assignment());
         }
 
+        @Override
+        public void seekToEnd(Collection<TopicPartition> partitions) {
+          // kafka treats empty collection as all assigned partitions
+          if (partitions.isEmpty()) return;
+          firstPoll = null;
+          List<org.apache.kafka.common.TopicPartition> ps = toKafka(partitions);
+          kafkaConsumer.seekToEnd(ps);
+          // kafka evaluates the end offset lazily so we resolve it now. Otherwise, the records
+          // appended before next poll are skipped.
+          ps.forEach(kafkaConsumer::position);
+        }
+
+        @Override
+        public void seekToEnd() {
+          seekToEnd(assignment());
+        }
+
+        @Override
+        public void seek(TopicPartition partition, long offset) {
+          firstPoll = null;
+          kafkaConsumer.seek(toKafka(partition), offset);
+        }
+
+        @Override
+        public Map<TopicPartition, Long> offsetsForTimes(Map<TopicPartition, Long> timestamps) {
+          return fromKafka(
+              kafkaConsumer.offsetsForTimes(
+                  timestamps.entrySet().stream()
+                      .collect(Collectors.toMap(e -> toKafka(e.getKey()), Map.Entry::getValue))),
+              OffsetAndTimestamp::offset);
+        }
+
+        @Override
+        public Map<TopicPartition, Long> beginningOffsets(Collection<TopicPartition> partitions) {
+          return fromKafka(kafkaConsumer.beginningOffsets(toKafka(partitions)), Long::longValue);
+        }
+
+        @Override
+        public Map<TopicPartition, Long> endOffsets(Collection<TopicPartition> partitions) {
+          return fromKafka(kafkaConsumer.endOffsets(toKafka(partitions)), Long::longValue);
+        }
+
+        @Override
+        public void assign(Collection<TopicPartition> partitions) {
+          if (!kafkaConsumer.subscription().isEmpty())
+            throw new IllegalStateException(
+                "the consumer is subscribing " + kafkaConsumer.subscription());
+          firstPoll = null;
+          kafkaConsumer.assign(toKafka(partitions));
+        }
+
+        @Override
+        public long position(TopicPartition partition) {
+          // the records fetched by first poll are not returned to user yet
+          if (firstPoll != null) {
+            List<ConsumerRecord<Key, Value>> records = firstPoll.records(toKafka(partition));
+            if (!records.isEmpty()) return records.get(0).offset();
+          }
+          return kafkaConsumer.position(toKafka(partition));
+        }
+
+        @Override
+        public Optional<Long> committed(TopicPartition partition) {
+          return Optional.ofNullable(kafkaConsumer.committed(toKafka(partition)))
+              .map(OffsetAndMetadata::offset);
+        }
+
+        @Override
+        public void commitSync(Map<TopicPartition, Long> offsets) {
+          kafkaConsumer.commitSync(toKafka(offsets));
+        }
+
+        @Override
+        public CompletableFuture<Void> commitAsync(Map<TopicPartition, Long> offsets) {
+          CompletableFuture<Void> f = new CompletableFuture<>();
+          kafkaConsumer.commitAsync(
+              toKafka(offsets),
+              (ignored, exception) -> {
+                if (exception == null) f.complete(null);
+                else {
+                  LOG.error("failed to commit " + offsets, exception);
+                  f.completeExceptionally(exception);
+                }
+              });
+          return f;
+        }
+
         @Override
         public void wakeup() {
           kafkaConsumer.wakeup();
@@ -336,6 +686,7 @@ public interface Consumer<K, V> extends Releasable {
    */
   class Record<K, V> {
     private final String topicName;
+    private final int partition;
     private final long timestamp;
     private final TimestampType timestampType;
     private final long offset;
@@ -343,14 +694,42 @@ public interface Consumer<K, V> extends Releasable {
     private final K key;
     private final V value;
 
+    /**
+     * convert the kafka's consumer record to ohara's record.
+     *
+     * @param cr kafka's consumer record
+     * @param <K> key type
+     * @param <V> value type
+     * @return ohara's record
+     */
+    static <K, V> Record<K, V> of(ConsumerRecord<K, V> cr) {
+      return new Record<>(
+          cr.topic(),
+          cr.partition(),
+          cr.timestamp(),
+          TimestampType.of(cr.timestampType()),
+          cr.offset(),
+          Optional.ofNullable(cr.headers())
+              .map(
+                  headers ->
+                      StreamSupport.stream(headers.spliterator(), false)
+                          .map(header -> new Header(header.key(), header.value()))
+                          .collect(Collectors.toList()))
+              .orElse(Collections.emptyList()),
+          cr.key(),
+          cr.value());
+    }
+
     /**
      * @param topicName topic name
+     * @param partition partition
      * @param timestamp time to create this record or time to append this record.
      * @param key key (nullable)
      * @param value value
      */
     private Record(
         String topicName,
+        int partition,
         long timestamp,
         TimestampType timestampType,
         long offset,
@@ -358,6 +737,7 @@ public interface Consumer<K, V> extends Releasable {
         K key,
         V value) {
       this.topicName = topicName;
+      this.partition = partition;
       this.timestamp = timestamp;
       this.timestampType = timestampType;
       this.offset = offset;
@@ -375,6 +755,15 @@ public interface Consumer<K, V> extends Releasable {
       return topicName;
     }
 
+    /**
+     * The partition from which this record is received
+     *
+     * @return partition
+     */
+    public int partition() {
+      return partition;
+    }
+
     /**
      * The timestamp of this record.
      *
@@ -435,6 +824,7 @@ public interface Consumer<K, V> extends Releasable {
       if (o == null || getClass() != o.getClass()) return false;
       Record<?, ?> that = (Record<?, ?>) o;
       return Objects.equals(topicName, that.topicName)
+          && partition == that.partition
           && Objects.equals(timestamp, that.timestamp)
           && Objects.equals(timestampType, that.timestampType)
           && Objects.equals(offset, that.offset)
@@ -452,6 +842,7 @@ public interface Consumer<K, V> extends Releasable {
     public String toString() {
       return new ToStringBuilder(this)
           .append("topicName", topicName)
+          .append("partition", partition)
           .append("timestamp", timestamp)
           .append("offset", offset)
           .append("headers", headers)
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.data.Serializer;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.common.util.Releasable;
+import com.island.ohara.kafka.connector.TopicPartition;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+
+/**
+ * A consumer which polls data on a single thread and then dispatches the records to a group of
+ * worker threads. The records from the same partition are always processed by the same worker so
+ * the order of records in a partition is kept. The offsets committed to kafka advance only past the
+ * records which have been completed by the {@link Handler}. Hence, it offers at-least-once
+ * semantics.
+ *
+ * <p>The number of dispatched but uncompleted records is bounded by {@link
+ * Builder#maxInFlight(int)}. The poll thread pauses all assigned partitions when the bound is
+ * reached and resumes them after workers catch up. Noted: the records returned by a single poll are
+ * always dispatched so the real upper bound is maxInFlight + max.poll.records.
+ *
+ * <p>The consumer starts to work after it is built. Call {@link #close()} to stop it. The {@link
+ * #close()} waits for workers to complete the dispatched records and then commits the final
+ * offsets.
+ */
+public interface ParallelConsumer extends Releasable {
+
+  /**
+   * the callback used to process the records. It is invoked by the worker threads, and the
+   * invocations for the same partition are sequential.
+   *
+   * @param <K> key type
+   * @param <V> value type
+   */
+  @FunctionalInterface
+  interface Handler<K, V> {
+    /**
+     * process a record. Throwing an exception stops the whole consumer, and the offset of failed
+     * record is not committed.
+     *
+     * @param record record
+     */
+    void handle(Consumer.Record<K, V> record);
+  }
+
+  /** @return the number of records which are dispatched but not completed */
+  int inFlight();
+
+  /**
+   * @return the next offset to process for each partition. It is composed of the records completed
+   *     by workers. Noted: the offsets may not be committed yet.
+   */
+  Map<TopicPartition, Long> completedOffsets();
+
+  /** @return the exception thrown by the handler. empty if nothing is broken */
+  Optional<Throwable> error();
+
+  /** @return true if this consumer is stopped by either error or {@link #close()} */
+  boolean isClosed();
+
+  static Builder<byte[], byte[]> builder() {
+    return new Builder<>().keySerializer(Serializer.BYTES).valueSerializer(Serializer.BYTES);
+  }
+
+  class Builder<Key, Value> implements com.island.ohara.common.pattern.Builder<ParallelConsumer> {
+    private Map<String, String> options = Collections.emptyMap();
+    private OffsetResetStrategy fromBegin = OffsetResetStrategy.LATEST;
+    private List<String> topicNames;
+    private String groupId = String.format("ohara-consumer-%s", CommonUtils.randomString());
+    private String connectionProps;
+    private Serializer<?> keySerializer = null;
+    private Serializer<?> valueSerializer = null;
+    private Handler<Key, Value> handler = null;
+    private int numberOfWorkers = Runtime.getRuntime().availableProcessors();
+    private ThreadFactory threadFactory = null;
+    private int maxInFlight = 1000;
+    private Duration commitInterval = Duration.ofSeconds(5);
+    private Duration pollTimeout = Duration.ofSeconds(1);
+
+    private Builder() {
+      // do nothing
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is empty")
+    public Builder<Key, Value> options(Map<String, String> options) {
+      this.options = CommonUtils.requireNonEmpty(options);
+      return this;
+    }
+
+    /**
+     * receive all un-deleted message from subscribed topics
+     *
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is OffsetResetStrategy.LATEST")
+    public Builder<Key, Value> offsetFromBegin() {
+      this.fromBegin = OffsetResetStrategy.EARLIEST;
+      return this;
+    }
+
+    /**
+     * receive the messages just after the last one
+     *
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is OffsetResetStrategy.LATEST")
+    public Builder<Key, Value> offsetAfterLatest() {
+      this.fromBegin = OffsetResetStrategy.LATEST;
+      return this;
+    }
+
+    /**
+     * @param topicName the topic you want to subscribe
+     * @return this builder
+     */
+    public Builder<Key, Value> topicName(String topicName) {
+      this.topicNames = Collections.singletonList(Objects.requireNonNull(topicName));
+      return this;
+    }
+
+    /**
+     * @param topicNames the topics you want to subscribe
+     * @return this builder
+     */
+    public Builder<Key, Value> topicNames(List<String> topicNames) {
+      this.topicNames = CommonUtils.requireNonEmpty(topicNames);
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is random string")
+    public Builder<Key, Value> groupId(String groupId) {
+      this.groupId = Objects.requireNonNull(groupId);
+      return this;
+    }
+
+    public Builder<Key, Value> connectionProps(String connectionProps) {
+      this.connectionProps = CommonUtils.requireNonEmpty(connectionProps);
+      return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <NewKey> Builder<NewKey, Value> keySerializer(Serializer<NewKey> keySerializer) {
+      this.keySerializer = Objects.requireNonNull(keySerializer);
+      return (Builder<NewKey, Value>) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <NewValue> Builder<Key, NewValue> valueSerializer(Serializer<NewValue> valueSerializer) {
+      this.valueSerializer = Objects.requireNonNull(valueSerializer);
+      return (Builder<Key, NewValue>) this;
+    }
+
+    /**
+     * @param handler used to process the records
+     * @return this builder
+     */
+    public Builder<Key, Value> handler(Handler<Key, Value> handler) {
+      this.handler = Objects.requireNonNull(handler);
+      return this;
+    }
+
+    /**
+     * @param numberOfWorkers the number of threads used to process records. The partitions are
+     *     spread over the workers.
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is the number of available processors")
+    public Builder<Key, Value> numberOfWorkers(int numberOfWorkers) {
+      this.numberOfWorkers = CommonUtils.requirePositiveInt(numberOfWorkers);
+      return this;
+    }
+
+    /**
+     * set the factory used to create the worker threads. It is useful to run the workers on virtual
+     * threads (for example, Thread.ofVirtual().factory() on JDK 21+).
+     *
+     * @param threadFactory thread factory
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default creates daemon platform threads")
+    public Builder<Key, Value> threadFactory(ThreadFactory threadFactory) {
+      this.threadFactory = Objects.requireNonNull(threadFactory);
+      return this;
+    }
+
+    /**
+     * @param maxInFlight the max number of records which are dispatched but not completed
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is 1000")
+    public Builder<Key, Value> maxInFlight(int maxInFlight) {
+      this.maxInFlight = CommonUtils.requirePositiveInt(maxInFlight);
+      return this;
+    }
+
+    /**
+     * @param commitInterval the interval between offset commits
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is 5 seconds")
+    public Builder<Key, Value> commitInterval(Duration commitInterval) {
+      this.commitInterval = Objects.requireNonNull(commitInterval);
+      return this;
+    }
+
+    /**
+     * @param pollTimeout the timeout of each poll. It also decides the latency of closing consumer
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is 1 second")
+    public Builder<Key, Value> pollTimeout(Duration pollTimeout) {
+      this.pollTimeout = Objects.requireNonNull(pollTimeout);
+      return this;
+    }
+
+    private void checkArguments() {
+      CommonUtils.requireNonEmpty(topicNames);
+      CommonUtils.requireNonEmpty(connectionProps);
+      CommonUtils.requireNonEmpty(groupId);
+      Objects.requireNonNull(fromBegin);
+      Objects.requireNonNull(keySerializer);
+      Objects.requireNonNull(valueSerializer);
+      Objects.requireNonNull(handler);
+      Objects.requireNonNull(commitInterval);
+      Objects.requireNonNull(pollTimeout);
+    }
+
+    private static ThreadFactory defaultThreadFactory() {
+      AtomicInteger count = new AtomicInteger(0);
+      return runnable -> {
+        Thread thread =
+            new Thread(runnable, "ohara-parallel-consumer-worker-" + count.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      };
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public ParallelConsumer build() {
+      checkArguments();
+
+      Properties props = new Properties();
+      options.forEach(props::setProperty);
+      props.setProperty(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, connectionProps);
+      props.setProperty(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+      // kafka demand us to pass lowe case words...
+      props.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, fromBegin.name().toLowerCase());
+      // the offsets are committed by ParallelConsumer only if the records are completed
+      props.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+
+      KafkaConsumer<Key, Value> kafkaConsumer =
+          new KafkaConsumer<>(
+              props,
+              Consumer.Builder.wrap((Serializer<Key>) keySerializer),
+              Consumer.Builder.wrap((Serializer<Value>) valueSerializer));
+
+      return new ParallelConsumerImpl<>(
+          kafkaConsumer,
+          topicNames,
+          handler,
+          numberOfWorkers,
+          threadFactory == null ? defaultThreadFactory() : threadFactory,
+          maxInFlight,
+          commitInterval,
+          pollTimeout);
+    }
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.exception.OharaInterruptedException;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.common.util.ReleaseOnce;
+import com.island.ohara.kafka.connector.TopicPartition;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * the implementation of {@link ParallelConsumer}. The kafka consumer is touched by the poll thread
+ * only, since kafka consumer is not thread-safe. The workers update the completed offsets of
+ * partitions, and the poll thread commits them periodically.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class ParallelConsumerImpl<K, V> extends ReleaseOnce implements ParallelConsumer {
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelConsumerImpl.class);
+
+  /**
+   * the state of an assigned partition. A lane is bound to a single worker so the records of a
+   * partition are processed sequentially.
+   */
+  private class Lane {
+    private final org.apache.kafka.common.TopicPartition partition;
+    private final Worker worker;
+    /** the next offset to process. It is updated by worker only. */
+    private volatile long completed = -1;
+    /** the last committed offset. It is touched by poll thread only. */
+    private long committed = -1;
+    /** true if this partition is revoked. The queued records of revoked partition are discarded */
+    private volatile boolean revoked = false;
+
+    private Lane(org.apache.kafka.common.TopicPartition partition, Worker worker) {
+      this.partition = partition;
+      this.worker = worker;
+    }
+  }
+
+  private class Task {
+    private final Lane lane;
+    private final ConsumerRecord<K, V> record;
+
+    private Task(Lane lane, ConsumerRecord<K, V> record) {
+      this.lane = lane;
+      this.record = record;
+    }
+  }
+
+  private class Worker implements Runnable {
+    private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+
+    @Override
+    public void run() {
+      try {
+        while (true) {
+          Task task = queue.take();
+          // the poison task is used to stop the worker after all queued tasks are processed
+          if (task.lane == null) break;
+          try {
+            if (!task.lane.revoked && error.get() == null) {
+              handler.handle(Consumer.Record.of(task.record));
+              task.lane.completed = task.record.offset() + 1;
+            }
+          } catch (Throwable e) {
+            LOG.error("failed to process record from " + task.lane.partition, e);
+            error.compareAndSet(null, e);
+          } finally {
+            inFlight.decrementAndGet();
+          }
+        }
+      } catch (InterruptedException e) {
+        LOG.warn("worker of parallel consumer is interrupted", e);
+      } finally {
+        stoppedWorkers.countDown();
+      }
+    }
+  }
+
+  private final KafkaConsumer<K, V> kafkaConsumer;
+  private final ParallelConsumer.Handler<K, V> handler;
+  private final List<Worker> workers;
+  private final CountDownLatch stoppedWorkers;
+  private final int maxInFlight;
+  private final Duration commitInterval;
+  private final Duration pollTimeout;
+  private final Map<org.apache.kafka.common.TopicPartition, Lane> lanes = new ConcurrentHashMap<>();
+  private final AtomicInteger inFlight = new AtomicInteger(0);
+  private final AtomicReference<Throwable> error = new AtomicReference<>(null);
+  private final AtomicBoolean running = new AtomicBoolean(true);
+  private final AtomicBoolean stopped = new AtomicBoolean(false);
+  private final Thread pollThread;
+  private int nextWorker = 0;
+
+  ParallelConsumerImpl(
+      KafkaConsumer<K, V> kafkaConsumer,
+      List<String> topicNames,
+      ParallelConsumer.Handler<K, V> handler,
+      int numberOfWorkers,
+      ThreadFactory threadFactory,
+      int maxInFlight,
+      Duration commitInterval,
+      Duration pollTimeout) {
+    this.kafkaConsumer = kafkaConsumer;
+    this.handler = handler;
+    this.maxInFlight = maxInFlight;
+    this.commitInterval = commitInterval;
+    this.pollTimeout = pollTimeout;
+    this.stoppedWorkers = new CountDownLatch(numberOfWorkers);
+    this.workers =
+        IntStream.range(0, numberOfWorkers)
+            .mapToObj(i -> new Worker())
+            .collect(Collectors.toList());
+    workers.forEach(worker -> threadFactory.newThread(worker).start());
+    kafkaConsumer.subscribe(
+        topicNames,
+        new ConsumerRebalanceListener() {
+          @Override
+          public void onPartitionsRevoked(
+              Collection<org.apache.kafka.common.TopicPartition> partitions) {
+            partitions.stream()
+                .map(lanes::get)
+                .filter(lane -> lane != null)
+                .forEach(lane -> lane.revoked = true);
+            // commit the completed records before losing the ownership
+            commit(partitions);
+            partitions.forEach(lanes::remove);
+          }
+
+          @Override
+          public void onPartitionsAssigned(
+              Collection<org.apache.kafka.common.TopicPartition> partitions) {
+            partitions.forEach(ParallelConsumerImpl.this::lane);
+            // the new partitions are not fetched until the saturated workers catch up. Otherwise,
+            // they bypass the backpressure until the next poll
+            if (inFlight.get() >= maxInFlight) kafkaConsumer.pause(partitions);
+          }
+        });
+    this.pollThread = new Thread(this::loop, "ohara-parallel-consumer-poller");
+    this.pollThread.setDaemon(true);
+    this.pollThread.start();
+  }
+
+  private Lane lane(org.apache.kafka.common.TopicPartition partition) {
+    return lanes.computeIfAbsent(
+        partition, p -> new Lane(p, workers.get(nextWorker++ % workers.size())));
+  }
+
+  private void loop() {
+    try {
+      long lastCommit = CommonUtils.current();
+      while (running.get() && error.get() == null) {
+        ConsumerRecords<K, V> records = kafkaConsumer.poll(pollTimeout);
+        for (ConsumerRecord<K, V> record : records) {
+          Lane lane =
+              lane(new org.apache.kafka.common.TopicPartition(record.topic(), record.partition()));
+          inFlight.incrementAndGet();
+          lane.worker.queue.add(new Task(lane, record));
+        }
+        // backpressure. We keep polling to stay in the group but no records are returned from
+        // paused partitions.
+        if (inFlight.get() >= maxInFlight) kafkaConsumer.pause(kafkaConsumer.assignment());
+        else if (!kafkaConsumer.paused().isEmpty()) kafkaConsumer.resume(kafkaConsumer.paused());
+
+        if (CommonUtils.current() - lastCommit >= commitInterval.toMillis()) {
+          commit(lanes.keySet());
+          lastCommit = CommonUtils.current();
+        }
+      }
+    } catch (Throwable e) {
+      LOG.error("failed to poll data", e);
+      error.compareAndSet(null, e);
+    } finally {
+      try {
+        // poison tasks are put at the tail so workers complete the dispatched records at first
+        workers.forEach(worker -> worker.queue.add(new Task(null, null)));
+        if (!stoppedWorkers.await(1, TimeUnit.MINUTES))
+          LOG.warn("some workers of parallel consumer are still running");
+        commit(lanes.keySet());
+      } catch (Throwable e) {
+        LOG.error("failed to commit the final offsets", e);
+      } finally {
+        kafkaConsumer.close();
+        stopped.set(true);
+      }
+    }
+  }
+
+  /**
+   * commit the completed offsets of specified partitions. It is called by poll thread only.
+   *
+   * @param partitions partitions
+   */
+  private void commit(Collection<org.apache.kafka.common.TopicPartition> partitions) {
+    Map<org.apache.kafka.common.TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    Map<Lane, Long> committing = new HashMap<>();
+    partitions.stream()
+        .map(lanes::get)
+        .filter(lane -> lane != null)
+        .forEach(
+            lane -> {
+              long completed = lane.completed;
+              if (completed > lane.committed) {
+                offsets.put(lane.partition, new OffsetAndMetadata(completed));
+                committing.put(lane, completed);
+              }
+            });
+    if (!offsets.isEmpty()) {
+      kafkaConsumer.commitSync(offsets);
+      committing.forEach((lane, offset) -> lane.committed = offset);
+    }
+  }
+
+  @Override
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  @Override
+  public Map<TopicPartition, Long> completedOffsets() {
+    return Collections.unmodifiableMap(
+        lanes.values().stream()
+            .filter(lane -> lane.completed >= 0)
+            .collect(
+                Collectors.toMap(
+                    lane -> new TopicPartition(lane.partition.topic(), lane.partition.partition()),
+                    lane -> lane.completed)));
+  }
+
+  @Override
+  public Optional<Throwable> error() {
+    return Optional.ofNullable(error.get());
+  }
+
+  @Override
+  public boolean isClosed() {
+    return super.isClosed() || stopped.get();
+  }
+
+  @Override
+  protected void doClose() {
+    running.set(false);
+    try {
+      pollThread.join();
+    } catch (InterruptedException e) {
+      throw new OharaInterruptedException(e);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.clients.admin.AdminClient;
+
+/**
+ * keep the admin clients shared by {@link AsyncBrokerClient#shared(String)}. Each admin client is
+ * reference-counted, and it is closed when the last shared client is closed.
+ */
+final class SharedAdminClients {
+  private static class Entry {
+    private final AdminClient admin;
+    private int references = 0;
+
+    private Entry(AdminClient admin) {
+      this.admin = admin;
+    }
+  }
+
+  private static final Map<String, Entry> ENTRIES = new HashMap<>();
+
+  static AsyncBrokerClient acquire(String connectionProps) {
+    synchronized (ENTRIES) {
+      Entry entry =
+          ENTRIES.computeIfAbsent(
+              connectionProps, k -> new Entry(AsyncBrokerClientImpl.createAdmin(k)));
+      entry.references += 1;
+      return new AsyncBrokerClientImpl(
+          connectionProps, entry.admin, Duration.ZERO, () -> release(connectionProps));
+    }
+  }
+
+  private static void release(String connectionProps) {
+    AdminClient toClose = null;
+    synchronized (ENTRIES) {
+      Entry entry = ENTRIES.get(connectionProps);
+      if (entry != null && --entry.references <= 0) {
+        ENTRIES.remove(connectionProps);
+        toClose = entry.admin;
+      }
+    }
+    // closing admin client may take a while so we do it outside the lock
+    if (toClose != null) toClose.close();
+  }
+
+  /**
+   * @param connectionProps connection props
+   * @return the number of alive shared clients for the connection props
+   */
+  static int references(String connectionProps) {
+    synchronized (ENTRIES) {
+      Entry entry = ENTRIES.get(connectionProps);
+      return entry == null ? 0 : entry.references;
+    }
+  }
+
+  private SharedAdminClients() {}
+}
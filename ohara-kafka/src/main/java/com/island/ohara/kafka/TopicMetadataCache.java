@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.util.CommonUtils;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * a simple cache used by {@link BrokerClient} to keep the topic metadata. Each entry expires after
+ * the timeout. The entries of a topic should be invalidated by the caller after the topic is
+ * created, altered or deleted. Noted: the changes made by other clients are visible only after the
+ * entries expire.
+ */
+final class TopicMetadataCache {
+  private static class Entry<T> {
+    private final T value;
+    private final long expiredTime;
+
+    private Entry(T value, long expiredTime) {
+      this.value = value;
+      this.expiredTime = expiredTime;
+    }
+
+    private boolean isExpired() {
+      return CommonUtils.current() >= expiredTime;
+    }
+  }
+
+  private final long timeout;
+  private final Map<String, Entry<TopicDescription>> descriptions = new ConcurrentHashMap<>();
+  private volatile Entry<Set<String>> topicNames = null;
+
+  /** @param timeout the lifetime of cached entries. zero means the cache is disabled */
+  TopicMetadataCache(Duration timeout) {
+    this.timeout = timeout.toMillis();
+  }
+
+  /** @return the cached topic names. empty if they are not cached or expired */
+  Optional<Set<String>> topicNames() {
+    Entry<Set<String>> entry = topicNames;
+    if (entry == null || entry.isExpired()) return Optional.empty();
+    return Optional.of(entry.value);
+  }
+
+  void topicNames(Set<String> topicNames) {
+    if (timeout > 0)
+      this.topicNames =
+          new Entry<>(Collections.unmodifiableSet(topicNames), CommonUtils.current() + timeout);
+  }
+
+  /**
+   * @param topicName topic name
+   * @return the cached description. empty if it is not cached or expired
+   */
+  Optional<TopicDescription> topicDescription(String topicName) {
+    Entry<TopicDescription> entry = descriptions.get(topicName);
+    if (entry == null || entry.isExpired()) return Optional.empty();
+    return Optional.of(entry.value);
+  }
+
+  void topicDescription(TopicDescription description) {
+    if (timeout > 0)
+      descriptions.put(
+          description.name(), new Entry<>(description, CommonUtils.current() + timeout));
+  }
+
+  /**
+   * remove the cached metadata of specified topic. The cached topic names are removed also since
+   * the topic may be created or deleted.
+   *
+   * @param topicName topic name
+   */
+  void invalidate(String topicName) {
+    topicNames = null;
+    descriptions.remove(topicName);
+  }
+}
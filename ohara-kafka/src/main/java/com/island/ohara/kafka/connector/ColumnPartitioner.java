@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector;
+
+import com.island.ohara.common.data.Cell;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.connector.json.ConnectorDefUtils;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A {@link RowPartitioner} which computes the partition from the values of specified columns. The
+ * rows having the same values of those columns are sent to the same partition so the downstream is
+ * able to group them without re-partitioning. The hash is composed of the hash code of cell values,
+ * which is cheaper than hashing the serialized row.
+ *
+ * <p>The columns are specified by {@link ConnectorDefUtils#PARTITIONER_COLUMNS_DEFINITION} and the
+ * number of partitions of target topics is specified by {@link
+ * ConnectorDefUtils#PARTITIONER_PARTITIONS_DEFINITION}. The number of partitions has no default
+ * value since a wrong number puts all rows in a few partitions silently.
+ *
+ * <p>The rows sent to other topics, such as the dead letter topic, are not partitioned since the
+ * number of partitions is for the topics of connector. The row lacking any of columns is not
+ * partitioned either, and hence it is distributed by the default partitioner of producer.
+ *
+ * <p>Noted: this class is not thread-safe since it caches the indexes of columns.
+ */
+public class ColumnPartitioner implements RowPartitioner {
+  /** the topics of connector. null means all topics are partitioned */
+  private Set<String> topicNames = null;
+
+  private String[] columns = null;
+  /**
+   * the indexes of columns in the last row. The rows from the same source usually have the same
+   * layout so the columns are not searched by name for each row.
+   */
+  private int[] indexes = null;
+
+  private int partitions = 0;
+
+  public ColumnPartitioner() {
+    // used by reflection
+  }
+
+  ColumnPartitioner(List<String> columns, int partitions) {
+    columns(columns);
+    this.partitions = CommonUtils.requirePositiveInt(partitions);
+  }
+
+  private void columns(List<String> columns) {
+    this.columns = CommonUtils.requireNonEmpty(columns).toArray(new String[0]);
+    this.indexes = new int[this.columns.length];
+    Arrays.fill(indexes, -1);
+  }
+
+  /**
+   * @param setting settings of connector
+   * @return true if the partitioner columns are defined without a custom partitioner class
+   */
+  static boolean isUsed(TaskSetting setting) {
+    return !setting.stringOption(ConnectorDefUtils.PARTITIONER_CLASS_DEFINITION.key()).isPresent()
+        && setting
+            .stringListOption(ConnectorDefUtils.PARTITIONER_COLUMNS_DEFINITION.key())
+            .filter(columns -> !columns.isEmpty())
+            .isPresent();
+  }
+
+  /**
+   * @param setting settings of connector
+   * @return true if the ColumnPartitioner is used but the number of partitions is not defined
+   */
+  static boolean missPartitions(TaskSetting setting) {
+    return isUsed(setting)
+        && !setting
+            .stringOption(ConnectorDefUtils.PARTITIONER_PARTITIONS_DEFINITION.key())
+            .isPresent();
+  }
+
+  static String missPartitionsMessage() {
+    return ConnectorDefUtils.PARTITIONER_PARTITIONS_DEFINITION.key()
+        + " is required if "
+        + ConnectorDefUtils.PARTITIONER_COLUMNS_DEFINITION.key()
+        + " is defined";
+  }
+
+  @Override
+  public void configure(TaskSetting setting) {
+    columns(setting.stringList(ConnectorDefUtils.PARTITIONER_COLUMNS_DEFINITION.key()));
+    this.partitions =
+        CommonUtils.requirePositiveInt(
+            setting
+                .intOption(ConnectorDefUtils.PARTITIONER_PARTITIONS_DEFINITION.key())
+                .orElseThrow(() -> new IllegalArgumentException(missPartitionsMessage())));
+    this.topicNames = new HashSet<>(setting.topicNames());
+  }
+
+  @Override
+  public Optional<Integer> partition(String topicName, Row row) {
+    if (topicNames != null && !topicNames.contains(topicName)) return Optional.empty();
+    return partition(row);
+  }
+
+  Optional<Integer> partition(Row row) {
+    List<Cell<?>> cells = row.cells();
+    int hash = 1;
+    for (int i = 0; i != columns.length; ++i) {
+      int index = index(cells, i);
+      if (index < 0) return Optional.empty();
+      hash = 31 * hash + hash(cells.get(index).value());
+    }
+    return Optional.of((mix(hash) & Integer.MAX_VALUE) % partitions);
+  }
+
+  /**
+   * find the index of column. The cached index is checked first, and the column is searched by name
+   * only if the layout of row is changed.
+   *
+   * @param cells cells of row
+   * @param column the index of column
+   * @return the index of cell, or -1 if the row doesn't have the column
+   */
+  private int index(List<Cell<?>> cells, int column) {
+    int index = indexes[column];
+    if (index >= 0 && index < cells.size() && cells.get(index).name().equals(columns[column]))
+      return index;
+    for (int i = 0; i != cells.size(); ++i) {
+      if (cells.get(i).name().equals(columns[column])) {
+        indexes[column] = i;
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * the hash of value. The byte array has no value-based hash code so it is hashed by content.
+   *
+   * @param value cell value
+   * @return hash code
+   */
+  private static int hash(Object value) {
+    if (value instanceof byte[]) return Arrays.hashCode((byte[]) value);
+    return value.hashCode();
+  }
+
+  /**
+   * the finalizer of murmur3. The hash code of small numbers are too close to spread over
+   * partitions so the bits are mixed.
+   *
+   * @param hash hash code
+   * @return mixed hash code
+   */
+  private static int mix(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+}
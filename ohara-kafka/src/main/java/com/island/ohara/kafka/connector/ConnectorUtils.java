@@ -24,6 +24,7 @@ import com.island.ohara.common.util.ByteUtils;
 import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.kafka.connector.json.ConnectorDefUtils;
 import com.island.ohara.metrics.basic.Counter;
+import com.island.ohara.metrics.basic.Histogram;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -72,6 +73,7 @@ final class ConnectorUtils {
         .document("number of rows")
         .startTime(CommonUtils.current())
         .value(0)
+        .striped(true)
         .register();
   }
 
@@ -89,9 +91,56 @@ final class ConnectorUtils {
         .document("size (in bytes) of rows")
         .startTime(CommonUtils.current())
         .value(0)
+        .striped(true)
         .register();
   }
 
+  /**
+   * Create and register a histogram of time with specific group name. The unit is microsecond.
+   *
+   * @param group group name. It is normally equal to connector name
+   * @param name histogram name
+   * @param document document
+   * @return histogram
+   */
+  static Histogram timeHistogram(String group, String name, String document) {
+    return Histogram.builder()
+        .group(group)
+        .name(name)
+        .unit("microseconds")
+        .document(document)
+        .startTime(CommonUtils.current())
+        .register();
+  }
+
+  /**
+   * Create and register a histogram of batch size with specific group name.
+   *
+   * @param group group name. It is normally equal to connector name
+   * @param name histogram name
+   * @param document document
+   * @return histogram
+   */
+  static Histogram rowsHistogram(String group, String name, String document) {
+    return Histogram.builder()
+        .group(group)
+        .name(name)
+        .unit("rows")
+        .document(document)
+        .startTime(CommonUtils.current())
+        .register();
+  }
+
+  /**
+   * record the elapsed time, which is started from specific nano time, to the histogram.
+   *
+   * @param histogram histogram. nothing happens if it is null
+   * @param startNanos the start time in nanoseconds
+   */
+  static void recordSince(Histogram histogram, long startNanos) {
+    if (histogram != null) histogram.record((System.nanoTime() - startNanos) / 1000);
+  }
+
   /**
    * calculate the size of kafka record. NOTED: this method cares for only key and value in record
    *
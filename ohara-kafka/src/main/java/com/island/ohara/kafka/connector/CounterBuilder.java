@@ -60,6 +60,18 @@ public final class CounterBuilder implements Builder<Counter> {
     return this;
   }
 
+  /**
+   * @param striped true if the counter is backed by LongAdder. It is faster if the counter is
+   *     updated by many threads, but the read-modify-write operations, such as {@link
+   *     Counter#getAndSet(long)}, are not atomic.
+   * @return this builder
+   */
+  @com.island.ohara.common.annotations.Optional("default is false")
+  public CounterBuilder striped(boolean striped) {
+    builder.striped(striped);
+    return this;
+  }
+
   /**
    * create and register an new counter.
    *
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector;
+
+import com.island.ohara.common.data.Row;
+import java.util.Optional;
+
+/**
+ * Used by {@link RowSourceTask} to pick the target partition of the records which don't specify the
+ * partition. By default, kafka hashes the serialized row so the rows are spread by the whole row. A
+ * partitioner is able to route the rows having the same values of some columns to the same
+ * partition in order to keep the locality for downstream processing.
+ *
+ * <p>The partitioner is created by {@link RowSourceTask} according to the settings of {@link
+ * com.island.ohara.kafka.connector.json.ConnectorDefUtils#PARTITIONER_CLASS_DEFINITION}. The
+ * implementation must have a public no-arg constructor.
+ */
+public interface RowPartitioner {
+
+  /**
+   * configure this partitioner. It is called once before this partitioner is used.
+   *
+   * @param setting task setting
+   */
+  default void configure(TaskSetting setting) {
+    // do nothing
+  }
+
+  /**
+   * @param topicName target topic
+   * @param row row
+   * @return target partition. empty if the partition should be decided by kafka
+   */
+  Optional<Integer> partition(String topicName, Row row);
+}
@@ -16,6 +16,7 @@
 
 package com.island.ohara.kafka.connector;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
@@ -60,6 +61,37 @@ public interface RowSinkContext {
     this.offset(Collections.singletonMap(partition, offset));
   }
 
+  /**
+   * Pause consumption of messages from the specified partitions. The paused partitions won't
+   * receive records until they are resumed. It is useful to bound the memory usage when the sink
+   * system is slower than kafka.
+   *
+   * @param partitions the partitions which should be paused
+   */
+  void pause(Collection<TopicPartition> partitions);
+
+  default void pause(TopicPartition partition) {
+    pause(Collections.singletonList(partition));
+  }
+
+  /**
+   * Resume consumption of messages from previously paused partitions.
+   *
+   * @param partitions the partitions to resume
+   */
+  void resume(Collection<TopicPartition> partitions);
+
+  default void resume(TopicPartition partition) {
+    resume(Collections.singletonList(partition));
+  }
+
+  /**
+   * Request an offset commit. Sink tasks can use this to minimize the potential for redelivery by
+   * requesting an offset commit as soon as they flush data to the destination system. It is only a
+   * hint to the runtime and no timing guarantee should be assumed.
+   */
+  void requestCommit();
+
   static RowSinkContext toRowSinkContext(SinkTaskContext context) {
     return new RowSinkContext() {
       @Override
@@ -80,6 +112,28 @@ public interface RowSinkContext {
             .map(tp -> new TopicPartition(tp.topic(), tp.partition()))
             .collect(Collectors.toSet());
       }
+
+      @Override
+      public void pause(Collection<TopicPartition> partitions) {
+        context.pause(toKafka(partitions));
+      }
+
+      @Override
+      public void resume(Collection<TopicPartition> partitions) {
+        context.resume(toKafka(partitions));
+      }
+
+      @Override
+      public void requestCommit() {
+        context.requestCommit();
+      }
+
+      private org.apache.kafka.common.TopicPartition[] toKafka(
+          Collection<TopicPartition> partitions) {
+        return partitions.stream()
+            .map(p -> new org.apache.kafka.common.TopicPartition(p.topicName(), p.partition()))
+            .toArray(org.apache.kafka.common.TopicPartition[]::new);
+      }
     };
   }
 }
@@ -26,11 +26,18 @@ import org.apache.kafka.connect.sink.SinkRecord;
 /**
  * The methods it have are almost same with SinkRecord. It return Table rather than any object.
  * Also, it doesn't have method to return value schema because the value schema is useless to user.
+ *
+ * <p>The row received from kafka is decoded lazily. The sinks which forward the serialized data
+ * only should use {@link #rowBytes()} to avoid the cost of decoding.
  */
 public class RowSinkRecord {
 
   private final String topicName;
-  private final Row row;
+  /** the row is decoded from bytes on first access */
+  private volatile Row row;
+  /** the serialized row. It is null if this record is created by a row */
+  private final byte[] rowBytes;
+
   private final int partition;
   private final long offset;
   private final long timestamp;
@@ -39,12 +46,15 @@ public class RowSinkRecord {
   private RowSinkRecord(
       String topicName,
       Row row,
+      byte[] rowBytes,
       int partition,
       long offset,
       long timestamp,
       TimestampType timestampType) {
     this.topicName = CommonUtils.requireNonEmpty(topicName);
-    this.row = Objects.requireNonNull(row);
+    if (row == null && rowBytes == null) throw new NullPointerException("row is required");
+    this.row = row;
+    this.rowBytes = rowBytes;
     this.partition = partition;
     this.offset = offset;
     this.timestamp = timestamp;
@@ -56,9 +66,20 @@ public class RowSinkRecord {
   }
 
   public Row row() {
+    if (row == null) row = Serializer.ROW.from(rowBytes);
     return row;
   }
 
+  /**
+   * the serialized row. If this record is received from kafka, the bytes are returned directly
+   * without decoding. Noted: the returned array should not be modified.
+   *
+   * @return serialized row
+   */
+  public byte[] rowBytes() {
+    return rowBytes == null ? Serializer.ROW.to(row) : rowBytes;
+  }
+
   public int partition() {
     return partition;
   }
@@ -80,13 +101,13 @@ public class RowSinkRecord {
    * @return ohara's sink record
    */
   static RowSinkRecord of(SinkRecord record) {
-    return builder()
+    Builder builder = builder();
+    // add a room to accept the row in kafka
+    if (record.key() instanceof Row) builder.row((Row) record.key());
+    // the bytes are decoded when the row is required
+    else builder.rowBytes((byte[]) record.key());
+    return builder
         .topicName(record.topic())
-        // add a room to accept the row in kafka
-        .row(
-            (record.key() instanceof Row)
-                ? ((Row) record.key())
-                : Serializer.ROW.from((byte[]) record.key()))
         .partition(record.kafkaPartition())
         .offset(record.kafkaOffset())
         // constructing a record without timeout is legal in kafka ...
@@ -106,6 +127,7 @@ public class RowSinkRecord {
 
     private String topicName;
     private Row row;
+    private byte[] rowBytes;
     private Integer partition;
     private Long offset;
     private Long timestamp;
@@ -118,6 +140,19 @@ public class RowSinkRecord {
 
     public Builder row(Row row) {
       this.row = Objects.requireNonNull(row);
+      this.rowBytes = null;
+      return this;
+    }
+
+    /**
+     * set the serialized row. The row is decoded when {@link RowSinkRecord#row()} is called.
+     *
+     * @param rowBytes serialized row
+     * @return this builder
+     */
+    public Builder rowBytes(byte[] rowBytes) {
+      this.rowBytes = Objects.requireNonNull(rowBytes);
+      this.row = null;
       return this;
     }
 
@@ -143,9 +178,11 @@ public class RowSinkRecord {
 
     @Override
     public RowSinkRecord build() {
+      if (row == null) Objects.requireNonNull(rowBytes);
       return new RowSinkRecord(
           CommonUtils.requireNonEmpty(topicName),
-          Objects.requireNonNull(row),
+          row,
+          rowBytes,
           Objects.requireNonNull(partition),
           Objects.requireNonNull(offset),
           Objects.requireNonNull(timestamp),
@@ -21,6 +21,7 @@ import com.island.ohara.common.annotations.VisibleForTesting;
 import com.island.ohara.common.util.Releasable;
 import com.island.ohara.common.util.VersionUtils;
 import com.island.ohara.metrics.basic.Counter;
+import com.island.ohara.metrics.basic.Histogram;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -117,17 +118,24 @@ public abstract class RowSinkTask extends SinkTask {
   // -------------------------------------------------[WRAPPED]-------------------------------------------------//
   @VisibleForTesting Counter rowCounter = null;
   @VisibleForTesting Counter sizeCounter = null;
+  @VisibleForTesting Histogram putTimeHistogram = null;
+  @VisibleForTesting Histogram putRowsHistogram = null;
+  @VisibleForTesting Histogram preCommitTimeHistogram = null;
 
   @Override
   public final void put(Collection<SinkRecord> records) {
     if (records == null) records = Collections.emptyList();
+    long start = System.nanoTime();
     try {
       _put(records.stream().map(RowSinkRecord::of).collect(Collectors.toList()));
     } finally {
+      ConnectorUtils.recordSince(putTimeHistogram, start);
+      // the idle put is recorded as a batch having zero row
+      if (putRowsHistogram != null) putRowsHistogram.record(records.size());
       // rowCounter should not be null ....
-      if (rowCounter != null) rowCounter.addAndGet(records.size());
+      if (rowCounter != null) rowCounter.add(records.size());
       if (sizeCounter != null)
-        sizeCounter.addAndGet(records.stream().mapToLong(ConnectorUtils::sizeOf).sum());
+        sizeCounter.add(records.stream().mapToLong(ConnectorUtils::sizeOf).sum());
     }
   }
 
@@ -151,6 +159,13 @@ public abstract class RowSinkTask extends SinkTask {
     taskSetting = TaskSetting.of(ImmutableMap.copyOf(props));
     rowCounter = ConnectorUtils.rowCounter(taskSetting.name());
     sizeCounter = ConnectorUtils.sizeCounter(taskSetting.name());
+    putTimeHistogram =
+        ConnectorUtils.timeHistogram(taskSetting.name(), "put.time", "time of putting rows");
+    putRowsHistogram =
+        ConnectorUtils.rowsHistogram(taskSetting.name(), "put.rows", "number of rows per put");
+    preCommitTimeHistogram =
+        ConnectorUtils.timeHistogram(
+            taskSetting.name(), "precommit.time", "time of preparing offsets to commit");
     _start(taskSetting);
   }
 
@@ -161,6 +176,9 @@ public abstract class RowSinkTask extends SinkTask {
     } finally {
       Releasable.close(rowCounter);
       Releasable.close(sizeCounter);
+      Releasable.close(putTimeHistogram);
+      Releasable.close(putRowsHistogram);
+      Releasable.close(preCommitTimeHistogram);
     }
   }
 
@@ -189,14 +207,20 @@ public abstract class RowSinkTask extends SinkTask {
   @Override
   public final Map<org.apache.kafka.common.TopicPartition, OffsetAndMetadata> preCommit(
       Map<org.apache.kafka.common.TopicPartition, OffsetAndMetadata> currentOffsets) {
-
-    return _preCommit(
-            currentOffsets.entrySet().stream()
-                .collect(
-                    Collectors.toMap(
-                        x -> new TopicPartition(x.getKey().topic(), x.getKey().partition()),
-                        x -> new TopicOffset(x.getValue().metadata(), x.getValue().offset()))))
-        .entrySet().stream()
+    long start = System.nanoTime();
+    Map<TopicPartition, TopicOffset> offsets;
+    try {
+      offsets =
+          _preCommit(
+              currentOffsets.entrySet().stream()
+                  .collect(
+                      Collectors.toMap(
+                          x -> new TopicPartition(x.getKey().topic(), x.getKey().partition()),
+                          x -> new TopicOffset(x.getValue().metadata(), x.getValue().offset()))));
+    } finally {
+      ConnectorUtils.recordSince(preCommitTimeHistogram, start);
+    }
+    return offsets.entrySet().stream()
         .collect(
             Collectors.toMap(
                 x ->
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector;
+
+import com.island.ohara.common.util.CommonUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.apache.kafka.connect.source.SourceRecord;
+
+/**
+ * The collector passed to {@link RowSourceTask#_poll(RowSourceCollector)}. The emitted records are
+ * converted to kafka's records immediately so the rows are serialized only once, and the number of
+ * rows and bytes are accounted inline.
+ *
+ * <p>The collector is reused by all polls of a task. Noted: kafka keeps the returned list until the
+ * records are sent so a new list is used by each poll.
+ */
+public final class RowSourceCollector {
+  private final int batchSize;
+  private final long batchBytes;
+  private final BiConsumer<SourceRecord, RowSourceRecord> listener;
+  private final RowPartitioner partitioner;
+  private List<SourceRecord> records;
+  private long bytes = 0;
+  private long conversionNanos = 0;
+
+  /**
+   * @param batchSize the expected max number of records in a poll
+   * @param batchBytes the expected max size of records in a poll
+   * @param listener invoked when a record is converted
+   */
+  RowSourceCollector(
+      int batchSize, long batchBytes, BiConsumer<SourceRecord, RowSourceRecord> listener) {
+    this(batchSize, batchBytes, listener, null);
+  }
+
+  /**
+   * @param batchSize the expected max number of records in a poll
+   * @param batchBytes the expected max size of records in a poll
+   * @param listener invoked when a record is converted
+   * @param partitioner used to decide the partition of records which don't specify the partition
+   */
+  RowSourceCollector(
+      int batchSize,
+      long batchBytes,
+      BiConsumer<SourceRecord, RowSourceRecord> listener,
+      RowPartitioner partitioner) {
+    this.batchSize = CommonUtils.requirePositiveInt(batchSize);
+    this.batchBytes = CommonUtils.requirePositiveLong(batchBytes);
+    this.listener = listener;
+    this.partitioner = partitioner;
+    this.records = new ArrayList<>(batchSize);
+  }
+
+  /**
+   * add a record to this batch. The record is always accepted even if the batch is full.
+   *
+   * @param record record
+   * @return false if the batch is full. The task should stop emitting records and return from
+   *     {@link RowSourceTask#_poll(RowSourceCollector)}
+   */
+  public boolean emit(RowSourceRecord record) {
+    long start = System.nanoTime();
+    SourceRecord sourceRecord =
+        record.toSourceRecord(
+            record.partition().isPresent() || partitioner == null
+                ? record.partition().orElse(null)
+                : partitioner.partition(record.topicName(), record.row()).orElse(null));
+    conversionNanos += System.nanoTime() - start;
+    bytes += ConnectorUtils.sizeOf(sourceRecord);
+    records.add(sourceRecord);
+    if (listener != null) listener.accept(sourceRecord, record);
+    return !isFull();
+  }
+
+  /** @return true if the number of records or bytes reaches the limit */
+  public boolean isFull() {
+    return records.size() >= batchSize || bytes >= batchBytes;
+  }
+
+  /** @return the number of records in this batch */
+  public int size() {
+    return records.size();
+  }
+
+  /** @return the size of records in this batch */
+  public long bytes() {
+    return bytes;
+  }
+
+  /** @return the expected max number of records in a poll */
+  public int batchSize() {
+    return batchSize;
+  }
+
+  /** @return the expected max size of records in a poll */
+  public long batchBytes() {
+    return batchBytes;
+  }
+
+  /** @return the time, in nanoseconds, spent on converting the records of this batch */
+  long conversionNanos() {
+    return conversionNanos;
+  }
+
+  /**
+   * take the records of this batch and then reset this collector.
+   *
+   * @return the records of this batch
+   */
+  List<SourceRecord> drain() {
+    List<SourceRecord> result = records;
+    records = new ArrayList<>(Math.min(batchSize, Math.max(result.size(), 16)));
+    bytes = 0;
+    conversionNanos = 0;
+    return result;
+  }
+}
@@ -27,6 +27,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.kafka.common.config.Config;
 import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.common.config.ConfigValue;
 import org.apache.kafka.connect.connector.ConnectorContext;
 import org.apache.kafka.connect.connector.Task;
 import org.apache.kafka.connect.source.SourceConnector;
@@ -121,6 +122,7 @@ public abstract class RowSourceConnector extends SourceConnector implements With
         Stream.of(
                 Collections.singletonList(ConnectorDefUtils.SOURCE_KIND_DEFINITION),
                 _definitions(),
+                ConnectorDefUtils.SOURCE_DEFINITIONS_DEFAULT,
                 ConnectorDefUtils.DEFINITIONS_DEFAULT)
             .flatMap(List::stream)
             .collect(Collectors.toList()),
@@ -155,6 +157,22 @@ public abstract class RowSourceConnector extends SourceConnector implements With
 
   @Override
   public final Config validate(Map<String, String> connectorConfigs) {
-    return super.validate(connectorConfigs);
+    Config config = super.validate(connectorConfigs);
+    // the cross-field check can't be expressed by the definitions
+    if (ColumnPartitioner.missPartitions(TaskSetting.of(ImmutableMap.copyOf(connectorConfigs)))) {
+      String key = ConnectorDefUtils.PARTITIONER_PARTITIONS_DEFINITION.key();
+      ConfigValue value =
+          config.configValues().stream()
+              .filter(v -> v.name().equals(key))
+              .findFirst()
+              .orElseGet(
+                  () -> {
+                    ConfigValue v = new ConfigValue(key);
+                    config.configValues().add(v);
+                    return v;
+                  });
+      value.addErrorMessage(ColumnPartitioner.missPartitionsMessage());
+    }
+    return config;
   }
 }
@@ -115,6 +115,16 @@ public class RowSourceRecord {
    * @return kafka's source
    */
   SourceRecord toSourceRecord() {
+    return toSourceRecord(partition);
+  }
+
+  /**
+   * convert this record to kafka's record with specified partition.
+   *
+   * @param partition target partition. null means the partition is computed by kafka
+   * @return kafka's source
+   */
+  SourceRecord toSourceRecord(Integer partition) {
     return new SourceRecord(
         sourcePartition(),
         sourceOffset(),
@@ -20,10 +20,14 @@ import com.google.common.collect.ImmutableMap;
 import com.island.ohara.common.annotations.VisibleForTesting;
 import com.island.ohara.common.util.Releasable;
 import com.island.ohara.common.util.VersionUtils;
+import com.island.ohara.kafka.connector.json.ConnectorDefUtils;
 import com.island.ohara.metrics.basic.Counter;
+import com.island.ohara.metrics.basic.Histogram;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.kafka.connect.source.SourceTask;
 import org.apache.kafka.connect.source.SourceTaskContext;
@@ -47,12 +51,42 @@ public abstract class RowSourceTask extends SourceTask {
   protected abstract void _stop();
   /**
    * Poll this SourceTask for new records. This method should block if no data is currently
-   * available.
+   * available. Noted: it is not called if the task overrides {@link #_poll(RowSourceCollector)}.
    *
    * @return a array from RowSourceRecord
    */
   protected abstract List<RowSourceRecord> _poll();
 
+  /**
+   * Poll this SourceTask for new records and emit them to the collector. This method should block
+   * if no data is currently available, and it should return when the collector is full. The batch
+   * API avoids the intermediate list of {@link #_poll()} since the records are converted when they
+   * are emitted.
+   *
+   * <p>The default implementation emits all records returned by {@link #_poll()}.
+   *
+   * @param collector used to collect the records
+   */
+  protected void _poll(RowSourceCollector collector) {
+    List<RowSourceRecord> records = _poll();
+    if (records != null) records.forEach(collector::emit);
+  }
+
+  /**
+   * The limits of records emitted by {@link #_poll(RowSourceCollector)}. The collector reports full
+   * if either the number or the size of records reaches the limit.
+   *
+   * @return the expected max number of records in a poll
+   */
+  protected int _batchSize() {
+    return 1000;
+  }
+
+  /** @return the expected max bytes of records in a poll */
+  protected long _batchBytes() {
+    return 8L * 1024 * 1024;
+  }
+
   /**
    * Commit an individual RowSourceRecord when the callback from the producer client is received, or
    * if a record is filtered by a transformation. SourceTasks are not required to implement this
@@ -95,24 +129,96 @@ public abstract class RowSourceTask extends SourceTask {
   // -------------------------------------------------[WRAPPED]-------------------------------------------------//
   @VisibleForTesting Counter rowCounter = null;
   @VisibleForTesting Counter sizeCounter = null;
+  @VisibleForTesting Histogram pollTimeHistogram = null;
+  @VisibleForTesting Histogram pollRowsHistogram = null;
+  @VisibleForTesting Histogram conversionTimeHistogram = null;
+
+  /**
+   * true if the sub class overrides {@link #_commitRecord(RowSourceRecord)}. Otherwise, we don't
+   * need to keep the emitted records.
+   */
+  private final boolean commitRecordOverridden =
+      overrides(getClass(), "_commitRecord", RowSourceRecord.class);
+
+  /**
+   * the RowSourceRecords which are sent but not committed. Kafka passes the same SourceRecord
+   * object to {@link #commitRecord(SourceRecord)} so we can find the RowSourceRecord by identity
+   * rather than deserializing the row from bytes.
+   */
+  @VisibleForTesting
+  final Map<SourceRecord, RowSourceRecord> uncommittedRecords =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+
+  /** the collector is created by first poll. */
+  private RowSourceCollector collector = null;
+
+  /** used to decide the partition of records. null means the partition is computed by kafka. */
+  @VisibleForTesting RowPartitioner partitioner = null;
+
+  /**
+   * create the partitioner according to the settings.
+   *
+   * @param setting task setting
+   * @return partitioner or null if neither partitioner class nor partitioner columns are defined
+   */
+  @VisibleForTesting
+  static RowPartitioner partitioner(TaskSetting setting) {
+    Optional<String> className =
+        setting.stringOption(ConnectorDefUtils.PARTITIONER_CLASS_DEFINITION.key());
+    RowPartitioner partitioner;
+    if (className.isPresent()) {
+      try {
+        partitioner =
+            Class.forName(className.get())
+                .asSubclass(RowPartitioner.class)
+                .getDeclaredConstructor()
+                .newInstance();
+      } catch (ReflectiveOperationException | ClassCastException e) {
+        throw new IllegalArgumentException(
+            "failed to create partitioner from " + className.get(), e);
+      }
+    } else if (ColumnPartitioner.isUsed(setting)) partitioner = new ColumnPartitioner();
+    else return null;
+    partitioner.configure(setting);
+    return partitioner;
+  }
+
+  private static boolean overrides(Class<?> clz, String name, Class<?>... parameterTypes) {
+    for (Class<?> c = clz; c != null && c != RowSourceTask.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod(name, parameterTypes);
+        return true;
+      } catch (NoSuchMethodException e) {
+        // keep searching the super class
+      }
+    }
+    return false;
+  }
 
   @Override
   public final List<SourceRecord> poll() {
-    List<RowSourceRecord> value = _poll();
+    if (collector == null)
+      collector =
+          new RowSourceCollector(
+              _batchSize(),
+              _batchBytes(),
+              commitRecordOverridden ? uncommittedRecords::put : null,
+              partitioner);
+    long start = System.nanoTime();
+    _poll(collector);
+    ConnectorUtils.recordSince(pollTimeHistogram, start);
+    if (conversionTimeHistogram != null && collector.size() > 0)
+      conversionTimeHistogram.record(collector.conversionNanos() / 1000);
+    long bytes = collector.bytes();
+    List<SourceRecord> records = collector.drain();
+    // the idle poll is recorded as a batch having zero row
+    if (pollRowsHistogram != null) pollRowsHistogram.record(records.size());
     // kafka connector doesn't support the empty list in testing. see
     // https://github.com/apache/kafka/pull/4958
-    if (value == null || value.isEmpty()) return null;
-    else {
-      List<SourceRecord> records =
-          value.stream().map(RowSourceRecord::toSourceRecord).collect(Collectors.toList());
-      try {
-        return records;
-      } finally {
-        if (rowCounter != null) rowCounter.addAndGet(records.size());
-        if (sizeCounter != null)
-          sizeCounter.addAndGet(records.stream().mapToLong(ConnectorUtils::sizeOf).sum());
-      }
-    }
+    if (records.isEmpty()) return null;
+    if (rowCounter != null) rowCounter.add(records.size());
+    if (sizeCounter != null) sizeCounter.add(bytes);
+    return records;
   }
 
   /**
@@ -135,6 +241,14 @@ public abstract class RowSourceTask extends SourceTask {
     taskSetting = TaskSetting.of(ImmutableMap.copyOf(props));
     rowCounter = ConnectorUtils.rowCounter(taskSetting.name());
     sizeCounter = ConnectorUtils.sizeCounter(taskSetting.name());
+    pollTimeHistogram =
+        ConnectorUtils.timeHistogram(taskSetting.name(), "poll.time", "time of polling rows");
+    pollRowsHistogram =
+        ConnectorUtils.rowsHistogram(taskSetting.name(), "poll.rows", "number of rows per poll");
+    conversionTimeHistogram =
+        ConnectorUtils.timeHistogram(
+            taskSetting.name(), "poll.conversion.time", "time of serializing rows per poll");
+    partitioner = partitioner(taskSetting);
     _start(taskSetting);
   }
 
@@ -143,8 +257,12 @@ public abstract class RowSourceTask extends SourceTask {
     try {
       _stop();
     } finally {
+      uncommittedRecords.clear();
       Releasable.close(rowCounter);
       Releasable.close(sizeCounter);
+      Releasable.close(pollTimeHistogram);
+      Releasable.close(pollRowsHistogram);
+      Releasable.close(conversionTimeHistogram);
     }
   }
 
@@ -153,10 +271,13 @@ public abstract class RowSourceTask extends SourceTask {
     _commit();
   }
 
-  // TODO: We do a extra conversion here (bytes => Row)... by chia
   @Override
   public final void commitRecord(SourceRecord record) {
-    _commitRecord(RowSourceRecord.of(record));
+    if (commitRecordOverridden) {
+      RowSourceRecord r = uncommittedRecords.remove(record);
+      // the record is not emitted by this task so we have to convert it
+      _commitRecord(r != null ? r : RowSourceRecord.of(record));
+    }
   }
 
   @Override
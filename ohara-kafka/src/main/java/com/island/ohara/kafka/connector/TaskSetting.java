@@ -16,8 +16,6 @@
 
 package com.island.ohara.kafka.connector;
 
-import static com.island.ohara.common.util.CommonUtils.toDuration;
-
 import com.google.common.collect.ImmutableMap;
 import com.island.ohara.common.annotations.VisibleForTesting;
 import com.island.ohara.common.data.Column;
@@ -34,8 +32,13 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
-/** this class carries all required settings for row connectors. */
+/**
+ * this class carries all required settings for row connectors. The typed values are parsed once and
+ * then cached, so it is cheap to lookup the settings repeatedly.
+ */
 public class TaskSetting {
   /**
    * create a TaskSetting based on raw input. This method is used by task. It doesn't need to fill
@@ -69,8 +72,27 @@ public class TaskSetting {
     return new TaskSetting(copy);
   }
 
+  private static final Function<String, Long> LONG = Long::valueOf;
+  private static final Function<String, Integer> INT = Integer::valueOf;
+  private static final Function<String, Short> SHORT = Short::valueOf;
+  private static final Function<String, Double> DOUBLE = Double::valueOf;
+  private static final Function<String, Boolean> BOOLEAN = TaskSetting::toBoolean;
+  private static final Function<String, List<String>> STRING_LIST =
+      value -> Collections.unmodifiableList(StringList.ofKafkaList(value));
+  private static final Function<String, PropGroups> PROP_GROUPS = PropGroups::ofJson;
+  private static final Function<String, Duration> DURATION = CommonUtils::toDuration;
+  private static final Function<String, List<Column>> COLUMNS =
+      value -> Collections.unmodifiableList(PropGroups.ofJson(value).toColumns());
+
   private final Map<String, String> raw;
 
+  /**
+   * the parsed values. The settings are immutable so each value is parsed once, and the following
+   * lookups are plain map reads. The outer key is the parser since a value may be parsed to
+   * different types.
+   */
+  private final Map<Function<String, ?>, Map<String, Object>> parsed = new ConcurrentHashMap<>();
+
   private TaskSetting(Map<String, String> raw) {
     this.raw = ImmutableMap.copyOf(Objects.requireNonNull(raw));
     raw.forEach(
@@ -80,6 +102,39 @@ public class TaskSetting {
         });
   }
 
+  /**
+   * parse the value by the parser. The parsed value is cached. Noted: the failed parse is not
+   * cached so the exception is thrown again by next call.
+   *
+   * @param key key
+   * @param parser parser
+   * @param <T> value type
+   * @return parsed value or null if the key doesn't exist
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T parse(String key, Function<String, T> parser) {
+    String value = raw.get(key);
+    if (value == null) return null;
+    Map<String, Object> values = parsed.get(parser);
+    if (values == null) values = parsed.computeIfAbsent(parser, p -> new ConcurrentHashMap<>());
+    Object result = values.get(key);
+    if (result == null) {
+      result = parser.apply(value);
+      values.putIfAbsent(key, result);
+    }
+    return (T) result;
+  }
+
+  private <T> T parseValue(String key, Function<String, T> parser) {
+    T value = parse(key, parser);
+    if (value == null) throw new NoSuchElementException(key + " doesn't exist");
+    return value;
+  }
+
+  private <T> Optional<T> parseOption(String key, Function<String, T> parser) {
+    return Optional.ofNullable(parse(key, parser));
+  }
+
   /**
    * take string value according to mapped key.
    *
@@ -112,7 +167,7 @@ public class TaskSetting {
    * @return value
    */
   public long longValue(String key) {
-    return Long.valueOf(stringValue(key));
+    return parseValue(key, LONG);
   }
 
   /**
@@ -124,7 +179,7 @@ public class TaskSetting {
    * @return value
    */
   public Optional<Long> longOption(String key) {
-    return Optional.ofNullable(raw.get(key)).map(Long::valueOf);
+    return parseOption(key, LONG);
   }
 
   /**
@@ -136,7 +191,7 @@ public class TaskSetting {
    * @return value
    */
   public int intValue(String key) {
-    return Integer.valueOf(stringValue(key));
+    return parseValue(key, INT);
   }
 
   /**
@@ -148,7 +203,7 @@ public class TaskSetting {
    * @return value
    */
   public Optional<Integer> intOption(String key) {
-    return Optional.ofNullable(raw.get(key)).map(Integer::valueOf);
+    return parseOption(key, INT);
   }
 
   /**
@@ -160,7 +215,7 @@ public class TaskSetting {
    * @return value
    */
   public short shortValue(String key) {
-    return Short.valueOf(stringValue(key));
+    return parseValue(key, SHORT);
   }
 
   /**
@@ -172,7 +227,7 @@ public class TaskSetting {
    * @return value
    */
   public Optional<Short> shortOption(String key) {
-    return Optional.ofNullable(raw.get(key)).map(Short::valueOf);
+    return parseOption(key, SHORT);
   }
 
   /**
@@ -184,7 +239,7 @@ public class TaskSetting {
    * @return value
    */
   public double doubleValue(String key) {
-    return Double.valueOf(stringValue(key));
+    return parseValue(key, DOUBLE);
   }
 
   /**
@@ -196,7 +251,7 @@ public class TaskSetting {
    * @return value
    */
   public Optional<Double> doubleOption(String key) {
-    return Optional.ofNullable(raw.get(key)).map(Double::valueOf);
+    return parseOption(key, DOUBLE);
   }
 
   /**
@@ -208,7 +263,7 @@ public class TaskSetting {
    * @return value
    */
   public boolean booleanValue(String key) {
-    return toBoolean(stringValue(key));
+    return parseValue(key, BOOLEAN);
   }
 
   private static boolean toBoolean(String value) {
@@ -227,7 +282,7 @@ public class TaskSetting {
    * @return value
    */
   public Optional<Boolean> booleanOption(String key) {
-    return Optional.ofNullable(raw.get(key)).map(TaskSetting::toBoolean);
+    return parseOption(key, BOOLEAN);
   }
 
   /**
@@ -235,10 +290,10 @@ public class TaskSetting {
    *
    * @param key key
    * @throws NoSuchElementException if no existent value for input key
-   * @return value
+   * @return an unmodifiable list
    */
   public List<String> stringList(String key) {
-    return StringList.ofKafkaList(stringValue(key));
+    return parseValue(key, STRING_LIST);
   }
 
   /**
@@ -249,7 +304,7 @@ public class TaskSetting {
    * @return value
    */
   public Optional<List<String>> stringListOption(String key) {
-    return Optional.ofNullable(raw.get(key)).map(StringList::ofKafkaList);
+    return parseOption(key, STRING_LIST);
   }
 
   /**
@@ -260,7 +315,7 @@ public class TaskSetting {
    * @return value
    */
   public PropGroups propGroups(String key) {
-    return PropGroups.ofJson(stringValue(key));
+    return parseValue(key, PROP_GROUPS);
   }
 
   /**
@@ -271,7 +326,7 @@ public class TaskSetting {
    * @return value
    */
   public Optional<PropGroups> propGroupsOption(String key) {
-    return Optional.ofNullable(raw.get(key)).map(PropGroups::ofJson);
+    return parseOption(key, PROP_GROUPS);
   }
 
   /**
@@ -282,7 +337,7 @@ public class TaskSetting {
    * @return duration value
    */
   public Duration duration(String key) {
-    return toDuration(stringValue(key));
+    return parseValue(key, DURATION);
   }
 
   /**
@@ -292,7 +347,7 @@ public class TaskSetting {
    * @return duration value
    */
   public Optional<Duration> durationOption(String key) {
-    return Optional.ofNullable(raw.get(key)).map(CommonUtils::toDuration);
+    return parseOption(key, DURATION);
   }
 
   // ----------------------------------[helper methods]----------------------------------//
@@ -305,8 +360,7 @@ public class TaskSetting {
   }
 
   public List<Column> columns() {
-    return propGroupsOption(ConnectorDefUtils.COLUMNS_DEFINITION.key())
-        .map(PropGroups::toColumns)
+    return parseOption(ConnectorDefUtils.COLUMNS_DEFINITION.key(), COLUMNS)
         .orElseGet(Collections::emptyList);
   }
 
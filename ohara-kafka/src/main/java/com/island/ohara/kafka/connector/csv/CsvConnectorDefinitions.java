@@ -17,6 +17,7 @@
 package com.island.ohara.kafka.connector.csv;
 
 import com.island.ohara.common.setting.SettingDef;
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /** this class maintains all available definitions for both csv source and csv sink. */
@@ -113,6 +114,196 @@ public final class CsvConnectorDefinitions {
           .orderInGroup(COUNTER.getAndIncrement())
           .build();
 
+  public static final String FILE_DELIMITER_KEY = "file.delimiter";
+  public static final String FILE_DELIMITER_DEFAULT = ",";
+  public static final SettingDef FILE_DELIMITER_DEFINITION =
+      SettingDef.builder()
+          .displayName("File Delimiter")
+          .documentation("The single char used to separate the fields of input csv files")
+          .valueType(SettingDef.Type.STRING)
+          .key(FILE_DELIMITER_KEY)
+          .optional(FILE_DELIMITER_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String FILE_COMPRESSION_KEY = "file.compression";
+  public static final String FILE_COMPRESSION_DEFAULT = "none";
+  public static final SettingDef FILE_COMPRESSION_DEFINITION =
+      SettingDef.builder()
+          .displayName("File Compression")
+          .documentation(
+              "The compression of input csv files. The supported values are none, gzip, zstd,"
+                  + " snappy (framing format) and auto. \"auto\" means the compression is detected"
+                  + " by the file extension (.gz, .zst, .zstd and .sz)")
+          .valueType(SettingDef.Type.STRING)
+          .key(FILE_COMPRESSION_KEY)
+          .optional(FILE_COMPRESSION_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String ROTATE_MAX_BYTES_KEY = "rotate.max.bytes";
+  public static final long ROTATE_MAX_BYTES_DEFAULT = 0;
+  public static final SettingDef ROTATE_MAX_BYTES_DEFINITION =
+      SettingDef.builder()
+          .displayName("Rotate Max Bytes")
+          .documentation(
+              "The max bytes of records written to the files of a partition before the files are"
+                  + " committed. Zero means the files are committed by flush.size and"
+                  + " rotate.interval.ms only")
+          .valueType(SettingDef.Type.LONG)
+          .key(ROTATE_MAX_BYTES_KEY)
+          .optional(ROTATE_MAX_BYTES_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String BUFFER_MAX_BYTES_KEY = "buffer.max.bytes";
+  public static final long BUFFER_MAX_BYTES_DEFAULT = 0;
+  public static final SettingDef BUFFER_MAX_BYTES_DEFINITION =
+      SettingDef.builder()
+          .displayName("Buffer Max Bytes")
+          .documentation(
+              "The memory budget of each partition. The partition is paused when the bytes of its"
+                  + " records which are not committed to files, including the records waiting for"
+                  + " writer threads, exceed this size, and it is resumed after they drop to half of"
+                  + " this size. It requires a positive rotate.interval.ms since the paused partition"
+                  + " gets no records to reach flush.size. Zero means unlimited")
+          .valueType(SettingDef.Type.LONG)
+          .key(BUFFER_MAX_BYTES_KEY)
+          .optional(BUFFER_MAX_BYTES_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String WRITER_THREADS_KEY = "writer.threads";
+  public static final int WRITER_THREADS_DEFAULT = 0;
+  public static final SettingDef WRITER_THREADS_DEFINITION =
+      SettingDef.builder()
+          .displayName("Writer Threads")
+          .documentation(
+              "The number of threads used to write data to file system. Zero means the data is"
+                  + " written by the task thread")
+          .valueType(SettingDef.Type.INT)
+          .key(WRITER_THREADS_KEY)
+          .optional(WRITER_THREADS_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String WRITER_QUEUE_SIZE_KEY = "writer.queue.size";
+  public static final int WRITER_QUEUE_SIZE_DEFAULT = 10000;
+  public static final SettingDef WRITER_QUEUE_SIZE_DEFINITION =
+      SettingDef.builder()
+          .displayName("Writer Queue Size")
+          .documentation(
+              "The max number of records waiting for writer threads. It is used only if the writer"
+                  + " threads is bigger than zero. See also buffer.max.bytes for the bytes of them")
+          .valueType(SettingDef.Type.INT)
+          .key(WRITER_QUEUE_SIZE_KEY)
+          .optional(WRITER_QUEUE_SIZE_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String MAX_LINES_PER_POLL_KEY = "max.lines.per.poll";
+  public static final int MAX_LINES_PER_POLL_DEFAULT = 1000;
+  public static final SettingDef MAX_LINES_PER_POLL_DEFINITION =
+      SettingDef.builder()
+          .displayName("Max Lines Per Poll")
+          .documentation(
+              "The max number of lines read from a csv file in a poll. The large file is read by"
+                  + " many polls so the memory usage is bounded by this number")
+          .valueType(SettingDef.Type.INT)
+          .key(MAX_LINES_PER_POLL_KEY)
+          .optional(MAX_LINES_PER_POLL_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String READER_THREADS_KEY = "reader.threads";
+  public static final int READER_THREADS_DEFAULT = 0;
+  public static final SettingDef READER_THREADS_DEFINITION =
+      SettingDef.builder()
+          .displayName("Reader Threads")
+          .documentation(
+              "The number of threads used to read csv files concurrently. Each thread reads a file"
+                  + " claimed by the task. Zero means the files are read by the task thread one by"
+                  + " one. Noted: each thread opens its own connection to file system if this value"
+                  + " is bigger than 1")
+          .valueType(SettingDef.Type.INT)
+          .key(READER_THREADS_KEY)
+          .optional(READER_THREADS_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String LISTING_INTERVAL_KEY = "listing.interval";
+  public static final Duration LISTING_INTERVAL_DEFAULT = Duration.ofSeconds(1);
+  public static final SettingDef LISTING_INTERVAL_DEFINITION =
+      SettingDef.builder()
+          .displayName("Listing Interval")
+          .documentation(
+              "The min interval between the listings of input folder. The folder is listed again"
+                  + " only if all listed files are processed")
+          .valueType(SettingDef.Type.DURATION)
+          .key(LISTING_INTERVAL_KEY)
+          .optional(LISTING_INTERVAL_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String LISTING_CHANGE_DETECTION_KEY = "listing.change.detection";
+  public static final String LISTING_CHANGE_DETECTION_DEFAULT = "none";
+  public static final SettingDef LISTING_CHANGE_DETECTION_DEFINITION =
+      SettingDef.builder()
+          .displayName("Listing Change Detection")
+          .documentation(
+              "The way to detect the changes of input folder when the listing interval is elapsed."
+                  + " \"none\" means the folder is listed by each interval. \"mtime\" means the"
+                  + " folder is listed only if its last modified time is changed")
+          .valueType(SettingDef.Type.STRING)
+          .key(LISTING_CHANGE_DETECTION_KEY)
+          .optional(LISTING_CHANGE_DETECTION_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String OFFSET_CHECKPOINT_LINES_KEY = "offset.checkpoint.lines";
+  public static final int OFFSET_CHECKPOINT_LINES_DEFAULT = 1000;
+  public static final SettingDef OFFSET_CHECKPOINT_LINES_DEFINITION =
+      SettingDef.builder()
+          .displayName("Offset Checkpoint Lines")
+          .documentation(
+              "The number of lines between the offset checkpoints of a csv file. The last line of"
+                  + " each poll is always a checkpoint. The file is resumed from the byte position"
+                  + " of latest checkpoint after restart")
+          .valueType(SettingDef.Type.INT)
+          .key(OFFSET_CHECKPOINT_LINES_KEY)
+          .optional(OFFSET_CHECKPOINT_LINES_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String ROW_ERROR_POLICY_KEY = "row.error.policy";
+  public static final String ROW_ERROR_POLICY_DEFAULT = "fail";
+  public static final SettingDef ROW_ERROR_POLICY_DEFINITION =
+      SettingDef.builder()
+          .displayName("Row Error Policy")
+          .documentation(
+              "The way to handle the malformed line of csv file. \"fail\" moves the whole file to"
+                  + " the error folder. \"skip\" drops the line. \"null\" removes the unparsable"
+                  + " cells from the row. \"dead_letter\" sends the raw fields of line to the dead"
+                  + " letter topic")
+          .valueType(SettingDef.Type.STRING)
+          .key(ROW_ERROR_POLICY_KEY)
+          .optional(ROW_ERROR_POLICY_DEFAULT)
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
+  public static final String DEAD_LETTER_TOPIC_KEY = "dead.letter.topic";
+  public static final SettingDef DEAD_LETTER_TOPIC_DEFINITION =
+      SettingDef.builder()
+          .displayName("Dead Letter Topic")
+          .documentation(
+              "The topic receiving the malformed lines. It is required by the dead_letter policy")
+          .valueType(SettingDef.Type.OBJECT_KEY)
+          .reference(SettingDef.Reference.TOPIC)
+          .key(DEAD_LETTER_TOPIC_KEY)
+          .optional()
+          .orderInGroup(COUNTER.getAndIncrement())
+          .build();
+
   public static final String TASK_TOTAL_KEY = "task.total";
   public static final String TASK_HASH_KEY = "task.hash";
 
@@ -16,11 +16,15 @@
 
 package com.island.ohara.kafka.connector.csv;
 
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.BUFFER_MAX_BYTES_DEFINITION;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ENCODE_DEFINITION;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_NEED_HEADER_DEFINITION;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FLUSH_SIZE_DEFINITION;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.ROTATE_INTERVAL_MS_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.ROTATE_MAX_BYTES_DEFINITION;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.TOPICS_DIR_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.WRITER_QUEUE_SIZE_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.WRITER_THREADS_DEFINITION;
 
 import com.island.ohara.common.setting.SettingDef;
 import com.island.ohara.kafka.connector.RowSinkConnector;
@@ -39,6 +43,10 @@ import java.util.stream.Stream;
  *   <li>ROTATE_INTERVAL_MS_DEFINITION: Commit file time
  *   <li>FILE_NEED_HEADER_DEFINITION: File need header for flush data
  *   <li>FILE_ENCODE_DEFINITION: File encode for write to file
+ *   <li>ROTATE_MAX_BYTES_DEFINITION: The max bytes of records written to files before commit
+ *   <li>BUFFER_MAX_BYTES_DEFINITION: The memory budget of each partition
+ *   <li>WRITER_THREADS_DEFINITION: The number of threads used to write data
+ *   <li>WRITER_QUEUE_SIZE_DEFINITION: The max number of records waiting for writer threads
  * </ul>
  */
 public abstract class CsvSinkConnector extends RowSinkConnector {
@@ -50,7 +58,11 @@ public abstract class CsvSinkConnector extends RowSinkConnector {
                 FLUSH_SIZE_DEFINITION,
                 ROTATE_INTERVAL_MS_DEFINITION,
                 FILE_NEED_HEADER_DEFINITION,
-                FILE_ENCODE_DEFINITION),
+                FILE_ENCODE_DEFINITION,
+                ROTATE_MAX_BYTES_DEFINITION,
+                BUFFER_MAX_BYTES_DEFINITION,
+                WRITER_THREADS_DEFINITION,
+                WRITER_QUEUE_SIZE_DEFINITION),
             super.definitions())
         .flatMap(List::stream)
         .collect(Collectors.toList());
@@ -17,6 +17,7 @@
 package com.island.ohara.kafka.connector.csv;
 
 import com.island.ohara.kafka.connector.*;
+import com.island.ohara.kafka.connector.csv.sink.AsyncCsvDataWriter;
 import com.island.ohara.kafka.connector.csv.sink.CsvDataWriter;
 import com.island.ohara.kafka.connector.csv.sink.CsvSinkConfig;
 import com.island.ohara.kafka.connector.csv.sink.DataWriter;
@@ -32,6 +33,10 @@ import org.slf4j.LoggerFactory;
  * CsvSinkTask ia a Ohara RowSinkTask wrapper. It used to convert the RowSinkRecord to CSV files.
  * Ohara developers should extend this class rather than RowSinkTask in order to let the conversion
  * from RowSinkRecord to CSV files work easily.
+ *
+ * <p>If the "writer.threads" is bigger than zero, the data is written by a group of writer threads
+ * so the task thread is able to fetch data from kafka without waiting for file system. The offsets
+ * committed to kafka are always the offsets of committed files.
  */
 public abstract class CsvSinkTask extends RowSinkTask {
   private static final Logger log = LoggerFactory.getLogger(CsvSinkTask.class);
@@ -51,8 +56,12 @@ public abstract class CsvSinkTask extends RowSinkTask {
   @Override
   protected void _start(TaskSetting setting) {
     fileSystem = Objects.requireNonNull(_fileSystem(setting));
+    CsvSinkConfig config = CsvSinkConfig.of(setting, setting.columns());
+    // write data on the task thread if there is no writer threads
     writer =
-        new CsvDataWriter(CsvSinkConfig.of(setting, setting.columns()), rowContext, fileSystem);
+        config.writerThreads() > 0
+            ? new AsyncCsvDataWriter(config, rowContext, fileSystem)
+            : new CsvDataWriter(config, rowContext, fileSystem);
   }
 
   @Override
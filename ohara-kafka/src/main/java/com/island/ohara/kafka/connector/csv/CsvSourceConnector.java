@@ -17,9 +17,18 @@
 package com.island.ohara.kafka.connector.csv;
 
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.COMPLETED_FOLDER_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.DEAD_LETTER_TOPIC_DEFINITION;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.ERROR_FOLDER_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_COMPRESSION_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_DELIMITER_DEFINITION;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ENCODE_DEFINITION;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.INPUT_FOLDER_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.LISTING_CHANGE_DETECTION_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.LISTING_INTERVAL_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.MAX_LINES_PER_POLL_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.OFFSET_CHECKPOINT_LINES_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.READER_THREADS_DEFINITION;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.ROW_ERROR_POLICY_DEFINITION;
 
 import com.island.ohara.common.setting.SettingDef;
 import com.island.ohara.kafka.connector.RowSourceConnector;
@@ -40,6 +49,15 @@ import java.util.stream.Stream;
  *   <li>COMPLETED_FOLDER_DEFINITION: This folder is used to store the completed files
  *   <li>ERROR_FOLDER_DEFINITION: This folder is used to keep the invalid files
  *   <li>FILE_ENCODE_DEFINITION: File encode for write to file
+ *   <li>FILE_DELIMITER_DEFINITION: The char used to separate the fields of input files
+ *   <li>FILE_COMPRESSION_DEFINITION: The compression of input files
+ *   <li>MAX_LINES_PER_POLL_DEFINITION: The max number of lines read from a csv file in a poll
+ *   <li>READER_THREADS_DEFINITION: The number of threads used to read csv files concurrently
+ *   <li>LISTING_INTERVAL_DEFINITION: The min interval between the listings of input folder
+ *   <li>LISTING_CHANGE_DETECTION_DEFINITION: The way to detect the changes of input folder
+ *   <li>OFFSET_CHECKPOINT_LINES_DEFINITION: The number of lines between the offset checkpoints
+ *   <li>ROW_ERROR_POLICY_DEFINITION: The way to handle the malformed line
+ *   <li>DEAD_LETTER_TOPIC_DEFINITION: The topic receiving the malformed lines
  * </ul>
  */
 public abstract class CsvSourceConnector extends RowSourceConnector {
@@ -64,7 +82,16 @@ public abstract class CsvSourceConnector extends RowSourceConnector {
                 INPUT_FOLDER_DEFINITION,
                 COMPLETED_FOLDER_DEFINITION,
                 ERROR_FOLDER_DEFINITION,
-                FILE_ENCODE_DEFINITION),
+                FILE_ENCODE_DEFINITION,
+                FILE_DELIMITER_DEFINITION,
+                FILE_COMPRESSION_DEFINITION,
+                MAX_LINES_PER_POLL_DEFINITION,
+                READER_THREADS_DEFINITION,
+                LISTING_INTERVAL_DEFINITION,
+                LISTING_CHANGE_DETECTION_DEFINITION,
+                OFFSET_CHECKPOINT_LINES_DEFINITION,
+                ROW_ERROR_POLICY_DEFINITION,
+                DEAD_LETTER_TOPIC_DEFINITION),
             super.definitions())
         .flatMap(List::stream)
         .collect(Collectors.toList());
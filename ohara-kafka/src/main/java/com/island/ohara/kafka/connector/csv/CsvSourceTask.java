@@ -17,25 +17,58 @@
 package com.island.ohara.kafka.connector.csv;
 
 import com.island.ohara.common.annotations.VisibleForTesting;
+import com.island.ohara.common.exception.OharaInterruptedException;
 import com.island.ohara.common.util.Releasable;
 import com.island.ohara.kafka.connector.RowSourceRecord;
 import com.island.ohara.kafka.connector.RowSourceTask;
 import com.island.ohara.kafka.connector.TaskSetting;
 import com.island.ohara.kafka.connector.csv.source.*;
 import com.island.ohara.kafka.connector.storage.FileSystem;
-import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * CsvSourceTask moveFile files from file system to Kafka topics. The file format must be csv file,
  * and element in same line must be separated by comma. The offset is (path, line index). It means
  * each line is stored as a "message" in connector topic. For example: a file having 100 lines has
  * 100 message in connector topic.
+ *
+ * <p>A file is read by many polls, and each poll reads {@link CsvSourceConfig#maxLinesPerPoll()}
+ * lines at most. Hence, the memory usage is bounded by the number of lines rather than file size.
+ *
+ * <p>Each task claims the files by the hash of file name. If {@link
+ * CsvSourceConfig#readerThreads()} is bigger than 1, the task reads many claimed files
+ * concurrently, and each thread reads a batch from its file in a poll. Each reader has its own file
+ * system created by {@link #_fileSystem(TaskSetting)} since the file system, such as ftp, may be
+ * not thread-safe.
+ *
+ * <p>If there is no file to read, the poll is blocked until the next listing is due. Hence, the
+ * idle task doesn't spin on the cached listing.
  */
 public abstract class CsvSourceTask extends RowSourceTask {
   private CsvSourceConfig config;
-  private DataReader dataReader;
+  /** the readers used to read the claimed files. Each reader reads a file at the same time */
+  private List<DataReader> dataReaders;
+  /** used to run the readers concurrently. null if the readers are run by the task thread */
+  private ExecutorService executor = null;
+
+  /** the claimed files which are waiting for being read */
+  private FileListingCache fileListing;
+
+  /** used to list the input folder. It is shared by the reader if there is only one reader */
   private FileSystem fs;
+  /** the file systems owned by the readers. It is empty if the reader shares the task's fs */
+  private final List<FileSystem> readerFileSystems = new ArrayList<>();
+  /** used to wake up the idle poll when the task is stopped */
+  private final CountDownLatch stopped = new CountDownLatch(1);
 
   /**
    * Return the file system for this connector
@@ -49,30 +82,128 @@ public abstract class CsvSourceTask extends RowSourceTask {
   public final void _start(TaskSetting setting) {
     fs = _fileSystem(setting);
     config = CsvSourceConfig.of(setting, setting.columns());
-    dataReader = CsvDataReader.of(fs, config, rowContext);
+    fileListing =
+        FileListingCache.builder()
+            .fileSystem(fs)
+            .folder(config.inputFolder())
+            .filter(fileName -> isClaimed(fileName, config.total(), config.hash()))
+            .interval(config.listingInterval())
+            .changeDetection(config.listingChangeDetection())
+            .build();
+    // the readers share the offset cache so the offsets are loaded once
+    CsvOffsetCache offsetCache = new CsvOffsetCache();
+    if (config.readerThreads() > 1) {
+      // a reader keeps the file opened across polls so it can't share the connection of file
+      // system with other readers and the listing
+      IntStream.range(0, config.readerThreads())
+          .forEach(i -> readerFileSystems.add(_fileSystem(setting)));
+      dataReaders =
+          readerFileSystems.stream()
+              .map(readerFs -> CsvDataReader.of(readerFs, config, rowContext, offsetCache))
+              .collect(Collectors.toList());
+      AtomicInteger count = new AtomicInteger(0);
+      executor =
+          Executors.newFixedThreadPool(
+              config.readerThreads(),
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, "ohara-csv-source-reader-" + count.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+              });
+    } else
+      dataReaders =
+          Collections.singletonList(CsvDataReader.of(fs, config, rowContext, offsetCache));
+  }
+
+  /**
+   * Avoid more than one Task processing the same file. Noted: the hash code may be negative.
+   *
+   * @param fileName file name
+   * @param total the number of tasks
+   * @param hash the index of task
+   * @return true if the file is claimed by the task
+   */
+  @VisibleForTesting
+  static boolean isClaimed(String fileName, int total, int hash) {
+    return Math.floorMod(fileName.hashCode(), total) == hash;
   }
 
   @Override
   public final List<RowSourceRecord> _poll() {
-    Iterator<String> fileNames = fs.listFileNames(config.inputFolder());
-    if (fileNames.hasNext()) {
-      String fileName = fileNames.next();
-      // Avoid more than one Task processing the same file
-      if (fileName.hashCode() % config.total() == config.hash()) {
-        String path = Paths.get(config.inputFolder(), fileName).toString();
-        return dataReader.read(path);
+    // keep reading the large files which are not completed by previous polls
+    Set<String> openedPaths =
+        dataReaders.stream()
+            .map(DataReader::openedPath)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toSet());
+
+    boolean refreshed = false;
+    List<Supplier<List<RowSourceRecord>>> jobs = new ArrayList<>(dataReaders.size());
+    for (DataReader dataReader : dataReaders) {
+      Optional<String> path = dataReader.openedPath();
+      if (!path.isPresent()) {
+        // the idle reader picks a new file. The folder is listed only if the listed files are done
+        if (!refreshed) {
+          List<String> paths = fileListing.refreshIfNeeded();
+          // load the offsets of all listed files at once rather than a request per file
+          if (!paths.isEmpty()) dataReader.prefetch(paths);
+          refreshed = true;
+        }
+        path = fileListing.next(openedPaths);
+      }
+      if (path.isPresent()) {
+        String p = path.get();
+        jobs.add(() -> dataReader.read(p, config.maxLinesPerPoll()));
       }
     }
-    return Collections.emptyList();
+
+    if (jobs.isEmpty()) {
+      waitForRefresh();
+      return Collections.emptyList();
+    }
+    if (executor == null || jobs.size() == 1) return jobs.get(0).get();
+    return jobs.stream()
+        .map(job -> CompletableFuture.supplyAsync(job, executor))
+        .collect(Collectors.toList())
+        .stream()
+        .flatMap(f -> f.join().stream())
+        .collect(Collectors.toList());
+  }
+
+  /** block the idle poll until the folder can be checked again or the task is stopped */
+  private void waitForRefresh() {
+    long timeout = fileListing.timeToRefresh();
+    if (timeout <= 0) return;
+    try {
+      stopped.await(timeout, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      throw new OharaInterruptedException(e);
+    }
   }
 
   @Override
   public final void _stop() {
-    Releasable.close(fs);
+    stopped.countDown();
+    try {
+      if (executor != null) {
+        executor.shutdownNow();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS))
+          throw new IllegalStateException("failed to stop the reader threads");
+      }
+    } catch (InterruptedException e) {
+      throw new OharaInterruptedException(e);
+    } finally {
+      dataReaders.forEach(dataReader -> Releasable.close(dataReader));
+      readerFileSystems.forEach(readerFs -> Releasable.close(readerFs));
+      readerFileSystems.clear();
+      Releasable.close(fs);
+    }
   }
 
   @VisibleForTesting
   public DataReader getDataReader() {
-    return dataReader;
+    return dataReaders.get(0);
   }
 }
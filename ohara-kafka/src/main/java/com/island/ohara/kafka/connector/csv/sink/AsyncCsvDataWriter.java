@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv.sink;
+
+import com.island.ohara.common.annotations.VisibleForTesting;
+import com.island.ohara.common.exception.OharaException;
+import com.island.ohara.common.exception.OharaExecutionException;
+import com.island.ohara.common.exception.OharaInterruptedException;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.common.util.Releasable;
+import com.island.ohara.kafka.connector.RowSinkContext;
+import com.island.ohara.kafka.connector.RowSinkRecord;
+import com.island.ohara.kafka.connector.TopicPartition;
+import com.island.ohara.kafka.connector.storage.FileSystem;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A DataWriter which writes data on a group of writer threads rather than the task thread. Hence,
+ * the task thread is able to fetch data from kafka while the writer threads are writing data to
+ * file system.
+ *
+ * <p>Each topic-partition is bound to a single writer thread so the data of a topic-partition is
+ * written in order. The number of queued records is bounded by {@link
+ * CsvSinkConfig#writerQueueSize()}, and {@link #write(Collection)} is blocked if the queue is full.
+ * If {@link CsvSinkConfig#bufferMaxBytes()} is positive, the topic-partition is paused once its
+ * queued bytes plus the uncommitted bytes of its writer exceed the budget, and it is resumed after
+ * they drop to half of budget. The offsets returned by {@link #getCommittedOffsetsAndReset()} are
+ * generated by the committed files only, so they are durable.
+ */
+public class AsyncCsvDataWriter implements DataWriter {
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncCsvDataWriter.class);
+
+  private static class Lane {
+    private final TopicPartitionWriter writer;
+    private final ExecutorService executor;
+    /** the bytes of records submitted to the writer thread but not written yet */
+    private final AtomicLong queuedBytes = new AtomicLong(0);
+
+    private Lane(TopicPartitionWriter writer, ExecutorService executor) {
+      this.writer = writer;
+      this.executor = executor;
+    }
+  }
+
+  private final CsvSinkConfig config;
+  private final DeferredSinkContext context;
+  /** it is used by task thread only so the raw context is passed */
+  private final BufferBudget budget;
+
+  private final FileSystem fileSystem;
+  private final CsvRecordWriterProvider writerProvider;
+  private final List<ExecutorService> executors;
+  private final Map<TopicPartition, Lane> lanes = new ConcurrentHashMap<>();
+  private final Semaphore queue;
+  private final AtomicReference<Throwable> error = new AtomicReference<>(null);
+  private int nextExecutor = 0;
+
+  public AsyncCsvDataWriter(CsvSinkConfig config, RowSinkContext context, FileSystem fileSystem) {
+    this.config = Objects.requireNonNull(config);
+    this.context = new DeferredSinkContext(Objects.requireNonNull(context));
+    this.budget = new BufferBudget(context, config.bufferMaxBytes());
+    this.fileSystem = Objects.requireNonNull(fileSystem);
+    this.writerProvider = new CsvRecordWriterProvider(fileSystem);
+    this.queue = new Semaphore(CommonUtils.requirePositiveInt(config.writerQueueSize()));
+    AtomicInteger count = new AtomicInteger(0);
+    this.executors =
+        IntStream.range(0, CommonUtils.requirePositiveInt(config.writerThreads()))
+            .mapToObj(
+                i ->
+                    Executors.newSingleThreadExecutor(
+                        runnable -> {
+                          Thread thread =
+                              new Thread(
+                                  runnable, "ohara-csv-sink-writer-" + count.getAndIncrement());
+                          thread.setDaemon(true);
+                          return thread;
+                        }))
+            .collect(Collectors.toList());
+    attach(context.assignment());
+  }
+
+  @Override
+  public void attach(Collection<TopicPartition> partitions) {
+    partitions.forEach(
+        tp ->
+            lanes.computeIfAbsent(
+                tp,
+                p ->
+                    new Lane(
+                        new TopicPartitionWriter(p, writerProvider, config, context),
+                        executors.get(nextExecutor++ % executors.size()))));
+  }
+
+  @Override
+  public void write(Collection<RowSinkRecord> records) {
+    checkError();
+    context.apply();
+    Map<TopicPartition, List<RowSinkRecord>> batches = new HashMap<>();
+    records.forEach(
+        record -> {
+          TopicPartition tp = new TopicPartition(record.topicName(), record.partition());
+          if (!lanes.containsKey(tp))
+            throw new IllegalArgumentException("there is no writer for " + tp);
+          batches.computeIfAbsent(tp, p -> new ArrayList<>()).add(record);
+        });
+    // the empty batch is submitted also since the writer has to check the time-based rotation
+    lanes.forEach(
+        (tp, lane) -> submit(tp, lane, batches.getOrDefault(tp, Collections.emptyList())));
+  }
+
+  private void submit(TopicPartition tp, Lane lane, List<RowSinkRecord> batch) {
+    // a batch which is bigger than the queue size can't wait for enough permits
+    int permits = Math.min(batch.size(), config.writerQueueSize());
+    acquire(permits);
+    long bytes = batch.stream().mapToLong(record -> record.rowBytes().length).sum();
+    budget.update(tp, lane.queuedBytes.addAndGet(bytes) + lane.writer.getUncommittedBytes());
+    lane.executor.execute(
+        () -> {
+          try {
+            if (error.get() == null) {
+              batch.forEach(lane.writer::buffer);
+              lane.writer.write();
+            }
+          } catch (Throwable e) {
+            LOG.error("failed to write data of " + tp, e);
+            error.compareAndSet(null, e);
+          } finally {
+            lane.queuedBytes.addAndGet(-bytes);
+            queue.release(permits);
+          }
+        });
+  }
+
+  private void acquire(int permits) {
+    try {
+      // check the error periodically since the dead writer never releases the permits
+      while (!queue.tryAcquire(permits, 1, TimeUnit.SECONDS)) checkError();
+    } catch (InterruptedException e) {
+      throw new OharaInterruptedException(e);
+    }
+  }
+
+  private void checkError() {
+    Throwable e = error.get();
+    if (e != null) throw new OharaException("failed to write data by writer threads", e);
+  }
+
+  /** block until all queued records are written. */
+  @VisibleForTesting
+  public void flush() {
+    await(
+        executors.stream().map(executor -> executor.submit(() -> {})).collect(Collectors.toList()));
+    checkError();
+  }
+
+  private static void await(List<? extends Future<?>> futures) {
+    try {
+      for (Future<?> future : futures) future.get();
+    } catch (InterruptedException e) {
+      throw new OharaInterruptedException(e);
+    } catch (ExecutionException e) {
+      throw new OharaExecutionException(e);
+    }
+  }
+
+  @Override
+  public void detach(Collection<TopicPartition> partitions) {
+    budget.remove(partitions);
+    // the writer is closed by the writer thread so the queued records are handled before closing
+    await(
+        partitions.stream()
+            .map(lanes::remove)
+            .filter(Objects::nonNull)
+            .map(lane -> lane.executor.submit(() -> Releasable.close(lane.writer)))
+            .collect(Collectors.toList()));
+  }
+
+  @Override
+  public void close() {
+    try {
+      detach(new ArrayList<>(lanes.keySet()));
+    } finally {
+      executors.forEach(ExecutorService::shutdownNow);
+      Releasable.close(fileSystem);
+    }
+  }
+
+  @Override
+  public Map<TopicPartition, Long> getCommittedOffsetsAndReset() {
+    checkError();
+    context.apply();
+    Map<TopicPartition, Long> offsetsToCommit = new HashMap<>();
+    lanes.forEach(
+        (tp, lane) -> {
+          Long offset = lane.writer.getOffsetToCommitAndReset();
+          if (offset != null) {
+            LOG.trace("Forwarding to framework request to commit offset: {} for {}", offset, tp);
+            offsetsToCommit.put(tp, offset);
+          }
+        });
+    return offsetsToCommit;
+  }
+
+  @VisibleForTesting
+  public Map<TopicPartition, TopicPartitionWriter> getTopicPartitionWriters() {
+    return lanes.entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().writer));
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv.sink;
+
+import com.island.ohara.common.annotations.VisibleForTesting;
+import com.island.ohara.kafka.connector.RowSinkContext;
+import com.island.ohara.kafka.connector.TopicPartition;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pause the topic-partition once the bytes it holds exceed {@link CsvSinkConfig#bufferMaxBytes()},
+ * and resume it after the bytes drop to half of budget. It avoids pausing and resuming the
+ * partition frequently. This class is not thread-safe and it must be used by the task thread since
+ * the context is called directly.
+ */
+class BufferBudget {
+  private static final Logger LOG = LoggerFactory.getLogger(BufferBudget.class);
+  private final RowSinkContext context;
+  private final long maxBytes;
+  private final Set<TopicPartition> paused = new HashSet<>();
+
+  BufferBudget(RowSinkContext context, long maxBytes) {
+    this.context = Objects.requireNonNull(context);
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * pause or resume the topic-partition by the bytes it holds.
+   *
+   * @param tp topic-partition
+   * @param bufferedBytes the bytes of records which are received but not committed yet
+   */
+  void update(TopicPartition tp, long bufferedBytes) {
+    if (maxBytes <= 0) return;
+    if (!paused.contains(tp) && bufferedBytes > maxBytes) {
+      LOG.debug("Pausing topic-partition '{}' since buffered bytes is {}", tp, bufferedBytes);
+      context.pause(tp);
+      paused.add(tp);
+    } else if (paused.contains(tp) && bufferedBytes <= maxBytes / 2) {
+      LOG.debug("Resuming topic-partition '{}' since buffered bytes is {}", tp, bufferedBytes);
+      context.resume(tp);
+      paused.remove(tp);
+    }
+  }
+
+  /** forget the topic-partitions which are no longer assigned to this task. */
+  void remove(Collection<TopicPartition> partitions) {
+    paused.removeAll(partitions);
+  }
+
+  @VisibleForTesting
+  boolean isPaused(TopicPartition tp) {
+    return paused.contains(tp);
+  }
+}
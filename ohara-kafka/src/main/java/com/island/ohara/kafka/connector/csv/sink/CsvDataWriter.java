@@ -35,6 +35,7 @@ public class CsvDataWriter implements DataWriter {
   private CsvSinkConfig config;
   private FileSystem fileSystem;
   private CsvRecordWriterProvider writerProvider;
+  private final BufferBudget budget;
 
   public CsvDataWriter(CsvSinkConfig config, RowSinkContext context, FileSystem fileSystem) {
     assignment = new HashSet<>();
@@ -43,6 +44,7 @@ public class CsvDataWriter implements DataWriter {
     this.config = config;
     this.fileSystem = fileSystem;
     this.writerProvider = new CsvRecordWriterProvider(fileSystem);
+    this.budget = new BufferBudget(context, config.bufferMaxBytes());
     attach(context.assignment());
   }
 
@@ -65,11 +67,18 @@ public class CsvDataWriter implements DataWriter {
           TopicPartition tp = new TopicPartition(record.topicName(), record.partition());
           topicPartitionWriters.get(tp).buffer(record);
         });
-    assignment.forEach(tp -> topicPartitionWriters.get(tp).write());
+    assignment.forEach(
+        tp -> {
+          TopicPartitionWriter writer = topicPartitionWriters.get(tp);
+          writer.write();
+          // the written records are held by the file system until the files are committed
+          budget.update(tp, writer.getUncommittedBytes());
+        });
   }
 
   @Override
   public void detach(Collection<TopicPartition> partitions) {
+    budget.remove(partitions);
     partitions.stream()
         .forEach(
             tp -> {
@@ -104,6 +113,11 @@ public class CsvDataWriter implements DataWriter {
     return topicPartitionWriters;
   }
 
+  @VisibleForTesting
+  BufferBudget getBudget() {
+    return budget;
+  }
+
   @VisibleForTesting
   public Set<TopicPartition> getAssignment() {
     return assignment;
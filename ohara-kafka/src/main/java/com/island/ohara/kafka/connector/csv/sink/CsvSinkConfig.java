@@ -16,6 +16,8 @@
 
 package com.island.ohara.kafka.connector.csv.sink;
 
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.BUFFER_MAX_BYTES_DEFAULT;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.BUFFER_MAX_BYTES_KEY;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ENCODE_DEFAULT;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ENCODE_KEY;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_NEED_HEADER_DEFAULT;
@@ -24,7 +26,13 @@ import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FLUSH
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FLUSH_SIZE_KEY;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.ROTATE_INTERVAL_MS_DEFAULT;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.ROTATE_INTERVAL_MS_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.ROTATE_MAX_BYTES_DEFAULT;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.ROTATE_MAX_BYTES_KEY;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.TOPICS_DIR_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.WRITER_QUEUE_SIZE_DEFAULT;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.WRITER_QUEUE_SIZE_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.WRITER_THREADS_DEFAULT;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.WRITER_THREADS_KEY;
 
 import com.island.ohara.common.annotations.VisibleForTesting;
 import com.island.ohara.common.data.Column;
@@ -43,6 +51,10 @@ public class CsvSinkConfig {
   private final String encode;
   private final boolean needHeader;
   private final List<Column> schema;
+  private final long rotateMaxBytes;
+  private final long bufferMaxBytes;
+  private final int writerThreads;
+  private final int writerQueueSize;
 
   private CsvSinkConfig(Builder builder) {
     this.topicsDir = builder.topicsDir;
@@ -51,6 +63,10 @@ public class CsvSinkConfig {
     this.encode = builder.encode;
     this.needHeader = builder.needHeader;
     this.schema = builder.schema;
+    this.rotateMaxBytes = builder.rotateMaxBytes;
+    this.bufferMaxBytes = builder.bufferMaxBytes;
+    this.writerThreads = builder.writerThreads;
+    this.writerQueueSize = builder.writerQueueSize;
   }
 
   public int flushSize() {
@@ -77,6 +93,32 @@ public class CsvSinkConfig {
     return schema;
   }
 
+  /**
+   * @return the max bytes of records written to the files of a partition before the files are
+   *     committed. zero means the files are not committed by bytes
+   */
+  public long rotateMaxBytes() {
+    return rotateMaxBytes;
+  }
+
+  /**
+   * @return the max bytes of records which are held by a partition and not committed yet. The
+   *     partition is paused if it exceeds the budget. zero means unlimited
+   */
+  public long bufferMaxBytes() {
+    return bufferMaxBytes;
+  }
+
+  /** @return the number of threads used to write data. zero means the task thread writes data */
+  public int writerThreads() {
+    return writerThreads;
+  }
+
+  /** @return the max number of records waiting for writer threads */
+  public int writerQueueSize() {
+    return writerQueueSize;
+  }
+
   /**
    * Creates a CsvSinkConfig based on raw input.
    *
@@ -123,6 +165,26 @@ public class CsvSinkConfig {
       builder.encode(encode.get());
     }
 
+    Optional<Long> rotateMaxBytes = setting.longOption(ROTATE_MAX_BYTES_KEY);
+    if (rotateMaxBytes.isPresent()) {
+      builder.rotateMaxBytes(rotateMaxBytes.get());
+    }
+
+    Optional<Long> bufferMaxBytes = setting.longOption(BUFFER_MAX_BYTES_KEY);
+    if (bufferMaxBytes.isPresent()) {
+      builder.bufferMaxBytes(bufferMaxBytes.get());
+    }
+
+    Optional<Integer> writerThreads = setting.intOption(WRITER_THREADS_KEY);
+    if (writerThreads.isPresent()) {
+      builder.writerThreads(writerThreads.get());
+    }
+
+    Optional<Integer> writerQueueSize = setting.intOption(WRITER_QUEUE_SIZE_KEY);
+    if (writerQueueSize.isPresent()) {
+      builder.writerQueueSize(writerQueueSize.get());
+    }
+
     if (schema != null) {
       builder.schema(schema);
     } else {
@@ -143,6 +205,10 @@ public class CsvSinkConfig {
     private boolean needHeader = FILE_NEED_HEADER_DEFAULT;
     private String encode = FILE_ENCODE_DEFAULT;
     private List<Column> schema;
+    private long rotateMaxBytes = ROTATE_MAX_BYTES_DEFAULT;
+    private long bufferMaxBytes = BUFFER_MAX_BYTES_DEFAULT;
+    private int writerThreads = WRITER_THREADS_DEFAULT;
+    private int writerQueueSize = WRITER_QUEUE_SIZE_DEFAULT;
 
     public Builder topicsDir(String val) {
       topicsDir = val;
@@ -173,6 +239,30 @@ public class CsvSinkConfig {
       return this;
     }
 
+    @com.island.ohara.common.annotations.Optional("default is " + ROTATE_MAX_BYTES_DEFAULT)
+    public Builder rotateMaxBytes(long val) {
+      rotateMaxBytes = val;
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is " + BUFFER_MAX_BYTES_DEFAULT)
+    public Builder bufferMaxBytes(long val) {
+      bufferMaxBytes = val;
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is " + WRITER_THREADS_DEFAULT)
+    public Builder writerThreads(int val) {
+      writerThreads = val;
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is " + WRITER_QUEUE_SIZE_DEFAULT)
+    public Builder writerQueueSize(int val) {
+      writerQueueSize = val;
+      return this;
+    }
+
     public Builder schema(List<Column> val) {
       schema = val;
       return this;
@@ -181,6 +271,10 @@ public class CsvSinkConfig {
     @Override
     public CsvSinkConfig build() {
       Objects.requireNonNull(topicsDir);
+      // the paused partition gets no records so its files are committed by time only
+      if (bufferMaxBytes > 0 && rotateIntervalMs <= 0)
+        throw new IllegalArgumentException(
+            BUFFER_MAX_BYTES_KEY + " requires a positive " + ROTATE_INTERVAL_MS_KEY);
       return new CsvSinkConfig(this);
     }
   }
@@ -193,6 +287,10 @@ public class CsvSinkConfig {
     props.put(ROTATE_INTERVAL_MS_KEY, String.valueOf(rotateIntervalMs));
     props.put(FILE_NEED_HEADER_KEY, String.valueOf(needHeader));
     props.put(FILE_ENCODE_KEY, encode);
+    props.put(ROTATE_MAX_BYTES_KEY, String.valueOf(rotateMaxBytes));
+    props.put(BUFFER_MAX_BYTES_KEY, String.valueOf(bufferMaxBytes));
+    props.put(WRITER_THREADS_KEY, String.valueOf(writerThreads));
+    props.put(WRITER_QUEUE_SIZE_KEY, String.valueOf(writerQueueSize));
     return props;
   }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv.sink;
+
+import com.island.ohara.kafka.connector.RowSinkContext;
+import com.island.ohara.kafka.connector.TopicPartition;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The kafka consumer under {@link RowSinkContext} is not thread-safe so the writer threads can't
+ * pause/resume the partitions directly. This context queues the flow control requests from writer
+ * threads, and the task thread applies them by calling {@link #apply()}.
+ */
+class DeferredSinkContext implements RowSinkContext {
+  private final RowSinkContext context;
+  private final Queue<Runnable> actions = new ConcurrentLinkedQueue<>();
+
+  DeferredSinkContext(RowSinkContext context) {
+    this.context = context;
+  }
+
+  /** apply the queued requests. It must be called by the task thread. */
+  void apply() {
+    Runnable action;
+    while ((action = actions.poll()) != null) action.run();
+  }
+
+  @Override
+  public void offset(Map<TopicPartition, Long> offsets) {
+    context.offset(offsets);
+  }
+
+  @Override
+  public Set<TopicPartition> assignment() {
+    return context.assignment();
+  }
+
+  @Override
+  public void pause(Collection<TopicPartition> partitions) {
+    Collection<TopicPartition> copy = new ArrayList<>(partitions);
+    actions.add(() -> context.pause(copy));
+  }
+
+  @Override
+  public void resume(Collection<TopicPartition> partitions) {
+    Collection<TopicPartition> copy = new ArrayList<>(partitions);
+    actions.add(() -> context.resume(copy));
+  }
+
+  @Override
+  public void requestCommit() {
+    actions.add(context::requestCommit);
+  }
+}
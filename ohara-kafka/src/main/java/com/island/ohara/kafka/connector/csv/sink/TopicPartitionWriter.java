@@ -22,6 +22,7 @@ import com.island.ohara.kafka.connector.RowSinkContext;
 import com.island.ohara.kafka.connector.RowSinkRecord;
 import com.island.ohara.kafka.connector.TopicPartition;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.kafka.common.utils.SystemTime;
 import org.apache.kafka.common.utils.Time;
 import org.slf4j.Logger;
@@ -39,15 +40,26 @@ public class TopicPartitionWriter implements Releasable {
   private final int flushSize;
   private final long rotateIntervalMs;
   private final String topicsDir;
+  private final long rotateMaxBytes;
   private final Queue<RowSinkRecord> buffer;
   private final Map<String, CsvRecordWriter> writers;
   private final Map<String, Long> startOffsets;
   private final Map<String, String> commitFiles;
 
   private long currentOffset;
-  private Long offsetToCommit;
+  /**
+   * the offset of committed files. It is read by task thread and written by writer thread if the
+   * async writer is enabled.
+   */
+  private final AtomicReference<Long> offsetToCommit = new AtomicReference<>(null);
+
   private long nextScheduledRotation;
   private int recordCount;
+  /**
+   * the bytes of records written to the files which are not committed yet. It is read by task
+   * thread and written by writer thread if the async writer is enabled.
+   */
+  private volatile long uncommittedBytes;
 
   private static final Time SYSTEM_TIME = new SystemTime();
 
@@ -66,6 +78,7 @@ public class TopicPartitionWriter implements Releasable {
     this.flushSize = conf.flushSize();
     this.rotateIntervalMs = conf.rotateIntervalMs();
     this.topicsDir = conf.topicsDir();
+    this.rotateMaxBytes = conf.rotateMaxBytes();
 
     this.buffer = new LinkedList<>();
     this.writers = new HashMap<>();
@@ -74,10 +87,11 @@ public class TopicPartitionWriter implements Releasable {
     this.currentOffset = -1L;
 
     LOG.trace(
-        "Configuration: flushSize={}, rotateIntervalMs={}, topicsDir={}",
+        "Configuration: flushSize={}, rotateIntervalMs={}, topicsDir={}, rotateMaxBytes={}",
         flushSize,
         rotateIntervalMs,
-        topicsDir);
+        topicsDir,
+        rotateMaxBytes);
 
     // Initialize scheduled rotation timer if applicable
     setNextScheduledRotation();
@@ -89,24 +103,12 @@ public class TopicPartitionWriter implements Releasable {
 
   public void write() {
     long now = time.milliseconds();
-    pause();
 
     while (!buffer.isEmpty()) {
       rotateOrWrite(now);
     }
 
     commitOnTimeIfNoData(now);
-    resume();
-  }
-
-  private void pause() {
-    LOG.trace("Pausing writer for topic-partition '{}'", tp);
-    // TODO: context.pause(tp);
-  }
-
-  private void resume() {
-    LOG.trace("Resuming writer for topic-partition '{}'", tp);
-    // TODO: context.resume(tp);
   }
 
   private void rotateOrWrite(long now) {
@@ -115,7 +117,7 @@ public class TopicPartitionWriter implements Releasable {
     } else {
       writeRecord(buffer.poll());
 
-      if (rotateOnSize()) {
+      if (rotateOnSize() || rotateOnBytes()) {
         LOG.info(
             "Starting commit and rotation for topic partition {} with start offset {}",
             tp,
@@ -136,6 +138,7 @@ public class TopicPartitionWriter implements Releasable {
 
     getWriter(encodedPartition).write(record);
     recordCount++;
+    uncommittedBytes += record.rowBytes().length;
   }
 
   private String encodePartition(RowSinkRecord sinkRecord) {
@@ -203,6 +206,20 @@ public class TopicPartitionWriter implements Releasable {
     return messageSizeRotation;
   }
 
+  /**
+   * The files are committed once the uncommitted bytes reach the {@link
+   * CsvSinkConfig#rotateMaxBytes()}.
+   */
+  private boolean rotateOnBytes() {
+    boolean bytesRotation = rotateMaxBytes > 0 && uncommittedBytes >= rotateMaxBytes;
+    LOG.trace(
+        "Should apply bytes-based rotation (bytes {} >= rotate max bytes {})? {}",
+        uncommittedBytes,
+        rotateMaxBytes,
+        bytesRotation);
+    return bytesRotation;
+  }
+
   private void commitOnTimeIfNoData(long now) {
     if (buffer.isEmpty()) {
       // committing files after waiting for rotateIntervalMs time but less than flush.size
@@ -220,11 +237,14 @@ public class TopicPartitionWriter implements Releasable {
       commitFile(entry.getKey());
       LOG.debug("Committed {} for {}", entry.getValue(), tp);
     }
-    offsetToCommit = currentOffset + 1;
+    offsetToCommit.set(currentOffset + 1);
     commitFiles.clear();
     recordCount = 0;
+    uncommittedBytes = 0;
     LOG.info(
-        "Files committed to FileSystem. Target commit offset for {} is {}", tp, offsetToCommit);
+        "Files committed to FileSystem. Target commit offset for {} is {}", tp, currentOffset + 1);
+    // the data is durable now so it is fine to commit the offsets as soon as possible
+    context.requestCommit();
   }
 
   private void commitFile(String encodedPartition) {
@@ -245,9 +265,7 @@ public class TopicPartitionWriter implements Releasable {
   }
 
   public Long getOffsetToCommitAndReset() {
-    Long latest = offsetToCommit;
-    offsetToCommit = null;
-    return latest;
+    return offsetToCommit.getAndSet(null);
   }
 
   public void close() {
@@ -264,8 +282,16 @@ public class TopicPartitionWriter implements Releasable {
     return recordCount;
   }
 
+  /**
+   * @return the bytes of records written to the files which are not committed yet. They are held by
+   *     the file system until the files are committed.
+   */
+  public long getUncommittedBytes() {
+    return uncommittedBytes;
+  }
+
   @VisibleForTesting
   public Long getCommittedOffset() {
-    return offsetToCommit;
+    return offsetToCommit.get();
   }
 }
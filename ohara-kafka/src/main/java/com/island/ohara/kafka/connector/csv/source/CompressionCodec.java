@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv.source;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.island.ohara.common.exception.OharaFileSystemException;
+import com.island.ohara.common.util.Releasable;
+import com.island.ohara.kafka.connector.storage.FileSystem;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import org.xerial.snappy.SnappyFramedInputStream;
+
+/**
+ * The compression codecs of input files. The file is decompressed as a stream so the compressed
+ * bytes are transferred from file system. Noted: the byte position of compressed file is the
+ * position of decompressed data, and hence the file is resumed by skipping the decompressed data.
+ */
+public enum CompressionCodec {
+  NONE("none") {
+    @Override
+    InputStream decompress(InputStream input) {
+      return input;
+    }
+  },
+  GZIP("gzip", ".gz") {
+    @Override
+    InputStream decompress(InputStream input) throws IOException {
+      return new GZIPInputStream(input, BUFFER_SIZE);
+    }
+  },
+  ZSTD("zstd", ".zst", ".zstd") {
+    @Override
+    InputStream decompress(InputStream input) throws IOException {
+      return new BufferedInputStream(new ZstdInputStream(input), BUFFER_SIZE);
+    }
+  },
+  /** the snappy framing format */
+  SNAPPY("snappy", ".sz") {
+    @Override
+    InputStream decompress(InputStream input) throws IOException {
+      return new SnappyFramedInputStream(input);
+    }
+  };
+
+  /** the setting value used to detect the codec by the extension of file */
+  public static final String AUTO = "auto";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final String alias;
+  private final List<String> extensions;
+
+  CompressionCodec(String alias, String... extensions) {
+    this.alias = alias;
+    this.extensions = Collections.unmodifiableList(Arrays.asList(extensions));
+  }
+
+  public String alias() {
+    return alias;
+  }
+
+  /** @return the file extensions of this codec */
+  public List<String> extensions() {
+    return extensions;
+  }
+
+  abstract InputStream decompress(InputStream input) throws IOException;
+
+  /**
+   * open the file and decompress it.
+   *
+   * @param fs file system
+   * @param path file path
+   * @param position the byte position of decompressed data to start reading
+   * @return the decompressed input stream
+   */
+  public InputStream open(FileSystem fs, String path, long position) {
+    if (this == NONE) return position == 0 ? fs.open(path) : fs.open(path, position);
+    InputStream input = fs.open(path);
+    try {
+      return FileSystem.skip(decompress(input), path, position);
+    } catch (IOException e) {
+      Releasable.close(input);
+      throw new OharaFileSystemException(e);
+    } catch (RuntimeException e) {
+      Releasable.close(input);
+      throw e;
+    }
+  }
+
+  /**
+   * @param alias alias of codec
+   * @return codec
+   */
+  public static CompressionCodec of(String alias) {
+    return Arrays.stream(values())
+        .filter(codec -> codec.alias.equalsIgnoreCase(alias))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    "unsupported compression:"
+                        + alias
+                        + ". the supported compressions are "
+                        + AUTO
+                        + ", "
+                        + Arrays.stream(values())
+                            .map(CompressionCodec::alias)
+                            .collect(Collectors.joining(", "))));
+  }
+
+  /**
+   * @param path file path
+   * @return the codec matched to the extension of file. NONE if there is no matched codec
+   */
+  public static CompressionCodec detect(String path) {
+    String lowerCase = path.toLowerCase();
+    return Arrays.stream(values())
+        .filter(codec -> codec.extensions.stream().anyMatch(lowerCase::endsWith))
+        .findFirst()
+        .orElse(NONE);
+  }
+}
@@ -17,14 +17,21 @@
 package com.island.ohara.kafka.connector.csv.source;
 
 import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.common.util.Releasable;
 import com.island.ohara.kafka.connector.RowSourceContext;
 import com.island.ohara.kafka.connector.RowSourceRecord;
 import com.island.ohara.kafka.connector.storage.FileSystem;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,44 +44,225 @@ public class CsvDataReader implements DataReader {
   private final RowSourceContext context;
   private final CsvOffsetCache offsetCache;
 
+  /** the file which is being read by batches. */
+  private static class OpenedFile {
+    private final String path;
+    private final CsvRecordConverter converter;
+    private Reader reader;
+    private CsvTokenizer tokenizer;
+    /** the byte position of the beginning of reader */
+    private long start = 0;
+
+    private List<String> header = null;
+    /** the index of next record */
+    private int index = 0;
+    /** true if a checkpoint of this file is generated */
+    private boolean checkpointed = false;
+
+    private OpenedFile(String path, CsvRecordConverter converter) {
+      this.path = path;
+      this.converter = converter;
+    }
+
+    /** @return the byte position of the end of last record */
+    private OptionalLong position() {
+      OptionalLong position = tokenizer.position();
+      return position.isPresent() ? OptionalLong.of(start + position.getAsLong()) : position;
+    }
+  }
+
+  private OpenedFile opened = null;
+
   public static CsvDataReader of(FileSystem fs, CsvSourceConfig config, RowSourceContext context) {
     return new CsvDataReader(fs, config, context);
   }
 
+  /**
+   * create a reader sharing the offset cache with other readers. It is used to read many files
+   * concurrently.
+   *
+   * @param fs file system
+   * @param config config
+   * @param context kafka's context
+   * @param offsetCache the shared offset cache
+   * @return reader
+   */
+  public static CsvDataReader of(
+      FileSystem fs, CsvSourceConfig config, RowSourceContext context, CsvOffsetCache offsetCache) {
+    return new CsvDataReader(fs, config, context, offsetCache);
+  }
+
   public CsvDataReader(FileSystem fs, CsvSourceConfig config, RowSourceContext context) {
+    this(fs, config, context, new CsvOffsetCache());
+  }
+
+  private CsvDataReader(
+      FileSystem fs, CsvSourceConfig config, RowSourceContext context, CsvOffsetCache offsetCache) {
     this.fs = fs;
     this.config = config;
     this.context = context;
-    this.offsetCache = new CsvOffsetCache();
+    this.offsetCache = offsetCache;
+  }
+
+  /**
+   * load the offsets of all files by single request.
+   *
+   * @param paths the paths of files
+   */
+  @Override
+  public void prefetch(Collection<String> paths) {
+    offsetCache.loadIfNeed(context, paths);
   }
 
+  /**
+   * Read the whole file at once.
+   *
+   * @param path the path of file
+   * @return a list of RowSourceRecord
+   */
+  @Override
   public List<RowSourceRecord> read(String path) {
+    return read(path, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Read the next batch of lines from the file. The lines which have been processed are skipped and
+   * they are not counted in the batch. The offset checkpoint is generated for every {@link
+   * CsvSourceConfig#offsetCheckpointLines()} lines, the first line and the last line of batch. The
+   * file is moved after the last batch is read. Noted: if an error happens, the file is moved to
+   * the error folder but the records of previous batches have been sent.
+   *
+   * @param path the path of file
+   * @param maxLines the max number of lines in this batch
+   * @return a list of RowSourceRecord
+   */
+  @Override
+  public List<RowSourceRecord> read(String path, int maxLines) {
     try {
-      offsetCache.loadIfNeed(context, path);
-      CsvRecordConverter converter =
-          new CsvRecordConverter.Builder()
-              .path(path)
-              .topics(config.topics())
-              .offsetCache(offsetCache)
-              .schema(config.schema())
-              .build();
-
-      List<RowSourceRecord> records;
-      try (BufferedReader reader =
-          new BufferedReader(
-              new InputStreamReader(fs.open(path), Charset.forName(config.encode())))) {
-        records = converter.convert(reader.lines());
+      // the progress of previous file is kept by offset cache so we can resume it later
+      if (opened != null && !opened.path.equals(path)) closeOpenedFile();
+      if (opened == null) opened = open(path);
+
+      Map<Integer, List<String>> lines = new LinkedHashMap<>();
+      Map<Integer, OptionalLong> checkpoints = new HashMap<>();
+      int lastIndex = -1;
+      boolean completed = false;
+      while (lines.size() < maxLines) {
+        List<String> fields = opened.tokenizer.next();
+        if (fields == null) {
+          completed = true;
+          break;
+        }
+        int index = opened.index++;
+        if (index == 0) opened.header = fields;
+        else if (offsetCache.predicate(path, index)) {
+          lines.put(index, fields);
+          lastIndex = index;
+          // the first record is a checkpoint so the following records don't carry an offset without
+          // position
+          if (!opened.checkpointed || index % config.offsetCheckpointLines() == 0) {
+            checkpoints.put(index, opened.position());
+            opened.checkpointed = true;
+          }
+        }
       }
+      // the processed lines are always before the unprocessed lines so the position of tokenizer is
+      // the end of last line
+      if (lastIndex > 0) checkpoints.put(lastIndex, opened.position());
+
+      List<RowSourceRecord> records =
+          lines.isEmpty()
+              ? Collections.emptyList()
+              : opened.converter.convert(opened.header, lines, checkpoints);
 
-      handleCompletedFile(path);
+      if (completed) {
+        closeOpenedFile();
+        handleCompletedFile(path);
+      }
       return records;
     } catch (Exception e) {
       LOG.error("failed to handle " + path, e);
+      closeOpenedFile();
       handleErrorFile(path);
       return Collections.emptyList();
     }
   }
 
+  @Override
+  public Optional<String> openedPath() {
+    return Optional.ofNullable(opened).map(file -> file.path);
+  }
+
+  @Override
+  public void close() {
+    closeOpenedFile();
+  }
+
+  /**
+   * open the file and read the header. If the file has a checkpoint having byte position, the
+   * processed records are skipped by seeking to the position. Otherwise, the processed records are
+   * read and then filtered out by offset cache.
+   *
+   * @param path file path
+   * @return opened file
+   */
+  private OpenedFile open(String path) {
+    offsetCache.loadIfNeed(context, path);
+    CsvRecordConverter.Builder builder =
+        new CsvRecordConverter.Builder()
+            .path(path)
+            .topics(config.topics())
+            .offsetCache(offsetCache)
+            .schema(config.schema())
+            .delimiter(config.delimiter())
+            .errorPolicy(config.rowErrorPolicy());
+    config.deadLetterTopic().ifPresent(builder::deadLetterTopic);
+    CsvRecordConverter converter = builder.build();
+    OpenedFile file = new OpenedFile(path, converter);
+    try {
+      reopen(file, 0);
+      file.header = file.tokenizer.next();
+      if (file.header != null) file.index = 1;
+      Optional<CsvOffsetCache.Checkpoint> checkpoint = offsetCache.checkpoint(path);
+      OptionalLong headerEnd = file.position();
+      if (checkpoint.isPresent()
+          && headerEnd.isPresent()
+          && checkpoint.get().position > headerEnd.getAsLong()) {
+        reopen(file, checkpoint.get().position);
+        file.index = checkpoint.get().index + 1;
+      }
+      return file;
+    } catch (RuntimeException e) {
+      Releasable.close(file.reader);
+      throw e;
+    }
+  }
+
+  /**
+   * close the current reader of file and then open it from the specified position. The file is
+   * decompressed if it is compressed. The positional read of file system is used for uncompressed
+   * file so the bytes before the position are not read.
+   *
+   * @param file opened file
+   * @param position byte position
+   */
+  private void reopen(OpenedFile file, long position) {
+    Releasable.close(file.reader);
+    file.reader = null;
+    Charset charset = Charset.forName(config.encode());
+    file.reader =
+        new InputStreamReader(config.compression(file.path).open(fs, file.path, position), charset);
+    file.tokenizer = CsvTokenizer.of(file.reader, config.delimiter(), charset);
+    file.start = position;
+  }
+
+  private void closeOpenedFile() {
+    if (opened != null) {
+      Releasable.close(opened.reader);
+      opened = null;
+    }
+  }
+
   /**
    * Move the file to the completed folder, or delete it directly.
    *
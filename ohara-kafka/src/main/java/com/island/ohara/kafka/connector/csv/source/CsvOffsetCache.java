@@ -17,12 +17,39 @@
 package com.island.ohara.kafka.connector.csv.source;
 
 import com.island.ohara.kafka.connector.RowSourceContext;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+/**
+ * The offset cache of csv files. It is thread-safe so it can be shared by the readers which read
+ * files concurrently.
+ */
 public class CsvOffsetCache implements OffsetCache {
-  private final Map<String, Integer> cache = new HashMap<>();
+  /** the index of record and the byte position of the end of record. */
+  static final class Checkpoint {
+    final int index;
+    final long position;
+
+    private Checkpoint(int index, long position) {
+      this.index = index;
+      this.position = position;
+    }
+  }
+
+  private final Map<String, Integer> cache = new ConcurrentHashMap<>();
+  /** the latest checkpoints having the byte position. */
+  private final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+  /**
+   * the paths whose offsets have been loaded from RowSourceContext. The path having no offset is
+   * kept also so we don't query it again.
+   */
+  private final Set<String> loaded = ConcurrentHashMap.newKeySet();
 
   public void loadIfNeed(RowSourceContext context, String path) {
     /**
@@ -30,27 +57,76 @@ public class CsvOffsetCache implements OffsetCache {
      * It means touching the method may be a high latency operation since it produces network
      * traffics. Therefore, we SHOULD avoid triggering the method frequently.
      */
-    if (!cache.containsKey(path)) {
-      Map<String, Object> offset =
-          context.offset(Collections.singletonMap(CsvRecordConverter.CSV_PARTITION_KEY, path));
-      if (!offset.isEmpty()) update(path, getOffsetValue(offset));
+    if (!loaded.contains(path)) {
+      Map<String, Object> offset = context.offset(toPartition(path));
+      if (offset != null && !offset.isEmpty()) update(path, offset);
+      loaded.add(path);
     }
   }
 
+  /**
+   * load the offsets of all unloaded paths by single request. It is much faster than loading the
+   * offsets one by one if there are many files.
+   *
+   * @param context kafka's cache
+   * @param paths file paths
+   */
+  @Override
+  public void loadIfNeed(RowSourceContext context, Collection<String> paths) {
+    List<Map<String, String>> partitions =
+        paths.stream()
+            .filter(path -> !loaded.contains(path))
+            .distinct()
+            .map(CsvOffsetCache::toPartition)
+            .collect(Collectors.toList());
+    if (partitions.isEmpty()) return;
+    Map<Map<String, String>, Map<String, Object>> offsets = context.offset(partitions);
+    partitions.forEach(
+        partition -> {
+          String path = partition.get(CsvRecordConverter.CSV_PARTITION_KEY);
+          Map<String, Object> offset = offsets == null ? null : offsets.get(partition);
+          if (offset != null && !offset.isEmpty()) update(path, offset);
+          loaded.add(path);
+        });
+  }
+
+  private static Map<String, String> toPartition(String path) {
+    return Collections.singletonMap(CsvRecordConverter.CSV_PARTITION_KEY, path);
+  }
+
+  private void update(String path, Map<String, Object> offset) {
+    int index = getOffsetValue(offset);
+    Object position = offset.get(CsvRecordConverter.CSV_POSITION_KEY);
+    if (position == null) update(path, index);
+    else update(path, index, ((Number) position).longValue());
+  }
+
   public void update(String path, int index) {
-    if (!cache.containsKey(path)) {
-      cache.put(path, index);
-    }
-    int previous = cache.get(path);
-    if (index > previous) cache.put(path, index);
+    cache.merge(path, index, Math::max);
+  }
+
+  @Override
+  public void update(String path, int index, long position) {
+    update(path, index);
+    checkpoints.merge(
+        path,
+        new Checkpoint(index, position),
+        (previous, current) -> current.index >= previous.index ? current : previous);
+  }
+
+  /**
+   * @param path file path
+   * @return the latest checkpoint having the byte position. empty if the processed records of file
+   *     have no position. Noted: the records after the checkpoint may be processed also, so the
+   *     caller should still check them by {@link #predicate(String, int)}
+   */
+  Optional<Checkpoint> checkpoint(String path) {
+    return Optional.ofNullable(checkpoints.get(path));
   }
 
   public boolean predicate(String path, int index) {
-    if (cache.containsKey(path)) {
-      int previous = cache.get(path);
-      return index > previous;
-    }
-    return true;
+    Integer previous = cache.get(path);
+    return previous == null || index > previous;
   }
 
   private int getOffsetValue(Map<String, Object> offset) {
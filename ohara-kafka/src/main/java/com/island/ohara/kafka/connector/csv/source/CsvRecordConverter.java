@@ -19,106 +19,218 @@ package com.island.ohara.kafka.connector.csv.source;
 import com.island.ohara.common.annotations.VisibleForTesting;
 import com.island.ohara.common.data.*;
 import com.island.ohara.common.util.CommonUtils;
-import com.island.ohara.common.util.StreamUtils;
 import com.island.ohara.kafka.connector.RowSourceRecord;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A converter to be used to read data from a csv file, and convert to records of Kafka Connect
- * format
+ * format. The lines are converted by a single pass: the line is split to fields, the fields are
+ * mapped to a row by the column indexes resolved from header, and then the row is wrapped to
+ * records. No intermediate collection is created for the whole batch.
+ *
+ * <p>The malformed line, for example a line having unparsable values, is handled by the {@link
+ * RowErrorPolicy}. Noted: the header error, for example a column is absent in header, is not a
+ * malformed line and it always fails the conversion.
  */
 public class CsvRecordConverter implements RecordConverter {
-  @VisibleForTesting static final String CSV_REGEX = ",(?=([^\"]*\"[^\"]*\")*[^\"]*$)";
+  private static final Logger LOG = LoggerFactory.getLogger(CsvRecordConverter.class);
+
+  /** the way to handle the malformed line */
+  public enum RowErrorPolicy {
+    /** throw the exception so the whole file is moved to the error folder */
+    FAIL,
+    /** drop the malformed line */
+    SKIP,
+    /** remove the unparsable cells from row since the cell can't carry a null value */
+    NULL,
+    /** send the raw fields of malformed line to the dead letter topic */
+    DEAD_LETTER;
+
+    public static RowErrorPolicy of(String name) {
+      for (RowErrorPolicy value : values()) if (value.name().equalsIgnoreCase(name)) return value;
+      throw new IllegalArgumentException("unsupported row error policy:" + name);
+    }
+  }
+
   public static final String CSV_PARTITION_KEY = "csv.file.path";
   public static final String CSV_OFFSET_KEY = "csv.file.line";
+  public static final String CSV_POSITION_KEY = "csv.file.position";
 
   private final String path;
   private final List<String> topics;
   private final List<Column> schema;
+  private final char delimiter;
+  private final RowErrorPolicy errorPolicy;
+  private final String deadLetterTopic;
 
   private final Map<String, String> partition;
   private final OffsetCache cache;
 
+  /** the header used to resolve the mapping. The mapping is resolved again if header is changed */
+  private List<String> header = null;
+  /** the indexes of fields for each column. It is sorted by the order of columns */
+  private int[] fieldIndexes = null;
+  /** the schema columns sorted by order */
+  private Column[] columns = null;
+  /** the offset of latest checkpoint. It is shared by the records following the checkpoint */
+  private Map<String, Object> checkpoint = null;
+
   @Override
   public List<RowSourceRecord> convert(Stream<String> lines) {
-    Map<Integer, List<Cell<String>>> cellsAndIndex = toCells(lines);
-    Map<Integer, Row> rowsAndIndex = transform(cellsAndIndex);
-    List<RowSourceRecord> records = toRecords(rowsAndIndex);
+    List<RowSourceRecord> records = new ArrayList<>();
+    List<String> header = null;
+    int index = 0;
+    int lastIndex = -1;
+    Iterator<String> iterator = lines.iterator();
+    while (iterator.hasNext()) {
+      String line = iterator.next();
+      if (index == 0) header = CsvTokenizer.split(line, delimiter);
+      else if (cache.predicate(path, index)) {
+        append(records, header, CsvTokenizer.split(line, delimiter), index, offset(index));
+        lastIndex = index;
+      }
+      ++index;
+    }
     // ok. all data are prepared. let's update the cache
-    rowsAndIndex.keySet().forEach(index -> cache.update(path, index));
+    if (lastIndex > 0) cache.update(path, lastIndex);
     return records;
   }
 
-  /** read all lines from a reader, and then convert them to cells. */
-  @VisibleForTesting
-  Map<Integer, List<Cell<String>>> toCells(Stream<String> lines) {
-    Map<Integer, String> lineAndIndex =
-        StreamUtils.zipWithIndex(lines)
-            .filter(
-                pair -> {
-                  int index = pair.left();
-                  if (index == 0) return true;
-                  return cache.predicate(path, index);
-                })
-            .collect(Collectors.toMap(Pair::left, Pair::right));
-
-    if (lineAndIndex.size() > 1) {
-      String[] header =
-          Arrays.stream(lineAndIndex.get(0).split(CSV_REGEX))
-              .map(String::trim)
-              .toArray(String[]::new);
-
-      return lineAndIndex.entrySet().stream()
-          .filter(e -> e.getKey() > 0)
-          .collect(
-              Collectors.toMap(
-                  Map.Entry::getKey,
-                  e -> {
-                    String line = e.getValue();
-                    String[] items = line.split(CSV_REGEX);
-                    return IntStream.range(0, items.length)
-                        .mapToObj(i -> Cell.of(header[i], items[i].trim()))
-                        .collect(Collectors.toList());
-                  }));
-    }
-
-    return Collections.emptyMap();
+  /**
+   * convert a batch of tokenized records with checkpoints. It is used to convert a large file by
+   * many batches, and the header is passed by each batch. Only the checkpoint records carry new
+   * offsets, and the other records share the offset of previous checkpoint. Hence, kafka has less
+   * offsets to handle, and the file can be resumed from the byte position of checkpoint. Noted: the
+   * records before the first checkpoint of a file carry the offset having no position.
+   *
+   * @param header the fields of header
+   * @param records the fields of records and their indexes. The processed records should be
+   *     excluded
+   * @param checkpoints the indexes of checkpoint records and their byte positions. The position is
+   *     empty if it is unknown
+   * @return records
+   */
+  public List<RowSourceRecord> convert(
+      List<String> header,
+      Map<Integer, List<String>> records,
+      Map<Integer, OptionalLong> checkpoints) {
+    List<RowSourceRecord> result = new ArrayList<>(records.size() * topics.size());
+    int lastIndex = -1;
+    OptionalLong lastPosition = OptionalLong.empty();
+    for (Map.Entry<Integer, List<String>> entry : records.entrySet()) {
+      int index = entry.getKey();
+      OptionalLong position = checkpoints.get(index);
+      if (position != null || checkpoint == null) {
+        if (position == null) position = OptionalLong.empty();
+        checkpoint = toOffset(index, position);
+        lastIndex = index;
+        lastPosition = position;
+      }
+      append(result, header, entry.getValue(), index, checkpoint);
+    }
+    // ok. all data are prepared. let's update the cache by the latest checkpoint
+    if (lastIndex > 0) {
+      if (lastPosition.isPresent()) cache.update(path, lastIndex, lastPosition.getAsLong());
+      else cache.update(path, lastIndex);
+    }
+    return result;
+  }
+
+  private static Map<String, Object> toOffset(int index, OptionalLong position) {
+    if (!position.isPresent()) return Collections.singletonMap(CSV_OFFSET_KEY, index);
+    Map<String, Object> offset = new HashMap<>(4);
+    offset.put(CSV_OFFSET_KEY, index);
+    offset.put(CSV_POSITION_KEY, position.getAsLong());
+    return offset;
+  }
+
+  /**
+   * resolve the indexes of fields for the columns. It is executed once for each file.
+   *
+   * @param header the fields of header
+   */
+  private void resolve(List<String> header) {
+    if (this.header == header) return;
+    Map<String, Integer> indexes = new HashMap<>(header.size() * 2);
+    for (int i = 0; i != header.size(); ++i) indexes.putIfAbsent(header.get(i), i);
+    Column[] columns =
+        schema.stream().sorted(Comparator.comparing(Column::order)).toArray(Column[]::new);
+    int[] fieldIndexes = new int[columns.length];
+    for (int i = 0; i != columns.length; ++i) {
+      Integer index = indexes.get(columns[i].name());
+      if (index == null)
+        throw new NoSuchElementException(
+            "the column:" + columns[i].name() + " doesn't exist in header:" + header);
+      fieldIndexes[i] = index;
+    }
+    this.columns = columns;
+    this.fieldIndexes = fieldIndexes;
+    this.header = header;
   }
 
   /**
-   * transform the input cells to rows as stated by the columns. This method does the following
-   * works. 1) filter out the unused cell 2) replace the name by new one 3) convert the string to
-   * specified type
+   * convert the fields to row as stated by the columns. This method does the following works. 1)
+   * filter out the unused fields 2) replace the name by new one 3) convert the string to specified
+   * type
+   *
+   * @param header the fields of header
+   * @param fields the fields of a line
+   * @return row
    */
   @VisibleForTesting
-  Map<Integer, Row> transform(Map<Integer, List<Cell<String>>> indexAndCells) {
-    return indexAndCells.entrySet().stream()
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> transform(e.getValue())));
+  Row toRow(List<String> header, List<String> fields) {
+    return toRow(header, fields, false);
   }
 
-  private Row transform(List<Cell<String>> cells) {
+  /**
+   * @param header the fields of header
+   * @param fields the fields of a line
+   * @param lenient true if the absent and unparsable cells are removed rather than throwing an
+   *     exception
+   * @return row
+   */
+  private Row toRow(List<String> header, List<String> fields, boolean lenient) {
     if (schema.isEmpty()) {
-      return Row.of(cells.stream().toArray(Cell[]::new));
+      Cell<?>[] cells =
+          new Cell<?>[lenient ? Math.min(header.size(), fields.size()) : fields.size()];
+      for (int i = 0; i != cells.length; ++i) cells[i] = Cell.of(header.get(i), fields.get(i));
+      return Row.of(cells);
     }
-
-    return Row.of(
-        schema.stream()
-            .sorted(Comparator.comparing(Column::order))
-            .map(
-                column -> {
-                  String value = findCellByName(cells, column.name()).value();
-                  Object newValue = convertByType(value, column.dataType());
-                  return Cell.of(column.newName(), newValue);
-                })
-            .toArray(Cell[]::new));
+    resolve(header);
+    Cell<?>[] cells = new Cell<?>[columns.length];
+    int size = 0;
+    for (int i = 0; i != columns.length; ++i) {
+      int fieldIndex = fieldIndexes[i];
+      if (fieldIndex >= fields.size()) {
+        if (lenient) continue;
+        throw new NoSuchElementException(
+            "the column:" + columns[i].name() + " doesn't exist in line:" + fields);
+      }
+      Object value;
+      try {
+        value = convertByType(fields.get(fieldIndex), columns[i].dataType());
+      } catch (NumberFormatException e) {
+        if (lenient) continue;
+        throw e;
+      }
+      cells[size++] = Cell.of(columns[i].newName(), value);
+    }
+    return Row.of(size == cells.length ? cells : Arrays.copyOf(cells, size));
   }
 
-  @VisibleForTesting
-  Cell<String> findCellByName(List<Cell<String>> cells, String name) {
-    return cells.stream().filter(cell -> cell.name().equals(name)).findFirst().get();
+  /**
+   * @param header the fields of header
+   * @param fields the fields of a line
+   * @return a row composed of the raw fields. The field having no header is named by its index
+   */
+  private static Row toRawRow(List<String> header, List<String> fields) {
+    Cell<?>[] cells = new Cell<?>[fields.size()];
+    for (int i = 0; i != cells.length; ++i)
+      cells[i] = Cell.of(i < header.size() ? header.get(i) : String.valueOf(i), fields.get(i));
+    return Row.of(cells);
   }
 
   @VisibleForTesting
@@ -127,13 +239,13 @@ public class CsvRecordConverter implements RecordConverter {
       case BOOLEAN:
         return Boolean.valueOf(value);
       case BYTE:
-        return Byte.valueOf(value);
+        return Byte.parseByte(value);
       case SHORT:
-        return Short.valueOf(value);
+        return Short.parseShort(value);
       case INT:
-        return Integer.valueOf(value);
+        return Integer.parseInt(value);
       case LONG:
-        return Long.valueOf(value);
+        return Long.parseLong(value);
       case FLOAT:
         return Float.valueOf(value);
       case DOUBLE:
@@ -147,31 +259,76 @@ public class CsvRecordConverter implements RecordConverter {
     }
   }
 
-  @VisibleForTesting
-  List<RowSourceRecord> toRecords(Map<Integer, Row> rows) {
-    return rows.entrySet().stream()
-        .map(
-            e -> {
-              int index = e.getKey();
-              Row row = e.getValue();
-              return toRecords(row, index);
-            })
-        .flatMap(List::stream)
-        .collect(Collectors.toList());
+  private static Map<String, Integer> offset(int index) {
+    return Collections.singletonMap(CSV_OFFSET_KEY, index);
+  }
+
+  private void append(List<RowSourceRecord> records, Row row, int index) {
+    append(records, row, offset(index));
+  }
+
+  /**
+   * convert the line to row and then append the records of row. The malformed line is handled by
+   * the error policy.
+   *
+   * @param records records
+   * @param header the fields of header
+   * @param fields the fields of line
+   * @param index the index of line
+   * @param offset the offset of records
+   */
+  private void append(
+      List<RowSourceRecord> records,
+      List<String> header,
+      List<String> fields,
+      int index,
+      Map<String, ?> offset) {
+    // the header error is not a row error so it is thrown directly
+    if (!schema.isEmpty()) resolve(header);
+    Row row;
+    try {
+      row = toRow(header, fields, false);
+    } catch (RuntimeException e) {
+      if (errorPolicy == RowErrorPolicy.FAIL) throw e;
+      LOG.warn("failed to convert line:" + index + " of " + path + " (" + errorPolicy + "). " + e);
+      switch (errorPolicy) {
+        case SKIP:
+          return;
+        case NULL:
+          row = toRow(header, fields, true);
+          break;
+        case DEAD_LETTER:
+          records.add(
+              RowSourceRecord.builder()
+                  .sourcePartition(partition)
+                  .sourceOffset(offset)
+                  .row(toRawRow(header, fields))
+                  .topicName(deadLetterTopic)
+                  .build());
+          return;
+        default:
+          throw e;
+      }
+    }
+    append(records, row, offset);
+  }
+
+  private void append(List<RowSourceRecord> records, Row row, Map<String, ?> offset) {
+    for (String topic : topics)
+      records.add(
+          RowSourceRecord.builder()
+              .sourcePartition(partition)
+              .sourceOffset(offset)
+              .row(row)
+              .topicName(topic)
+              .build());
   }
 
   @VisibleForTesting
   List<RowSourceRecord> toRecords(Row row, int index) {
-    return this.topics.stream()
-        .map(
-            t ->
-                RowSourceRecord.builder()
-                    .sourcePartition(partition)
-                    .sourceOffset(Collections.singletonMap(CSV_OFFSET_KEY, index))
-                    .row(row)
-                    .topicName(t)
-                    .build())
-        .collect(Collectors.toList());
+    List<RowSourceRecord> records = new ArrayList<>(topics.size());
+    append(records, row, index);
+    return records;
   }
 
   public static class Builder
@@ -183,6 +340,9 @@ public class CsvRecordConverter implements RecordConverter {
 
     // Optional parameters - initialized to default values
     private List<Column> schema = Collections.emptyList();
+    private char delimiter = CsvTokenizer.DEFAULT_DELIMITER;
+    private RowErrorPolicy errorPolicy = RowErrorPolicy.FAIL;
+    private String deadLetterTopic = null;
 
     public Builder path(String val) {
       path = val;
@@ -205,11 +365,37 @@ public class CsvRecordConverter implements RecordConverter {
       return this;
     }
 
+    @com.island.ohara.common.annotations.Optional("default is comma")
+    public Builder delimiter(char val) {
+      delimiter = val;
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is FAIL")
+    public Builder errorPolicy(RowErrorPolicy val) {
+      errorPolicy = Objects.requireNonNull(val);
+      return this;
+    }
+
+    /**
+     * @param val the topic receiving the malformed lines. It is required by {@link
+     *     RowErrorPolicy#DEAD_LETTER}
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is null")
+    public Builder deadLetterTopic(String val) {
+      deadLetterTopic = CommonUtils.requireNonEmpty(val);
+      return this;
+    }
+
     @Override
     public CsvRecordConverter build() {
       Objects.requireNonNull(path);
       CommonUtils.requireNonEmpty(topics);
       Objects.requireNonNull(offsetCache);
+      if (errorPolicy == RowErrorPolicy.DEAD_LETTER)
+        Objects.requireNonNull(
+            deadLetterTopic, "the dead letter topic is required by " + errorPolicy);
       return new CsvRecordConverter(this);
     }
   }
@@ -218,6 +404,9 @@ public class CsvRecordConverter implements RecordConverter {
     path = builder.path;
     topics = builder.topics;
     schema = builder.schema;
+    delimiter = builder.delimiter;
+    errorPolicy = builder.errorPolicy;
+    deadLetterTopic = builder.deadLetterTopic;
     cache = builder.offsetCache;
     partition = Collections.singletonMap(CSV_PARTITION_KEY, builder.path);
   }
@@ -17,17 +17,33 @@
 package com.island.ohara.kafka.connector.csv.source;
 
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.COMPLETED_FOLDER_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.DEAD_LETTER_TOPIC_KEY;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.ERROR_FOLDER_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_COMPRESSION_DEFAULT;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_COMPRESSION_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_DELIMITER_KEY;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ENCODE_DEFAULT;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.FILE_ENCODE_KEY;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.INPUT_FOLDER_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.LISTING_CHANGE_DETECTION_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.LISTING_INTERVAL_DEFAULT;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.LISTING_INTERVAL_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.MAX_LINES_PER_POLL_DEFAULT;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.MAX_LINES_PER_POLL_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.OFFSET_CHECKPOINT_LINES_DEFAULT;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.OFFSET_CHECKPOINT_LINES_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.READER_THREADS_DEFAULT;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.READER_THREADS_KEY;
+import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.ROW_ERROR_POLICY_KEY;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.TASK_HASH_KEY;
 import static com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions.TASK_TOTAL_KEY;
 
 import com.island.ohara.common.annotations.VisibleForTesting;
 import com.island.ohara.common.data.Column;
+import com.island.ohara.common.setting.TopicKey;
 import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.kafka.connector.TaskSetting;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -40,6 +56,15 @@ public class CsvSourceConfig {
   private Optional<String> completedFolder;
   private String errorFolder;
   private String encode;
+  private char delimiter;
+  private String compression;
+  private int maxLinesPerPoll;
+  private int readerThreads;
+  private Duration listingInterval;
+  private FileListingCache.ChangeDetection listingChangeDetection;
+  private int offsetCheckpointLines;
+  private CsvRecordConverter.RowErrorPolicy rowErrorPolicy;
+  private Optional<String> deadLetterTopic;
   private List<String> topics;
   private List<Column> schema;
 
@@ -67,6 +92,49 @@ public class CsvSourceConfig {
     return encode;
   }
 
+  public char delimiter() {
+    return delimiter;
+  }
+
+  /**
+   * @param path file path
+   * @return the compression codec of file. It is detected by the file extension if the compression
+   *     is auto
+   */
+  public CompressionCodec compression(String path) {
+    return compression.equalsIgnoreCase(CompressionCodec.AUTO)
+        ? CompressionCodec.detect(path)
+        : CompressionCodec.of(compression);
+  }
+
+  public int maxLinesPerPoll() {
+    return maxLinesPerPoll;
+  }
+
+  public int readerThreads() {
+    return readerThreads;
+  }
+
+  public Duration listingInterval() {
+    return listingInterval;
+  }
+
+  public FileListingCache.ChangeDetection listingChangeDetection() {
+    return listingChangeDetection;
+  }
+
+  public int offsetCheckpointLines() {
+    return offsetCheckpointLines;
+  }
+
+  public CsvRecordConverter.RowErrorPolicy rowErrorPolicy() {
+    return rowErrorPolicy;
+  }
+
+  public Optional<String> deadLetterTopic() {
+    return deadLetterTopic;
+  }
+
   public List<String> topics() {
     return topics;
   }
@@ -96,6 +164,17 @@ public class CsvSourceConfig {
     private Optional<String> completedFolder;
     private String errorFolder;
     private String encode = FILE_ENCODE_DEFAULT;
+    private char delimiter = CsvTokenizer.DEFAULT_DELIMITER;
+    private String compression = FILE_COMPRESSION_DEFAULT;
+    private int maxLinesPerPoll = MAX_LINES_PER_POLL_DEFAULT;
+    private int readerThreads = READER_THREADS_DEFAULT;
+    private Duration listingInterval = LISTING_INTERVAL_DEFAULT;
+    private FileListingCache.ChangeDetection listingChangeDetection =
+        FileListingCache.ChangeDetection.NONE;
+    private int offsetCheckpointLines = OFFSET_CHECKPOINT_LINES_DEFAULT;
+    private CsvRecordConverter.RowErrorPolicy rowErrorPolicy =
+        CsvRecordConverter.RowErrorPolicy.FAIL;
+    private Optional<String> deadLetterTopic = Optional.empty();
     private List<String> topics;
     private List<Column> schema;
 
@@ -130,6 +209,71 @@ public class CsvSourceConfig {
       return this;
     }
 
+    @com.island.ohara.common.annotations.Optional("default is comma")
+    public CsvSourceConfig.Builder delimiter(char val) {
+      delimiter = val;
+      return this;
+    }
+
+    /**
+     * @param val the alias of compression codec or auto
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is " + FILE_COMPRESSION_DEFAULT)
+    public CsvSourceConfig.Builder compression(String val) {
+      // check the value
+      if (!val.equalsIgnoreCase(CompressionCodec.AUTO)) CompressionCodec.of(val);
+      compression = val;
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is " + MAX_LINES_PER_POLL_DEFAULT)
+    public CsvSourceConfig.Builder maxLinesPerPoll(int val) {
+      maxLinesPerPoll = CommonUtils.requirePositiveInt(val);
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is " + READER_THREADS_DEFAULT)
+    public CsvSourceConfig.Builder readerThreads(int val) {
+      if (val < 0) throw new IllegalArgumentException("the reader threads can't be negative");
+      readerThreads = val;
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is 1 second")
+    public CsvSourceConfig.Builder listingInterval(Duration val) {
+      listingInterval = Objects.requireNonNull(val);
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is NONE")
+    public CsvSourceConfig.Builder listingChangeDetection(FileListingCache.ChangeDetection val) {
+      listingChangeDetection = Objects.requireNonNull(val);
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is " + OFFSET_CHECKPOINT_LINES_DEFAULT)
+    public CsvSourceConfig.Builder offsetCheckpointLines(int val) {
+      offsetCheckpointLines = CommonUtils.requirePositiveInt(val);
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is FAIL")
+    public CsvSourceConfig.Builder rowErrorPolicy(CsvRecordConverter.RowErrorPolicy val) {
+      rowErrorPolicy = Objects.requireNonNull(val);
+      return this;
+    }
+
+    /**
+     * @param val the name of dead letter topic on kafka
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default is empty")
+    public CsvSourceConfig.Builder deadLetterTopic(String val) {
+      deadLetterTopic = Optional.of(CommonUtils.requireNonEmpty(val));
+      return this;
+    }
+
     public CsvSourceConfig.Builder topics(List<String> val) {
       topics = val;
       return this;
@@ -145,6 +289,10 @@ public class CsvSourceConfig {
       Objects.requireNonNull(inputFolder);
       Objects.requireNonNull(errorFolder);
       CommonUtils.requireNonEmpty(topics);
+      if (rowErrorPolicy == CsvRecordConverter.RowErrorPolicy.DEAD_LETTER
+          && !deadLetterTopic.isPresent())
+        throw new IllegalArgumentException(
+            "the dead letter topic is required by " + rowErrorPolicy);
       return new CsvSourceConfig(this);
     }
   }
@@ -156,6 +304,15 @@ public class CsvSourceConfig {
     this.completedFolder = builder.completedFolder;
     this.errorFolder = builder.errorFolder;
     this.encode = builder.encode;
+    this.delimiter = builder.delimiter;
+    this.compression = builder.compression;
+    this.maxLinesPerPoll = builder.maxLinesPerPoll;
+    this.readerThreads = builder.readerThreads;
+    this.listingInterval = builder.listingInterval;
+    this.listingChangeDetection = builder.listingChangeDetection;
+    this.offsetCheckpointLines = builder.offsetCheckpointLines;
+    this.rowErrorPolicy = builder.rowErrorPolicy;
+    this.deadLetterTopic = builder.deadLetterTopic;
     this.topics = builder.topics;
     this.schema = builder.schema;
   }
@@ -192,6 +349,35 @@ public class CsvSourceConfig {
       builder.encode(encode.get());
     }
 
+    Optional<String> delimiter = setting.stringOption(FILE_DELIMITER_KEY);
+    if (delimiter.isPresent()) {
+      if (delimiter.get().length() != 1)
+        throw new IllegalArgumentException(
+            "the delimiter must be a single char but actual:" + delimiter.get());
+      builder.delimiter(delimiter.get().charAt(0));
+    }
+
+    setting.stringOption(FILE_COMPRESSION_KEY).ifPresent(builder::compression);
+    setting.intOption(MAX_LINES_PER_POLL_KEY).ifPresent(builder::maxLinesPerPoll);
+    setting.intOption(READER_THREADS_KEY).ifPresent(builder::readerThreads);
+    setting.durationOption(LISTING_INTERVAL_KEY).ifPresent(builder::listingInterval);
+    setting
+        .stringOption(LISTING_CHANGE_DETECTION_KEY)
+        .map(FileListingCache.ChangeDetection::of)
+        .ifPresent(builder::listingChangeDetection);
+    setting.intOption(OFFSET_CHECKPOINT_LINES_KEY).ifPresent(builder::offsetCheckpointLines);
+    setting
+        .stringOption(ROW_ERROR_POLICY_KEY)
+        .map(CsvRecordConverter.RowErrorPolicy::of)
+        .ifPresent(builder::rowErrorPolicy);
+    // the dead letter topic is a topic key, and it is converted to the topic name on kafka like the
+    // topic keys of connector
+    setting
+        .stringOption(DEAD_LETTER_TOPIC_KEY)
+        .map(TopicKey::toTopicKey)
+        .map(TopicKey::topicNameOnKafka)
+        .ifPresent(builder::deadLetterTopic);
+
     builder.topics(setting.topicNames());
 
     if (schema != null) {
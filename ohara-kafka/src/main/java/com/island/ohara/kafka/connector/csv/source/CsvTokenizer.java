@@ -0,0 +1,261 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv.source;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * A single-pass csv tokenizer. It reads the chars from a reader and then splits them to records by
+ * a state machine. It supports the following rules.
+ *
+ * <ul>
+ *   <li>the fields are separated by the delimiter, and the records are separated by \n, \r\n or \r
+ *   <li>the field enclosed in quotes can contain the delimiter, line breaks and escaped quotes ("")
+ *   <li>the quotes of quoted field are removed, and the whitespace around the unquoted field is
+ *       trimmed
+ * </ul>
+ *
+ * Noted: a record having multiline fields is counted as a single record so the index of records may
+ * be different from the index of lines.
+ *
+ * <p>The tokenizer created with a charset tracks the byte position of the end of last record so the
+ * caller is able to resume the file from the position. Only UTF-8 and single-byte charsets are
+ * supported.
+ */
+public final class CsvTokenizer {
+  public static final char DEFAULT_DELIMITER = ',';
+  private static final char QUOTE = '"';
+  private static final int BUFFER_SIZE = 8192;
+
+  private enum State {
+    /** at the beginning of a field */
+    FIELD_START,
+    /** in a field which is not enclosed in quotes */
+    UNQUOTED,
+    /** in a field which is enclosed in quotes */
+    QUOTED,
+    /** just after a quote in a quoted field. It may be the end of field or an escaped quote */
+    QUOTE_IN_QUOTED
+  }
+
+  /** the way to count the bytes of decoded chars */
+  private enum Width {
+    /** the byte position is not tracked */
+    NONE,
+    /** each char is encoded by a single byte */
+    SINGLE,
+    /** the chars are encoded by utf-8 */
+    UTF8
+  }
+
+  /**
+   * split a single line to fields.
+   *
+   * @param line line
+   * @param delimiter delimiter
+   * @return fields
+   */
+  public static List<String> split(String line, char delimiter) {
+    List<String> fields = of(new StringReader(line), delimiter).next();
+    // the empty line is a record having an empty field
+    return fields == null ? of(new StringReader("\n"), delimiter).next() : fields;
+  }
+
+  public static CsvTokenizer of(Reader reader, char delimiter) {
+    return new CsvTokenizer(reader, delimiter, Width.NONE);
+  }
+
+  /**
+   * create a tokenizer which tracks the byte position of records.
+   *
+   * @param reader reader
+   * @param delimiter delimiter
+   * @param charset the charset used to decode the reader. It is used to count the bytes of chars
+   * @return tokenizer
+   */
+  public static CsvTokenizer of(Reader reader, char delimiter, Charset charset) {
+    Width width;
+    if (charset.equals(StandardCharsets.UTF_8)) width = Width.UTF8;
+    else if (charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1)
+      width = Width.SINGLE;
+    else width = Width.NONE;
+    return new CsvTokenizer(reader, delimiter, width);
+  }
+
+  private final Reader reader;
+  private final char delimiter;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private final StringBuilder field = new StringBuilder();
+  private int position = 0;
+  private int limit = 0;
+  /** the number of fields of previous record. It is used to allocate the list of next record */
+  private int lastSize = 8;
+  /** the number of bytes of the counted chars */
+  private long bytes = 0;
+  /** the chars in buffer[0, counted) are counted */
+  private int counted = 0;
+
+  private Width width;
+
+  private CsvTokenizer(Reader reader, char delimiter, Width width) {
+    if (delimiter == QUOTE || delimiter == '\n' || delimiter == '\r')
+      throw new IllegalArgumentException("the delimiter can't be quote or line break");
+    this.reader = reader;
+    this.delimiter = delimiter;
+    this.width = width;
+  }
+
+  /**
+   * count the bytes of chars in buffer[counted, end). The position becomes unsupported if there is
+   * a malformed input, since its bytes are unknown.
+   */
+  private void count(int end) {
+    switch (width) {
+      case SINGLE:
+        bytes += end - counted;
+        break;
+      case UTF8:
+        long count = 0;
+        for (int i = counted; i < end; ++i) {
+          char c = buffer[i];
+          if (c < 0x80) count += 1;
+          else if (c < 0x800 || Character.isSurrogate(c)) count += 2;
+          else if (c == '\uFFFD') {
+            width = Width.NONE;
+            return;
+          } else count += 3;
+        }
+        bytes += count;
+        break;
+      default:
+        break;
+    }
+    counted = end;
+  }
+
+  /**
+   * @return the byte position of the end of last record, or empty if the position is not tracked
+   */
+  public OptionalLong position() {
+    count(position);
+    return width == Width.NONE ? OptionalLong.empty() : OptionalLong.of(bytes);
+  }
+
+  /** @return the next char or -1 if there is no more data */
+  private int read() {
+    if (position >= limit && !fill()) return -1;
+    return buffer[position++];
+  }
+
+  private boolean fill() {
+    try {
+      count(limit);
+      counted = 0;
+      int count = reader.read(buffer, 0, buffer.length);
+      // the reader is allowed to return zero
+      while (count == 0) count = reader.read(buffer, 0, buffer.length);
+      position = 0;
+      limit = Math.max(count, 0);
+      return count > 0;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** skip the \n following \r */
+  private void skipLineFeed() {
+    if ((position < limit || fill()) && buffer[position] == '\n') position++;
+  }
+
+  private void addField(List<String> fields, boolean trim) {
+    int length = field.length();
+    if (trim) while (length > 0 && field.charAt(length - 1) <= ' ') length--;
+    fields.add(field.substring(0, length));
+    field.setLength(0);
+  }
+
+  /**
+   * read the next record.
+   *
+   * @return fields of next record, or null if there is no more record
+   */
+  public List<String> next() {
+    List<String> fields = new ArrayList<>(lastSize);
+    State state = State.FIELD_START;
+    boolean empty = true;
+    while (true) {
+      int c = read();
+      if (c == -1) {
+        if (empty) return null;
+        // the unclosed quoted field is ended by the end of data
+        addField(fields, state == State.UNQUOTED);
+        break;
+      }
+      empty = false;
+      if (state == State.QUOTED) {
+        if (c == QUOTE) state = State.QUOTE_IN_QUOTED;
+        else field.append((char) c);
+        continue;
+      }
+      if (c == delimiter) {
+        addField(fields, state == State.UNQUOTED);
+        state = State.FIELD_START;
+        continue;
+      }
+      if (c == '\n' || c == '\r') {
+        if (c == '\r') skipLineFeed();
+        addField(fields, state == State.UNQUOTED);
+        break;
+      }
+      switch (state) {
+        case FIELD_START:
+          if (c == QUOTE) state = State.QUOTED;
+          // the whitespace before field is skipped
+          else if (c > ' ') {
+            field.append((char) c);
+            state = State.UNQUOTED;
+          }
+          break;
+        case QUOTE_IN_QUOTED:
+          // the escaped quote
+          if (c == QUOTE) {
+            field.append(QUOTE);
+            state = State.QUOTED;
+          }
+          // the whitespace after quoted field is skipped
+          else if (c > ' ') {
+            field.append((char) c);
+            state = State.UNQUOTED;
+          }
+          break;
+        default:
+          field.append((char) c);
+          break;
+      }
+    }
+    lastSize = fields.size();
+    return fields;
+  }
+}
@@ -16,8 +16,11 @@
 
 package com.island.ohara.kafka.connector.csv.source;
 
+import com.island.ohara.common.util.Releasable;
 import com.island.ohara.kafka.connector.RowSourceRecord;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * A data reader is used to transfer data to Kafka topics.
@@ -36,9 +39,12 @@ import java.util.List;
  *
  * <p>Note that if unfortunately, failed to move the file to <b>error</b> folder, you SHOULD log the
  * failure reason and keep the file in the original folder.
+ *
+ * <p>A large file can be read by many batches through {@link #read(String, int)}. In that case, the
+ * file is completed (or moved to the error folder) after the last batch is read.
  */
 @FunctionalInterface
-public interface DataReader {
+public interface DataReader extends Releasable {
   /**
    * Read content from a file and convert it to row source records.
    *
@@ -48,4 +54,42 @@ public interface DataReader {
    * @return a list of RowSourceRecord
    */
   List<RowSourceRecord> read(String path);
+
+  /**
+   * Read the next batch of a file. The file is kept open until the last batch is read so the
+   * following call continues from the last line of previous batch. The default implementation reads
+   * the whole file at once.
+   *
+   * @param path the path of file
+   * @param maxLines the max number of lines in this batch
+   * @return a list of RowSourceRecord
+   */
+  default List<RowSourceRecord> read(String path, int maxLines) {
+    return read(path);
+  }
+
+  /**
+   * @return the path of file which is partially read by {@link #read(String, int)}. The caller
+   *     should keep reading it until it is completed. The default implementation returns empty.
+   */
+  default Optional<String> openedPath() {
+    return Optional.empty();
+  }
+
+  /**
+   * Prepare the resources, for example the offsets, of files which are going to be read. It is
+   * useful to the reader which is able to load the resources of many files at once. The default
+   * implementation does nothing.
+   *
+   * @param paths the paths of files
+   */
+  default void prefetch(Collection<String> paths) {
+    // do nothing
+  }
+
+  /** release the opened file. The default implementation does nothing. */
+  @Override
+  default void close() {
+    // do nothing
+  }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv.source;
+
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.connector.storage.FileSystem;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A cache of the listing of input folder. The listed files are kept in a queue, and the folder is
+ * checked again only if the queue is drained and the refresh interval is elapsed since last check.
+ * The check lists the folder if the change detection is {@link ChangeDetection#NONE}. If the change
+ * detection is {@link ChangeDetection#MTIME}, the check fetches the last modified time of folder
+ * and the folder is listed only if the time is changed. It requires {@link
+ * FileSystem#lastModified(String)}, and the file system which doesn't support it is listed by each
+ * check.
+ *
+ * <p>Hence, the remote listing, which is expensive to FTP, SMB and HDFS, is not executed by each
+ * poll. The caller should wait for {@link #timeToRefresh()} if there is nothing to do. Noted: this
+ * class is not thread-safe.
+ */
+public class FileListingCache {
+
+  /** the way to detect the changes of folder when the refresh interval is elapsed */
+  public enum ChangeDetection {
+    /** the folder is listed by each refresh interval */
+    NONE,
+    /** the folder is listed only if its last modified time is changed */
+    MTIME;
+
+    public static ChangeDetection of(String name) {
+      for (ChangeDetection value : values()) if (value.name().equalsIgnoreCase(name)) return value;
+      throw new IllegalArgumentException("unsupported change detection:" + name);
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private final FileSystem fs;
+  private final String folder;
+  private final Predicate<String> filter;
+  private final long interval;
+  private final ChangeDetection changeDetection;
+  private final Deque<String> pending = new ArrayDeque<>();
+  private final Set<String> pendingPaths = new HashSet<>();
+  /** the time of last check. negative means the folder is never checked */
+  private long lastCheck = -1;
+
+  private Optional<Long> lastModified = Optional.empty();
+  private int numberOfListings = 0;
+
+  private FileListingCache(Builder builder) {
+    this.fs = builder.fs;
+    this.folder = builder.folder;
+    this.filter = builder.filter;
+    this.interval = builder.interval.toMillis();
+    this.changeDetection = builder.changeDetection;
+  }
+
+  /**
+   * @return the time, in milliseconds, to wait for the next check. Zero means the folder can be
+   *     checked now
+   */
+  public long timeToRefresh() {
+    if (lastCheck < 0) return 0;
+    return Math.max(0, lastCheck + interval - CommonUtils.current());
+  }
+
+  /**
+   * list the folder if the queue is drained and the folder may be changed.
+   *
+   * @return the paths added to the queue by this refresh
+   */
+  public List<String> refreshIfNeeded() {
+    if (!pending.isEmpty() || timeToRefresh() > 0) return Collections.emptyList();
+    lastCheck = CommonUtils.current();
+    if (changeDetection == ChangeDetection.MTIME) {
+      // the time is fetched before listing so the changes made in listing are not missed
+      Optional<Long> current = fs.lastModified(folder);
+      if (numberOfListings > 0 && current.isPresent() && current.equals(lastModified))
+        return Collections.emptyList();
+      lastModified = current;
+    }
+    numberOfListings++;
+    List<String> added = new ArrayList<>();
+    Iterator<String> fileNames = fs.listFileNames(folder);
+    while (fileNames.hasNext()) {
+      String fileName = fileNames.next();
+      if (filter.test(fileName)) {
+        String path = Paths.get(folder, fileName).toString();
+        if (pendingPaths.add(path)) {
+          pending.add(path);
+          added.add(path);
+        }
+      }
+    }
+    return added;
+  }
+
+  /**
+   * take the next pending path.
+   *
+   * @param excludedPaths the paths which should be skipped. For example, the files being read
+   * @return the next path, or empty if the queue is drained
+   */
+  public Optional<String> next(Set<String> excludedPaths) {
+    while (!pending.isEmpty()) {
+      String path = pending.poll();
+      pendingPaths.remove(path);
+      if (!excludedPaths.contains(path)) return Optional.of(path);
+    }
+    return Optional.empty();
+  }
+
+  /** @return the number of pending paths */
+  public int size() {
+    return pending.size();
+  }
+
+  /** @return the number of listings executed by this cache */
+  public int numberOfListings() {
+    return numberOfListings;
+  }
+
+  public static class Builder implements com.island.ohara.common.pattern.Builder<FileListingCache> {
+    private FileSystem fs;
+    private String folder;
+    private Predicate<String> filter = name -> true;
+    private Duration interval = Duration.ZERO;
+    private ChangeDetection changeDetection = ChangeDetection.NONE;
+
+    private Builder() {}
+
+    public Builder fileSystem(FileSystem fs) {
+      this.fs = Objects.requireNonNull(fs);
+      return this;
+    }
+
+    public Builder folder(String folder) {
+      this.folder = CommonUtils.requireNonEmpty(folder);
+      return this;
+    }
+
+    /**
+     * @param filter used to select the file names. For example, the files claimed by the task
+     * @return this builder
+     */
+    @com.island.ohara.common.annotations.Optional("default accepts all files")
+    public Builder filter(Predicate<String> filter) {
+      this.filter = Objects.requireNonNull(filter);
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is zero")
+    public Builder interval(Duration interval) {
+      this.interval = Objects.requireNonNull(interval);
+      return this;
+    }
+
+    @com.island.ohara.common.annotations.Optional("default is NONE")
+    public Builder changeDetection(ChangeDetection changeDetection) {
+      this.changeDetection = Objects.requireNonNull(changeDetection);
+      return this;
+    }
+
+    @Override
+    public FileListingCache build() {
+      Objects.requireNonNull(fs);
+      CommonUtils.requireNonEmpty(folder);
+      return new FileListingCache(this);
+    }
+  }
+}
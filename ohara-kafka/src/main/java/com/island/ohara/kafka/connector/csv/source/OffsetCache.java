@@ -17,6 +17,7 @@
 package com.island.ohara.kafka.connector.csv.source;
 
 import com.island.ohara.kafka.connector.RowSourceContext;
+import java.util.Collection;
 
 /** Used to manage the offset from files */
 public interface OffsetCache {
@@ -29,6 +30,17 @@ public interface OffsetCache {
    */
   void loadIfNeed(RowSourceContext context, String path);
 
+  /**
+   * load the latest offsets of paths from RowSourceContext. It is used to prefetch the offsets of
+   * many files in a single request. The default implementation loads the offsets one by one.
+   *
+   * @param context kafka's cache
+   * @param paths file paths
+   */
+  default void loadIfNeed(RowSourceContext context, Collection<String> paths) {
+    paths.forEach(path -> loadIfNeed(context, path));
+  }
+
   /**
    * add (index, path) to the cache
    *
@@ -37,6 +49,19 @@ public interface OffsetCache {
    */
   void update(String path, int index);
 
+  /**
+   * add (index, path) to the cache with the byte position of the end of record. The position can be
+   * used to resume the file without reading the processed records. The default implementation
+   * ignores the position.
+   *
+   * @param path file path
+   * @param index index from line
+   * @param position the byte position of the end of record
+   */
+  default void update(String path, int index, long position) {
+    update(path, index);
+  }
+
   /**
    * check whether the index from path is processed.
    *
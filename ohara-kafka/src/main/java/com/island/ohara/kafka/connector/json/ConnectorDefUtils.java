@@ -245,6 +245,52 @@ public final class ConnectorDefUtils {
           .orderInGroup(ORDER_COUNTER.getAndIncrement())
           .build();
 
+  public static final SettingDef PARTITIONER_CLASS_DEFINITION =
+      SettingDef.builder()
+          .displayName("Partitioner")
+          .key("partitioner.class")
+          .valueType(Type.STRING)
+          .documentation(
+              "the class name of RowPartitioner used by source task to decide the partition of rows. "
+                  + "If it is not defined but the partitioner columns are defined, the ColumnPartitioner is used. "
+                  + "Otherwise, the partition is computed by kafka")
+          .group(CORE_GROUP)
+          .optional()
+          .orderInGroup(ORDER_COUNTER.getAndIncrement())
+          .build();
+
+  public static final SettingDef PARTITIONER_COLUMNS_DEFINITION =
+      SettingDef.builder()
+          .displayName("Partitioner columns")
+          .key("partitioner.columns")
+          .valueType(Type.ARRAY)
+          .documentation(
+              "the columns used by ColumnPartitioner. The rows having same values of those columns are sent to same partition")
+          .group(CORE_GROUP)
+          .optional()
+          .orderInGroup(ORDER_COUNTER.getAndIncrement())
+          .build();
+
+  public static final SettingDef PARTITIONER_PARTITIONS_DEFINITION =
+      SettingDef.builder()
+          .displayName("Partitioner partitions")
+          .key("partitioner.partitions")
+          .valueType(Type.INT)
+          .documentation(
+              "the number of partitions of target topics. It is used by ColumnPartitioner to spread the rows, "
+                  + "so it is required if the ColumnPartitioner is used")
+          .group(CORE_GROUP)
+          .optional()
+          .orderInGroup(ORDER_COUNTER.getAndIncrement())
+          .build();
+
+  /** the definitions used by source connector only. */
+  public static final List<SettingDef> SOURCE_DEFINITIONS_DEFAULT =
+      Arrays.asList(
+          PARTITIONER_CLASS_DEFINITION,
+          PARTITIONER_COLUMNS_DEFINITION,
+          PARTITIONER_PARTITIONS_DEFINITION);
+
   @VisibleForTesting
   static ConfigDef.Type toType(Type type) {
     switch (type) {
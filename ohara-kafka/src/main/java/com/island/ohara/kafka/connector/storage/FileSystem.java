@@ -16,10 +16,13 @@
 
 package com.island.ohara.kafka.connector.storage;
 
+import com.island.ohara.common.exception.OharaFileSystemException;
 import com.island.ohara.common.util.Releasable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Iterator;
+import java.util.Optional;
 
 /** Interface to file system */
 public interface FileSystem extends Releasable {
@@ -68,6 +71,54 @@ public interface FileSystem extends Releasable {
    */
   InputStream open(String path);
 
+  /**
+   * Open for reading a file from the given byte position. It is used to resume a file without
+   * reading the processed bytes again. The default implementation opens the file and skips the
+   * bytes before the position, so the file system which is able to seek should override it.
+   *
+   * @param path the path of the file
+   * @param position the byte position to start reading
+   * @throws IllegalArgumentException if the file does not exist or the position is out of file
+   * @return an input stream with the requested file
+   */
+  default InputStream open(String path, long position) {
+    if (position < 0) throw new IllegalArgumentException("the position can't be negative");
+    return skip(open(path), path, position);
+  }
+
+  /**
+   * skip the bytes before the position. The input stream is closed if it fails to skip.
+   *
+   * @param input the input stream of file
+   * @param path the path of the file. It is used by the error message
+   * @param position the byte position to start reading
+   * @throws IllegalArgumentException if the position is out of file
+   * @return the input stream which is moved to the position
+   */
+  static InputStream skip(InputStream input, String path, long position) {
+    try {
+      long skipped = 0;
+      while (skipped < position) {
+        long count = input.skip(position - skipped);
+        // the skip may return zero before the end of stream so we check the end by reading a byte
+        if (count <= 0) {
+          if (input.read() < 0)
+            throw new IllegalArgumentException(
+                "the position:" + position + " is out of file:" + path);
+          count = 1;
+        }
+        skipped += count;
+      }
+      return input;
+    } catch (IOException e) {
+      Releasable.close(input);
+      throw new OharaFileSystemException(e);
+    } catch (RuntimeException e) {
+      Releasable.close(input);
+      throw e;
+    }
+  }
+
   /**
    * Delete the given file for folder (If empty)
    *
@@ -102,6 +153,18 @@ public interface FileSystem extends Releasable {
    */
   void mkdirs(String dir);
 
+  /**
+   * Returns the last modified time of a file or folder. It is used to detect the changes of folder
+   * without listing it. The default implementation returns empty, which means the file system
+   * doesn't support it.
+   *
+   * @param path the path of the file or folder
+   * @return the last modified time in milliseconds, or empty if it is unsupported
+   */
+  default Optional<Long> lastModified(String path) {
+    return Optional.empty();
+  }
+
   /** Stop using this file system */
   void close();
 }
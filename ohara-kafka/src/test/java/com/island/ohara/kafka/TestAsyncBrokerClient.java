@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.common.util.Releasable;
+import com.island.ohara.testing.WithBroker;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestAsyncBrokerClient extends WithBroker {
+  private final AsyncBrokerClient client = AsyncBrokerClient.of(testUtil().brokersConnProps());
+
+  @Test
+  public void testBatchCreateAndDelete() throws Exception {
+    List<String> topicNames =
+        IntStream.range(0, 3)
+            .mapToObj(i -> CommonUtils.randomString(10))
+            .collect(Collectors.toList());
+    client
+        .createTopics(
+            topicNames.stream()
+                .map(
+                    name ->
+                        new AsyncBrokerClient.TopicSpec(
+                            name,
+                            2,
+                            (short) 1,
+                            Collections.singletonMap(
+                                TopicConfig.CLEANUP_POLICY_CONFIG,
+                                TopicConfig.CLEANUP_POLICY_COMPACT)))
+                .collect(Collectors.toList()))
+        .get();
+    Assert.assertTrue(client.topicNames().get().containsAll(topicNames));
+
+    List<TopicDescription> descriptions = client.topicDescriptions(topicNames).get();
+    Assert.assertEquals(
+        topicNames, descriptions.stream().map(TopicDescription::name).collect(Collectors.toList()));
+    descriptions.forEach(
+        d -> {
+          Assert.assertEquals(2, d.numberOfPartitions());
+          Assert.assertEquals(
+              TopicConfig.CLEANUP_POLICY_COMPACT,
+              d.options().stream()
+                  .filter(o -> o.key().equals(TopicConfig.CLEANUP_POLICY_CONFIG))
+                  .findFirst()
+                  .get()
+                  .value());
+        });
+
+    client.deleteTopics(topicNames).get();
+    for (String name : topicNames) Assert.assertFalse(client.exist(name).get());
+  }
+
+  @Test
+  public void testCreateExistentTopic() throws Exception {
+    String topicName = CommonUtils.randomString(10);
+    client.createTopic(new AsyncBrokerClient.TopicSpec(topicName, 1, (short) 1)).get();
+    try {
+      client.createTopic(new AsyncBrokerClient.TopicSpec(topicName, 1, (short) 1)).get();
+      Assert.fail("the topic exists");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof TopicExistsException);
+    }
+  }
+
+  @Test
+  public void testCreatePartitions() throws Exception {
+    String topicName = CommonUtils.randomString(10);
+    client.createTopic(new AsyncBrokerClient.TopicSpec(topicName, 1, (short) 1)).get();
+    client.createPartitions(topicName, 3).get();
+    Assert.assertEquals(3, client.topicDescription(topicName).get().numberOfPartitions());
+    try {
+      client.createPartitions(topicName, 2).get();
+      Assert.fail("reducing the number of partitions should fail");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+  }
+
+  @Test
+  public void testCreatePartitionsWithStaleCache() throws Exception {
+    String topicName = CommonUtils.randomString(10);
+    client.createTopic(new AsyncBrokerClient.TopicSpec(topicName, 1, (short) 1)).get();
+    try (AsyncBrokerClient cached =
+        AsyncBrokerClient.builder()
+            .connectionProps(testUtil().brokersConnProps())
+            .metadataCacheTimeout(Duration.ofHours(1))
+            .build()) {
+      Assert.assertEquals(1, cached.topicDescription(topicName).get().numberOfPartitions());
+      client.createPartitions(topicName, 3).get();
+      // the cached description says 1 partition but reducing the number should still be rejected
+      try {
+        cached.createPartitions(topicName, 2).get();
+        Assert.fail("reducing the number of partitions should fail");
+      } catch (ExecutionException e) {
+        Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+      }
+      cached.createPartitions(topicName, 4).get();
+      Assert.assertEquals(4, cached.topicDescription(topicName).get().numberOfPartitions());
+    }
+  }
+
+  @Test
+  public void testSharedClient() throws Exception {
+    String connectionProps = testUtil().brokersConnProps();
+    AsyncBrokerClient c0 = AsyncBrokerClient.shared(connectionProps);
+    BrokerClient c1 = BrokerClient.shared(connectionProps);
+    Assert.assertEquals(2, SharedAdminClients.references(connectionProps));
+
+    String topicName = CommonUtils.randomString(10);
+    c1.topicCreator().topicName(topicName).create();
+    Assert.assertTrue(c0.exist(topicName).get());
+
+    c1.close();
+    // close is idempotent
+    c1.close();
+    Assert.assertEquals(1, SharedAdminClients.references(connectionProps));
+    // the shared connections are still alive
+    Assert.assertTrue(c0.exist(topicName).get());
+    c0.close();
+    Assert.assertEquals(0, SharedAdminClients.references(connectionProps));
+
+    try (AsyncBrokerClient c2 = AsyncBrokerClient.shared(connectionProps)) {
+      Assert.assertEquals(1, SharedAdminClients.references(connectionProps));
+      Assert.assertEquals(
+          Collections.singletonList(topicName),
+          c2.topicDescriptions(Collections.singletonList(topicName)).get().stream()
+              .map(TopicDescription::name)
+              .collect(Collectors.toList()));
+    }
+  }
+
+  @After
+  public void cleanup() {
+    Releasable.close(client);
+  }
+}
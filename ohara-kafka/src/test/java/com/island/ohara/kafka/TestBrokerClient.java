@@ -24,10 +24,13 @@ import com.island.ohara.common.exception.OharaExecutionException;
 import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.common.util.Releasable;
 import com.island.ohara.testing.With3Brokers;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.errors.TopicExistsException;
 import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
@@ -145,6 +148,58 @@ public class TestBrokerClient extends With3Brokers {
     }
   }
 
+  @Test
+  public void testDescribeMultipleTopics() {
+    List<String> topicNames =
+        IntStream.range(0, 5)
+            .mapToObj(i -> CommonUtils.randomString(10))
+            .collect(Collectors.toList());
+    topicNames.forEach(
+        topicName ->
+            client
+                .topicCreator()
+                .numberOfPartitions(1)
+                .numberOfReplications((short) 1)
+                .topicName(topicName)
+                .create());
+    List<TopicDescription> descriptions = client.topicDescriptions(topicNames);
+    assertEquals(
+        topicNames, descriptions.stream().map(TopicDescription::name).collect(Collectors.toList()));
+    descriptions.forEach(d -> assertFalse(d.options().isEmpty()));
+  }
+
+  @Test
+  public void testMetadataCache() {
+    String topicName = CommonUtils.randomString(10);
+    try (BrokerClient cachedClient =
+        BrokerClient.builder()
+            .connectionProps(testUtil().brokersConnProps())
+            .metadataCacheTimeout(Duration.ofHours(1))
+            .build()) {
+      assertFalse(cachedClient.exist(topicName));
+      // the topic created by this client is visible immediately
+      cachedClient
+          .topicCreator()
+          .numberOfPartitions(1)
+          .numberOfReplications((short) 1)
+          .topicName(topicName)
+          .create();
+      assertTrue(cachedClient.exist(topicName));
+      assertEquals(cachedClient.topicDescription(topicName).numberOfPartitions(), 1);
+
+      cachedClient.createPartitions(topicName, 2);
+      assertEquals(cachedClient.topicDescription(topicName).numberOfPartitions(), 2);
+
+      // the change from other client is invisible before the cache expires
+      client.createPartitions(topicName, 3);
+      assertEquals(cachedClient.topicDescription(topicName).numberOfPartitions(), 2);
+      assertEquals(client.topicDescription(topicName).numberOfPartitions(), 3);
+
+      cachedClient.deleteTopic(topicName);
+      assertFalse(cachedClient.exist(topicName));
+    }
+  }
+
   @After
   public void cleanup() {
     Releasable.close(client);
@@ -17,6 +17,7 @@
 package com.island.ohara.kafka;
 
 import com.island.ohara.common.rule.OharaTest;
+import com.island.ohara.kafka.connector.TopicPartition;
 import java.util.Collections;
 import org.junit.Test;
 
@@ -61,4 +62,28 @@ public class TestConsumerBuilder extends OharaTest {
   public void nullValueSerializer() {
     Consumer.builder().valueSerializer(null);
   }
+
+  @Test(expected = NullPointerException.class)
+  public void nullAssignment() {
+    Consumer.builder().assignment(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullAssignments() {
+    Consumer.builder().assignments(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void emptyAssignments() {
+    Consumer.builder().assignments(Collections.emptySet());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void topicNamesAndAssignmentsAreExclusive() {
+    Consumer.builder()
+        .topicName("a")
+        .assignment(new TopicPartition("a", 0))
+        .connectionProps("localhost:9092")
+        .build();
+  }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.data.Serializer;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.connector.TopicPartition;
+import com.island.ohara.testing.WithBroker;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestParallelConsumer extends WithBroker {
+  private final String topicName = CommonUtils.randomString();
+  private final int numberOfPartitions = 3;
+  private final int numberOfRecords = 300;
+
+  @Before
+  public void setup() {
+    try (BrokerClient client = BrokerClient.of(testUtil().brokersConnProps())) {
+      client
+          .topicCreator()
+          .numberOfPartitions(numberOfPartitions)
+          .numberOfReplications((short) 1)
+          .topicName(topicName)
+          .create();
+    }
+    try (Producer<String, Integer> producer =
+        Producer.builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.INT)
+            .connectionProps(testUtil().brokersConnProps())
+            .build()) {
+      IntStream.range(0, numberOfRecords)
+          .forEach(
+              i ->
+                  producer
+                      .sender()
+                      .key(String.valueOf(i))
+                      .value(i)
+                      .partition(i % numberOfPartitions)
+                      .topicName(topicName)
+                      .send());
+      producer.flush();
+    }
+  }
+
+  private ParallelConsumer.Builder<String, Integer> builder() {
+    return ParallelConsumer.builder()
+        .keySerializer(Serializer.STRING)
+        .valueSerializer(Serializer.INT)
+        .offsetFromBegin()
+        .topicName(topicName)
+        .connectionProps(testUtil().brokersConnProps())
+        .pollTimeout(Duration.ofMillis(100));
+  }
+
+  private List<Consumer.Record<String, Integer>> remaining(String groupId) {
+    try (Consumer<String, Integer> consumer =
+        Consumer.builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.INT)
+            .offsetFromBegin()
+            .groupId(groupId)
+            .topicName(topicName)
+            .connectionProps(testUtil().brokersConnProps())
+            .build()) {
+      return consumer.poll(Duration.ofSeconds(5), numberOfRecords);
+    }
+  }
+
+  @Test
+  public void testOrderInPartition() {
+    String groupId = CommonUtils.randomString();
+    Map<Integer, List<Integer>> received = new ConcurrentHashMap<>();
+    try (ParallelConsumer consumer =
+        builder()
+            .groupId(groupId)
+            .numberOfWorkers(numberOfPartitions)
+            .handler(
+                record ->
+                    received
+                        .computeIfAbsent(record.partition(), p -> new CopyOnWriteArrayList<>())
+                        .add(record.value().get()))
+            .build()) {
+      CommonUtils.await(
+          () -> received.values().stream().mapToInt(List::size).sum() == numberOfRecords,
+          Duration.ofSeconds(30));
+      Assert.assertFalse(consumer.error().isPresent());
+      Assert.assertEquals(0, consumer.inFlight());
+      Assert.assertEquals(numberOfPartitions, consumer.completedOffsets().size());
+      consumer
+          .completedOffsets()
+          .values()
+          .forEach(
+              offset -> Assert.assertEquals(numberOfRecords / numberOfPartitions, (long) offset));
+    }
+    Assert.assertEquals(numberOfPartitions, received.size());
+    received.forEach(
+        (partition, values) ->
+            Assert.assertEquals(values.stream().sorted().collect(Collectors.toList()), values));
+    // all completed offsets are committed when closing
+    Assert.assertEquals(0, remaining(groupId).size());
+  }
+
+  @Test
+  public void testBoundedInFlight() {
+    int maxInFlight = 10;
+    int maxPollRecords = 5;
+    List<Integer> inFlights = new CopyOnWriteArrayList<>();
+    List<Integer> received = new CopyOnWriteArrayList<>();
+    try (ParallelConsumer consumer =
+        builder()
+            .numberOfWorkers(1)
+            .maxInFlight(maxInFlight)
+            .options(
+                Collections.singletonMap(
+                    ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords)))
+            .handler(
+                record -> {
+                  received.add(record.value().get());
+                  try {
+                    Thread.sleep(5);
+                  } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                  }
+                })
+            .build()) {
+      CommonUtils.await(
+          () -> {
+            inFlights.add(consumer.inFlight());
+            return received.size() == numberOfRecords;
+          },
+          Duration.ofSeconds(30),
+          Duration.ofMillis(10),
+          true);
+    }
+    inFlights.forEach(n -> Assert.assertTrue(n <= maxInFlight + maxPollRecords));
+  }
+
+  @Test
+  public void testErrorStopsConsumer() {
+    String groupId = CommonUtils.randomString();
+    int failedValue = numberOfPartitions * 10;
+    try (ParallelConsumer consumer =
+        builder()
+            .groupId(groupId)
+            .handler(
+                record -> {
+                  if (record.value().get() == failedValue)
+                    throw new IllegalArgumentException("failed");
+                })
+            .build()) {
+      CommonUtils.await(consumer::isClosed, Duration.ofSeconds(30));
+      Assert.assertTrue(consumer.error().isPresent());
+      Assert.assertEquals(IllegalArgumentException.class, consumer.error().get().getClass());
+      // the failed record is not completed
+      Long offset = consumer.completedOffsets().get(new TopicPartition(topicName, 0));
+      Assert.assertTrue(offset == null || offset <= failedValue / numberOfPartitions);
+    }
+    // the failed record must be received again
+    Assert.assertTrue(remaining(groupId).stream().anyMatch(r -> r.value().get() == failedValue));
+  }
+
+  @After
+  public void tearDown() {
+    try (BrokerClient client = BrokerClient.of(testUtil().brokersConnProps())) {
+      client.deleteTopic(topicName);
+    }
+  }
+}
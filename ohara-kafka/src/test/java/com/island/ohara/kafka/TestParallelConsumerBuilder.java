@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka;
+
+import com.island.ohara.common.rule.OharaTest;
+import java.util.Collections;
+import org.junit.Test;
+
+public class TestParallelConsumerBuilder extends OharaTest {
+
+  @Test(expected = NullPointerException.class)
+  public void nullGroupId() {
+    ParallelConsumer.builder().groupId(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullTopicName() {
+    ParallelConsumer.builder().topicName(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void emptyTopicNames() {
+    ParallelConsumer.builder().topicNames(Collections.emptyList());
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullConnectionProps() {
+    ParallelConsumer.builder().connectionProps(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullHandler() {
+    ParallelConsumer.builder().handler(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullThreadFactory() {
+    ParallelConsumer.builder().threadFactory(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroWorkers() {
+    ParallelConsumer.builder().numberOfWorkers(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeMaxInFlight() {
+    ParallelConsumer.builder().maxInFlight(-1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullCommitInterval() {
+    ParallelConsumer.builder().commitInterval(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void buildWithoutHandler() {
+    ParallelConsumer.builder().topicName("a").connectionProps("localhost:9092").build();
+  }
+}
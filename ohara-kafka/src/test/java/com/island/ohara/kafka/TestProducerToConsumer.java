@@ -18,10 +18,13 @@ package com.island.ohara.kafka;
 
 import com.island.ohara.common.data.Serializer;
 import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.connector.TopicPartition;
 import com.island.ohara.testing.WithBroker;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.clients.CommonClientConfigs;
@@ -242,6 +245,198 @@ public class TestProducerToConsumer extends WithBroker {
     }
   }
 
+  private void produce(int count, long timestamp) {
+    try (Producer<String, String> producer =
+        Producer.<String, String>builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.STRING)
+            .connectionProps(testUtil().brokersConnProps())
+            .build()) {
+      for (int i = 0; i < count; i++)
+        producer
+            .sender()
+            .key("key" + i)
+            .value("value" + i)
+            .topicName(topicName)
+            .timestamp(timestamp + i)
+            .send();
+    }
+  }
+
+  private Consumer<String, String> assignedConsumer() {
+    return Consumer.<String, String>builder()
+        .keySerializer(Serializer.STRING)
+        .valueSerializer(Serializer.STRING)
+        .offsetFromBegin()
+        .assignment(new TopicPartition(topicName, 0))
+        .connectionProps(testUtil().brokersConnProps())
+        .build();
+  }
+
+  @Test
+  public void testSeekToOffset() {
+    produce(100, CommonUtils.current());
+    try (Consumer<String, String> consumer = assignedConsumer()) {
+      Assert.assertEquals(
+          Collections.singleton(new TopicPartition(topicName, 0)), consumer.assignment());
+      Assert.assertTrue(consumer.subscription().isEmpty());
+      consumer.seek(new TopicPartition(topicName, 0), 90);
+      List<Consumer.Record<String, String>> records = consumer.poll(Duration.ofSeconds(30), 10);
+      Assert.assertEquals(10, records.size());
+      Assert.assertEquals(90, records.get(0).offset());
+      Assert.assertEquals("key90", records.get(0).key().get());
+      Assert.assertEquals(0, records.get(0).partition());
+    }
+  }
+
+  @Test
+  public void testSeekToEnd() {
+    produce(100, CommonUtils.current());
+    try (Consumer<String, String> consumer = assignedConsumer()) {
+      consumer.seekToEnd();
+      Assert.assertEquals(0, consumer.poll(Duration.ofSeconds(1), 0).size());
+      produce(1, CommonUtils.current());
+      List<Consumer.Record<String, String>> records = consumer.poll(Duration.ofSeconds(30), 1);
+      Assert.assertEquals(1, records.size());
+      Assert.assertEquals(100, records.get(0).offset());
+    }
+  }
+
+  @Test
+  public void testBeginningAndEndOffsets() {
+    produce(100, CommonUtils.current());
+    TopicPartition partition = new TopicPartition(topicName, 0);
+    try (Consumer<String, String> consumer = assignedConsumer()) {
+      Assert.assertEquals(
+          0L,
+          (long) consumer.beginningOffsets(Collections.singletonList(partition)).get(partition));
+      Assert.assertEquals(
+          100L, (long) consumer.endOffsets(Collections.singletonList(partition)).get(partition));
+    }
+  }
+
+  @Test
+  public void testSeekToTimestamp() {
+    long timestamp = CommonUtils.current();
+    produce(100, timestamp);
+    TopicPartition partition = new TopicPartition(topicName, 0);
+    try (Consumer<String, String> consumer = assignedConsumer()) {
+      Map<TopicPartition, Long> offsets =
+          consumer.offsetsForTimes(Collections.singletonMap(partition, timestamp + 30));
+      Assert.assertEquals(30L, (long) offsets.get(partition));
+      // no record is newer than the timestamp
+      Assert.assertTrue(
+          consumer
+              .offsetsForTimes(Collections.singletonMap(partition, timestamp + 1000))
+              .isEmpty());
+
+      consumer.seekToTimestamp(timestamp + 50);
+      List<Consumer.Record<String, String>> records = consumer.poll(Duration.ofSeconds(30), 50);
+      Assert.assertEquals(50, records.size());
+      Assert.assertEquals(50, records.get(0).offset());
+      Assert.assertEquals(timestamp + 50, records.get(0).timestamp());
+
+      consumer.seekToTimestamp(timestamp + 1000);
+      Assert.assertEquals(0, consumer.poll(Duration.ofSeconds(1), 0).size());
+    }
+  }
+
+  private Consumer<String, String> manualCommitConsumer(String groupId) {
+    return Consumer.<String, String>builder()
+        .keySerializer(Serializer.STRING)
+        .valueSerializer(Serializer.STRING)
+        .offsetFromBegin()
+        .autoCommit(false)
+        .groupId(groupId)
+        .topicName(topicName)
+        .connectionProps(testUtil().brokersConnProps())
+        .build();
+  }
+
+  @Test
+  public void testCommitSync() {
+    produce(100, CommonUtils.current());
+    String groupId = CommonUtils.randomString();
+    TopicPartition partition = new TopicPartition(topicName, 0);
+    try (Consumer<String, String> consumer = manualCommitConsumer(groupId)) {
+      Assert.assertEquals(100, consumer.poll(Duration.ofSeconds(30), 100).size());
+      Assert.assertEquals(100, consumer.position(partition));
+      Assert.assertFalse(consumer.committed(partition).isPresent());
+      consumer.commitSync(Collections.singletonMap(partition, 60L));
+      Assert.assertEquals(60L, (long) consumer.committed(partition).get());
+    }
+    // the new consumer starts from the committed offset
+    try (Consumer<String, String> consumer = manualCommitConsumer(groupId)) {
+      List<Consumer.Record<String, String>> records = consumer.poll(Duration.ofSeconds(30), 40);
+      Assert.assertEquals(40, records.size());
+      Assert.assertEquals(60, records.get(0).offset());
+      consumer.commitSync();
+      Assert.assertEquals(100L, (long) consumer.committed(partition).get());
+    }
+  }
+
+  @Test
+  public void testCommitAsync() throws Exception {
+    produce(10, CommonUtils.current());
+    TopicPartition partition = new TopicPartition(topicName, 0);
+    try (Consumer<String, String> consumer = manualCommitConsumer(CommonUtils.randomString())) {
+      Assert.assertEquals(10, consumer.poll(Duration.ofSeconds(30), 10).size());
+      CompletableFuture<Void> f = consumer.commitAsync(Collections.singletonMap(partition, 5L));
+      // the callback of async commit is invoked by poll
+      CommonUtils.await(
+          () -> {
+            consumer.poll(Duration.ofMillis(100));
+            return f.isDone();
+          },
+          Duration.ofSeconds(30));
+      f.get();
+      Assert.assertEquals(5L, (long) consumer.committed(partition).get());
+    }
+  }
+
+  @Test
+  public void testCommitter() {
+    produce(25, CommonUtils.current());
+    TopicPartition partition = new TopicPartition(topicName, 0);
+    try (Consumer<String, String> consumer = manualCommitConsumer(CommonUtils.randomString())) {
+      Consumer.Committer committer = consumer.committer(Duration.ofHours(1), 10);
+      List<Consumer.Record<String, String>> records = consumer.poll(Duration.ofSeconds(30), 25);
+      Assert.assertEquals(25, records.size());
+      records.forEach(committer::mark);
+      // 20 records are committed since the threshold is 10
+      Assert.assertEquals(5, committer.uncommitted());
+      committer.flush();
+      Assert.assertEquals(0, committer.uncommitted());
+      Assert.assertEquals(25L, (long) consumer.committed(partition).get());
+    }
+  }
+
+  @Test
+  public void testLag() {
+    produce(100, CommonUtils.current());
+    TopicPartition partition = new TopicPartition(topicName, 0);
+    try (Consumer<String, String> consumer = assignedConsumer()) {
+      Assert.assertEquals(100L, (long) consumer.lag().get(partition));
+      consumer.seek(partition, 30);
+      Assert.assertEquals(70L, (long) consumer.lag().get(partition));
+      Assert.assertEquals(70, consumer.poll(Duration.ofSeconds(30), 70).size());
+      Assert.assertEquals(0L, (long) consumer.lag().get(partition));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testAssignSubscribedConsumer() {
+    try (Consumer<String, String> consumer =
+        Consumer.<String, String>builder()
+            .keySerializer(Serializer.STRING)
+            .valueSerializer(Serializer.STRING)
+            .topicName(topicName)
+            .connectionProps(testUtil().brokersConnProps())
+            .build()) {
+      consumer.assign(Collections.singletonList(new TopicPartition(topicName, 0)));
+    }
+  }
+
   @After
   public void tearDown() {
     try (BrokerClient client = BrokerClient.of(testUtil().brokersConnProps())) {
@@ -20,9 +20,16 @@ import com.island.ohara.common.data.Cell;
 import com.island.ohara.common.data.Row;
 import com.island.ohara.common.rule.OharaTest;
 import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.connector.json.ConnectorDefUtils;
+import com.island.ohara.kafka.connector.json.StringList;
+import com.island.ohara.metrics.BeanChannel;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.config.Config;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.junit.Assert;
 import org.junit.Test;
@@ -64,6 +71,8 @@ public class TestConnectorProps extends OharaTest {
     try {
       Assert.assertNotNull(task.rowCounter);
       Assert.assertNotNull(task.sizeCounter);
+      Assert.assertTrue(task.rowCounter.striped());
+      Assert.assertTrue(task.sizeCounter.striped());
       Assert.assertEquals(task.rowCounter.group(), connectorName);
       Assert.assertEquals(task.sizeCounter.group(), connectorName);
       Assert.assertEquals(task.rowCounter.getValue(), 0);
@@ -96,6 +105,8 @@ public class TestConnectorProps extends OharaTest {
     try {
       Assert.assertNotNull(task.rowCounter);
       Assert.assertNotNull(task.sizeCounter);
+      Assert.assertTrue(task.rowCounter.striped());
+      Assert.assertTrue(task.sizeCounter.striped());
       Assert.assertEquals(task.rowCounter.group(), connectorName);
       Assert.assertEquals(task.sizeCounter.group(), connectorName);
       Assert.assertEquals(task.rowCounter.getValue(), 0);
@@ -110,6 +121,65 @@ public class TestConnectorProps extends OharaTest {
     }
   }
 
+  @Test
+  public void testHistogramInSink() {
+    RowSinkTask task = new DumbSinkTask();
+    String connectorName = CommonUtils.randomString();
+    task.start(Collections.singletonMap("name", connectorName));
+    try {
+      Assert.assertEquals(task.putTimeHistogram.group(), connectorName);
+      Assert.assertEquals(task.putRowsHistogram.group(), connectorName);
+      Assert.assertEquals(task.preCommitTimeHistogram.group(), connectorName);
+      Row row = Row.of(Cell.of(CommonUtils.randomString(), CommonUtils.randomString()));
+      task.put(Collections.singletonList(new SinkRecord("topic", 0, null, row, null, null, 10)));
+      task.put(Collections.emptyList());
+      Assert.assertEquals(2, task.putTimeHistogram.getCount());
+      Assert.assertEquals(2, task.putRowsHistogram.getCount());
+      Assert.assertEquals(0, task.putRowsHistogram.getMin());
+      Assert.assertEquals(1, task.putRowsHistogram.getMax());
+      task.preCommit(Collections.emptyMap());
+      Assert.assertEquals(1, task.preCommitTimeHistogram.getCount());
+      Assert.assertTrue(
+          BeanChannel.local().histogramMBeans().stream()
+              .anyMatch(h -> h.group().equals(connectorName) && h.name().equals("put.rows")));
+    } finally {
+      task.stop();
+      Assert.assertTrue(task.putTimeHistogram.isClosed());
+      Assert.assertTrue(task.putRowsHistogram.isClosed());
+      Assert.assertTrue(task.preCommitTimeHistogram.isClosed());
+    }
+  }
+
+  @Test
+  public void testHistogramInSource() {
+    Row row = Row.of(Cell.of(CommonUtils.randomString(), CommonUtils.randomString()));
+    RowSourceTask task =
+        new DumbSourceTask() {
+          @Override
+          protected List<RowSourceRecord> _poll() {
+            return Collections.singletonList(
+                RowSourceRecord.builder().row(row).topicName(CommonUtils.randomString()).build());
+          }
+        };
+    String connectorName = CommonUtils.randomString();
+    task.start(Collections.singletonMap("name", connectorName));
+    try {
+      Assert.assertEquals(task.pollTimeHistogram.group(), connectorName);
+      Assert.assertEquals(task.pollRowsHistogram.group(), connectorName);
+      Assert.assertEquals(task.conversionTimeHistogram.group(), connectorName);
+      task.poll();
+      Assert.assertEquals(1, task.pollTimeHistogram.getCount());
+      Assert.assertEquals(1, task.pollRowsHistogram.getCount());
+      Assert.assertEquals(1, task.pollRowsHistogram.getP50());
+      Assert.assertEquals(1, task.conversionTimeHistogram.getCount());
+    } finally {
+      task.stop();
+      Assert.assertTrue(task.pollTimeHistogram.isClosed());
+      Assert.assertTrue(task.pollRowsHistogram.isClosed());
+      Assert.assertTrue(task.conversionTimeHistogram.isClosed());
+    }
+  }
+
   @Test
   public void testStop() {
     RowSourceTask task = new DumbSourceTask();
@@ -172,4 +242,24 @@ public class TestConnectorProps extends OharaTest {
   public void failToCallCounterBuilderBeforeStartingSinkTask() {
     new DumbSinkTask().counterBuilder();
   }
+
+  @Test
+  public void testValidatePartitionerPartitions() {
+    String key = ConnectorDefUtils.PARTITIONER_PARTITIONS_DEFINITION.key();
+    Map<String, String> settings = new HashMap<>();
+    settings.put(
+        ConnectorDefUtils.PARTITIONER_COLUMNS_DEFINITION.key(),
+        StringList.toKafkaString(Collections.singletonList("a")));
+    Assert.assertFalse(errorMessages(new DumbSource().validate(settings), key).isEmpty());
+
+    settings.put(key, "3");
+    Assert.assertTrue(errorMessages(new DumbSource().validate(settings), key).isEmpty());
+  }
+
+  private static List<String> errorMessages(Config config, String key) {
+    return config.configValues().stream()
+        .filter(v -> v.name().equals(key))
+        .flatMap(v -> v.errorMessages().stream())
+        .collect(Collectors.toList());
+  }
 }
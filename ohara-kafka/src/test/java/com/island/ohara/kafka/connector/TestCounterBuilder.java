@@ -76,5 +76,14 @@ public class TestCounterBuilder extends OharaTest {
     Assert.assertEquals(name, counter.name());
     Assert.assertEquals(unit, counter.getUnit());
     Assert.assertEquals(document, counter.getDocument());
+    // the atomic counter is the default
+    Assert.assertFalse(counter.striped());
+    Assert.assertTrue(
+        CounterBuilder.of()
+            .group(group)
+            .name(CommonUtils.randomString())
+            .striped(true)
+            .build()
+            .striped());
   }
 }
@@ -20,9 +20,12 @@ import static org.junit.Assert.assertEquals;
 
 import com.island.ohara.common.data.Cell;
 import com.island.ohara.common.data.Row;
+import com.island.ohara.common.data.Serializer;
 import com.island.ohara.common.rule.OharaTest;
 import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.kafka.TimestampType;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class TestRowSinkRecord extends OharaTest {
@@ -133,4 +136,65 @@ public class TestRowSinkRecord extends OharaTest {
     assertEquals(tsType, r.timestampType());
     assertEquals(offset, r.offset());
   }
+
+  @Test(expected = NullPointerException.class)
+  public void nullRowBytes() {
+    RowSinkRecord.builder().rowBytes(null);
+  }
+
+  @Test
+  public void testRowBytes() {
+    Row row = Row.of(Cell.of(CommonUtils.randomString(10), 123));
+    byte[] bytes = Serializer.ROW.to(row);
+    RowSinkRecord r =
+        RowSinkRecord.builder()
+            .topicName(CommonUtils.randomString(10))
+            .rowBytes(bytes)
+            .timestamp(CommonUtils.current())
+            .partition(1)
+            .timestampType(TimestampType.NO_TIMESTAMP_TYPE)
+            .offset(10)
+            .build();
+    // the bytes are passed through without decoding
+    Assert.assertSame(bytes, r.rowBytes());
+    assertEquals(row, r.row());
+    Assert.assertSame(r.row(), r.row());
+  }
+
+  @Test
+  public void testLazyDecodeFromSinkRecord() {
+    Row row = Row.of(Cell.of(CommonUtils.randomString(10), 123));
+    byte[] bytes = Serializer.ROW.to(row);
+    RowSinkRecord r =
+        RowSinkRecord.of(
+            new SinkRecord(
+                CommonUtils.randomString(10),
+                1,
+                null,
+                bytes,
+                null,
+                null,
+                10,
+                100L,
+                org.apache.kafka.common.record.TimestampType.CREATE_TIME));
+    Assert.assertSame(bytes, r.rowBytes());
+    assertEquals(row, r.row());
+    assertEquals(10, r.offset());
+    assertEquals(100, r.timestamp());
+  }
+
+  @Test
+  public void testRowBytesFromRow() {
+    Row row = Row.of(Cell.of(CommonUtils.randomString(10), 123));
+    RowSinkRecord r =
+        RowSinkRecord.builder()
+            .topicName(CommonUtils.randomString(10))
+            .row(row)
+            .timestamp(CommonUtils.current())
+            .partition(1)
+            .timestampType(TimestampType.NO_TIMESTAMP_TYPE)
+            .offset(10)
+            .build();
+    Assert.assertArrayEquals(Serializer.ROW.to(row), r.rowBytes());
+  }
 }
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector;
+
+import com.google.common.collect.ImmutableMap;
+import com.island.ohara.common.data.Cell;
+import com.island.ohara.common.data.Row;
+import com.island.ohara.common.rule.OharaTest;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.connector.json.ConnectorDefUtils;
+import com.island.ohara.kafka.connector.json.StringList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestRowSourceTask extends OharaTest {
+
+  private static class CommittableSourceTask extends DumbSourceTask {
+    private final List<RowSourceRecord> emitted = new ArrayList<>();
+    private final List<RowSourceRecord> committed = new ArrayList<>();
+
+    @Override
+    protected List<RowSourceRecord> _poll() {
+      RowSourceRecord record =
+          RowSourceRecord.of(
+              CommonUtils.randomString(), Row.of(Cell.of(CommonUtils.randomString(), 100)));
+      emitted.add(record);
+      return Collections.singletonList(record);
+    }
+
+    @Override
+    protected void _commitRecord(RowSourceRecord record) {
+      committed.add(record);
+    }
+  }
+
+  @Test
+  public void testCommitEmittedRecord() {
+    CommittableSourceTask task = new CommittableSourceTask();
+    List<SourceRecord> records = task.poll();
+    Assert.assertEquals(1, records.size());
+    Assert.assertEquals(1, task.uncommittedRecords.size());
+    task.commitRecord(records.get(0));
+    Assert.assertEquals(1, task.committed.size());
+    // the emitted object is passed back without conversion
+    Assert.assertSame(task.emitted.get(0), task.committed.get(0));
+    Assert.assertEquals(0, task.uncommittedRecords.size());
+  }
+
+  @Test
+  public void testCommitUnknownRecord() {
+    CommittableSourceTask task = new CommittableSourceTask();
+    Row row = Row.of(Cell.of(CommonUtils.randomString(), 100));
+    task.commitRecord(RowSourceRecord.of(CommonUtils.randomString(), row).toSourceRecord());
+    Assert.assertEquals(1, task.committed.size());
+    Assert.assertEquals(row, task.committed.get(0).row());
+  }
+
+  @Test
+  public void testNoTrackingIfCommitRecordIsNotOverridden() {
+    DumbSourceTask task =
+        new DumbSourceTask() {
+          @Override
+          protected List<RowSourceRecord> _poll() {
+            return Collections.singletonList(
+                RowSourceRecord.of(
+                    CommonUtils.randomString(), Row.of(Cell.of(CommonUtils.randomString(), 100))));
+          }
+        };
+    List<SourceRecord> records = task.poll();
+    Assert.assertEquals(1, records.size());
+    Assert.assertEquals(0, task.uncommittedRecords.size());
+    task.commitRecord(records.get(0));
+  }
+
+  private static class BatchSourceTask extends DumbSourceTask {
+    private int emitted = 0;
+
+    @Override
+    protected List<RowSourceRecord> _poll() {
+      throw new AssertionError("the batch API is overridden so _poll() should not be called");
+    }
+
+    @Override
+    protected void _poll(RowSourceCollector collector) {
+      while (collector.emit(
+          RowSourceRecord.of(
+              CommonUtils.randomString(), Row.of(Cell.of(CommonUtils.randomString(), 100)))))
+        emitted++;
+      emitted++;
+    }
+
+    @Override
+    protected int _batchSize() {
+      return 10;
+    }
+  }
+
+  @Test
+  public void testBatchPoll() {
+    BatchSourceTask task = new BatchSourceTask();
+    List<SourceRecord> records = task.poll();
+    Assert.assertEquals(10, records.size());
+    Assert.assertEquals(10, task.emitted);
+    // the collector is reset after each poll
+    Assert.assertEquals(10, task.poll().size());
+    Assert.assertNotSame(records, task.poll());
+  }
+
+  @Test
+  public void testByteBudget() {
+    RowSourceCollector collector = new RowSourceCollector(100, 1, null);
+    Assert.assertFalse(
+        collector.emit(
+            RowSourceRecord.of(
+                CommonUtils.randomString(), Row.of(Cell.of(CommonUtils.randomString(), 100)))));
+    Assert.assertTrue(collector.isFull());
+    Assert.assertEquals(1, collector.size());
+    Assert.assertTrue(collector.bytes() > 0);
+    Assert.assertEquals(1, collector.drain().size());
+    Assert.assertEquals(0, collector.size());
+    Assert.assertEquals(0, collector.bytes());
+  }
+
+  public static class FixedPartitioner implements RowPartitioner {
+    @Override
+    public Optional<Integer> partition(String topicName, Row row) {
+      return Optional.of(3);
+    }
+  }
+
+  @Test
+  public void testNoPartitionerByDefault() {
+    Assert.assertNull(RowSourceTask.partitioner(TaskSetting.of(Collections.emptyMap())));
+  }
+
+  private static RowPartitioner columnPartitioner(String topicName, String... columns) {
+    return RowSourceTask.partitioner(
+        TaskSetting.of(
+            ImmutableMap.of(
+                ConnectorDefUtils.TOPIC_NAMES_DEFINITION.key(),
+                StringList.toKafkaString(Collections.singletonList(topicName)),
+                ConnectorDefUtils.PARTITIONER_COLUMNS_DEFINITION.key(),
+                StringList.toKafkaString(Arrays.asList(columns)),
+                ConnectorDefUtils.PARTITIONER_PARTITIONS_DEFINITION.key(),
+                "10")));
+  }
+
+  @Test
+  public void testPartitionerFromColumns() {
+    String topicName = CommonUtils.randomString();
+    RowPartitioner partitioner = columnPartitioner(topicName, "a", "b");
+    Assert.assertTrue(partitioner instanceof ColumnPartitioner);
+    Row row = Row.of(Cell.of("a", 1), Cell.of("b", "x"), Cell.of("c", CommonUtils.randomString()));
+    int partition = partitioner.partition(topicName, row).get();
+    Assert.assertTrue(partition >= 0 && partition < 10);
+    // the other columns and the order of cells don't impact the partition
+    Assert.assertEquals(
+        partition,
+        (int)
+            partitioner
+                .partition(topicName, Row.of(Cell.of("c", 100), Cell.of("b", "x"), Cell.of("a", 1)))
+                .get());
+    Assert.assertEquals(partition, (int) partitioner.partition(topicName, row).get());
+  }
+
+  @Test
+  public void testColumnPartitionerSkipsOtherTopics() {
+    String topicName = CommonUtils.randomString();
+    RowPartitioner partitioner = columnPartitioner(topicName, "a");
+    Row row = Row.of(Cell.of("a", 1));
+    Assert.assertTrue(partitioner.partition(topicName, row).isPresent());
+    Assert.assertFalse(partitioner.partition(CommonUtils.randomString(), row).isPresent());
+  }
+
+  @Test
+  public void testColumnPartitionerSkipsRowWithoutColumn() {
+    String topicName = CommonUtils.randomString();
+    RowPartitioner partitioner = columnPartitioner(topicName, "a", "b");
+    Assert.assertFalse(partitioner.partition(topicName, Row.of(Cell.of("a", 1))).isPresent());
+    RowSourceCollector collector = new RowSourceCollector(100, 100, null, partitioner);
+    collector.emit(RowSourceRecord.of(topicName, Row.of(Cell.of("b", 1))));
+    collector.emit(RowSourceRecord.of(topicName, Row.of(Cell.of("a", 1), Cell.of("b", 1))));
+    List<SourceRecord> records = collector.drain();
+    // the row lacking the column is left to kafka
+    Assert.assertNull(records.get(0).kafkaPartition());
+    Assert.assertNotNull(records.get(1).kafkaPartition());
+  }
+
+  @Test
+  public void testColumnPartitionerRequiresPartitions() {
+    TaskSetting setting =
+        TaskSetting.of(
+            Collections.singletonMap(
+                ConnectorDefUtils.PARTITIONER_COLUMNS_DEFINITION.key(),
+                StringList.toKafkaString(Collections.singletonList("a"))));
+    Assert.assertTrue(ColumnPartitioner.missPartitions(setting));
+    assertException(IllegalArgumentException.class, () -> RowSourceTask.partitioner(setting));
+  }
+
+  @Test
+  public void testPartitionerFromClass() {
+    RowPartitioner partitioner =
+        RowSourceTask.partitioner(
+            TaskSetting.of(
+                Collections.singletonMap(
+                    ConnectorDefUtils.PARTITIONER_CLASS_DEFINITION.key(),
+                    FixedPartitioner.class.getName())));
+    Assert.assertTrue(partitioner instanceof FixedPartitioner);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPartitionerFromUnknownClass() {
+    RowSourceTask.partitioner(
+        TaskSetting.of(
+            Collections.singletonMap(
+                ConnectorDefUtils.PARTITIONER_CLASS_DEFINITION.key(), String.class.getName())));
+  }
+
+  @Test
+  public void testColumnPartitionerSpreadsRows() {
+    ColumnPartitioner partitioner = new ColumnPartitioner(Collections.singletonList("a"), 8);
+    Set<Integer> partitions =
+        IntStream.range(0, 100)
+            .mapToObj(i -> partitioner.partition(Row.of(Cell.of("a", i))).get())
+            .collect(Collectors.toSet());
+    // the sequential numbers should not be put in few partitions
+    Assert.assertEquals(8, partitions.size());
+    Assert.assertEquals(
+        partitioner.partition(Row.of(Cell.of("a", new byte[] {1, 2}))),
+        partitioner.partition(Row.of(Cell.of("a", new byte[] {1, 2}))));
+  }
+
+  @Test
+  public void testCollectorUsesPartitioner() {
+    RowSourceCollector collector = new RowSourceCollector(100, 100, null, new FixedPartitioner());
+    collector.emit(
+        RowSourceRecord.of(
+            CommonUtils.randomString(), Row.of(Cell.of("a", CommonUtils.current()))));
+    // the explicit partition is not changed by partitioner
+    collector.emit(
+        RowSourceRecord.builder()
+            .topicName(CommonUtils.randomString())
+            .row(Row.of(Cell.of("a", 1)))
+            .partition(1)
+            .build());
+    List<SourceRecord> records = collector.drain();
+    Assert.assertEquals(3, (int) records.get(0).kafkaPartition());
+    Assert.assertEquals(1, (int) records.get(1).kafkaPartition());
+  }
+
+  @Test
+  public void testEmptyPoll() {
+    Assert.assertNull(new DumbSourceTask().poll());
+  }
+}
@@ -183,4 +183,55 @@ public class TestTaskSetting extends OharaTest {
     Assert.assertEquals(duration, CommonUtils.toDuration(duration.toString()));
     Assert.assertEquals(duration, CommonUtils.toDuration("10 seconds"));
   }
+
+  @Test
+  public void testParsedValueIsCached() {
+    String listKey = CommonUtils.randomString();
+    String durationKey = CommonUtils.randomString();
+    String groupsKey = CommonUtils.randomString();
+    TaskSetting config =
+        TaskSetting.of(
+            ImmutableMap.of(
+                listKey,
+                StringList.toKafkaString(Arrays.asList("a", "b")),
+                durationKey,
+                "10 seconds",
+                groupsKey,
+                PropGroups.of(Collections.singletonList(Collections.singletonMap("k", "v")))
+                    .toJsonString()));
+    Assert.assertSame(config.stringList(listKey), config.stringList(listKey));
+    Assert.assertSame(config.stringList(listKey), config.stringListOption(listKey).get());
+    Assert.assertSame(config.duration(durationKey), config.durationOption(durationKey).get());
+    Assert.assertSame(config.propGroups(groupsKey), config.propGroups(groupsKey));
+    Assert.assertEquals(Arrays.asList("a", "b"), config.stringList(listKey));
+  }
+
+  @Test
+  public void testCachedListIsUnmodifiable() {
+    String key = CommonUtils.randomString();
+    TaskSetting config =
+        TaskSetting.of(
+            Collections.singletonMap(key, StringList.toKafkaString(Arrays.asList("a", "b"))));
+    assertException(UnsupportedOperationException.class, () -> config.stringList(key).set(0, "c"));
+  }
+
+  @Test
+  public void testSameValueInDifferentTypes() {
+    String key = CommonUtils.randomString();
+    TaskSetting config = TaskSetting.of(Collections.singletonMap(key, "100"));
+    Assert.assertEquals(100, config.intValue(key));
+    Assert.assertEquals(100L, config.longValue(key));
+    Assert.assertEquals(100, config.shortValue(key));
+    Assert.assertEquals(100D, config.doubleValue(key), 0);
+    Assert.assertEquals("100", config.stringValue(key));
+  }
+
+  @Test
+  public void testFailedParseIsNotCached() {
+    String key = CommonUtils.randomString();
+    TaskSetting config = TaskSetting.of(Collections.singletonMap(key, "abc"));
+    assertException(NumberFormatException.class, () -> config.intValue(key));
+    assertException(NumberFormatException.class, () -> config.intValue(key));
+    assertException(NumberFormatException.class, () -> config.intOption(key));
+  }
 }
@@ -101,7 +101,9 @@ public abstract class CsvSinkTestBase extends OharaTest {
 
   protected static class MockSinkContext implements RowSinkContext {
     private final Map<TopicPartition, Long> offsets = new HashMap<>();
+    private final Set<TopicPartition> paused = new HashSet<>();
     private Set<TopicPartition> assignment;
+    private int commitRequests = 0;
 
     public MockSinkContext(Set<TopicPartition> assignment) {
       this.assignment = assignment;
@@ -121,5 +123,28 @@ public abstract class CsvSinkTestBase extends OharaTest {
     public Set<TopicPartition> assignment() {
       return assignment;
     }
+
+    @Override
+    public void pause(Collection<TopicPartition> partitions) {
+      paused.addAll(partitions);
+    }
+
+    @Override
+    public void resume(Collection<TopicPartition> partitions) {
+      paused.removeAll(partitions);
+    }
+
+    @Override
+    public void requestCommit() {
+      commitRequests++;
+    }
+
+    public Set<TopicPartition> paused() {
+      return paused;
+    }
+
+    public int commitRequests() {
+      return commitRequests;
+    }
   }
 }
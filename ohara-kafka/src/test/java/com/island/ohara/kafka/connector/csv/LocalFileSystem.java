@@ -22,11 +22,16 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class LocalFileSystem implements FileSystem {
   public static LocalFileSystem of() {
@@ -44,7 +49,19 @@ public class LocalFileSystem implements FileSystem {
       if (!exists(dir)) {
         throw new IllegalArgumentException(String.format("The path %s doesn't exist", dir));
       }
-      return Files.list(Paths.get(dir)).map(f -> f.getFileName().toString()).iterator();
+      // the stream holds a directory handle so the names are collected before closing it
+      try (Stream<Path> files = Files.list(Paths.get(dir))) {
+        return files.map(f -> f.getFileName().toString()).collect(Collectors.toList()).iterator();
+      }
+    } catch (IOException e) {
+      throw new OharaFileSystemException(e);
+    }
+  }
+
+  @Override
+  public Optional<Long> lastModified(String path) {
+    try {
+      return Optional.of(Files.getLastModifiedTime(Paths.get(path)).toMillis());
     } catch (IOException e) {
       throw new OharaFileSystemException(e);
     }
@@ -83,6 +100,24 @@ public class LocalFileSystem implements FileSystem {
     }
   }
 
+  @Override
+  public InputStream open(String path, long position) {
+    try {
+      if (!exists(path)) {
+        throw new IllegalArgumentException(String.format("The path %s doesn't exist", path));
+      }
+      if (position > Files.size(Paths.get(path))) {
+        throw new IllegalArgumentException(
+            String.format("The position %d is out of %s", position, path));
+      }
+      SeekableByteChannel channel = Files.newByteChannel(Paths.get(path));
+      channel.position(position);
+      return Channels.newInputStream(channel);
+    } catch (IOException e) {
+      throw new OharaFileSystemException(e);
+    }
+  }
+
   public boolean copy(boolean delSrc, boolean overwrite, String sourcePath, String targetPath) {
     try {
       Path copied = Paths.get(targetPath);
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv;
+
+import com.island.ohara.common.rule.OharaTest;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.connector.RowSourceRecord;
+import com.island.ohara.kafka.connector.TaskSetting;
+import com.island.ohara.kafka.connector.csv.source.FakeSourceContext;
+import com.island.ohara.kafka.connector.storage.FileSystem;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCsvSourceTask extends OharaTest {
+  private static final int NUMBER_OF_FILES = 5;
+  private static final int NUMBER_OF_LINES = 10;
+
+  private static class LocalCsvSourceTask extends CsvSourceTask {
+    private int fileSystems = 0;
+
+    @Override
+    public FileSystem _fileSystem(TaskSetting config) {
+      rowContext = FakeSourceContext.of();
+      ++fileSystems;
+      return LocalFileSystem.of();
+    }
+  }
+
+  private Path root;
+  private Path input;
+  private Path completed;
+  private FileSystem fs;
+
+  @Before
+  public void setup() throws IOException {
+    root = Files.createTempDirectory("csv-source");
+    input = Files.createDirectory(root.resolve("input"));
+    completed = Files.createDirectory(root.resolve("completed"));
+    Files.createDirectory(root.resolve("error"));
+    fs = LocalFileSystem.of();
+    for (int i = 0; i != NUMBER_OF_FILES; ++i) {
+      try (BufferedWriter writer =
+          new BufferedWriter(
+              new OutputStreamWriter(fs.create(input.resolve("file" + i).toString())))) {
+        writer.write("file,line");
+        writer.newLine();
+        for (int line = 0; line != NUMBER_OF_LINES; ++line) {
+          writer.write(i + "," + line);
+          writer.newLine();
+        }
+      }
+    }
+  }
+
+  private Map<String, String> props(int readerThreads) {
+    Map<String, String> props = new HashMap<>();
+    props.put(CsvConnectorDefinitions.TASK_TOTAL_KEY, "1");
+    props.put(CsvConnectorDefinitions.TASK_HASH_KEY, "0");
+    props.put("topics", CommonUtils.randomString());
+    props.put(CsvConnectorDefinitions.INPUT_FOLDER_KEY, input.toString());
+    props.put(CsvConnectorDefinitions.COMPLETED_FOLDER_KEY, completed.toString());
+    props.put(CsvConnectorDefinitions.ERROR_FOLDER_KEY, root.resolve("error").toString());
+    props.put(CsvConnectorDefinitions.MAX_LINES_PER_POLL_KEY, "4");
+    props.put(CsvConnectorDefinitions.READER_THREADS_KEY, String.valueOf(readerThreads));
+    return props;
+  }
+
+  private static long count(Path folder) throws IOException {
+    try (Stream<Path> files = Files.list(folder)) {
+      return files.count();
+    }
+  }
+
+  private void testReadAllFiles(int readerThreads) throws IOException {
+    LocalCsvSourceTask task = new LocalCsvSourceTask();
+    task._start(TaskSetting.of(props(readerThreads)));
+    // the concurrent readers don't share the file system with each other and the listing
+    Assert.assertEquals(readerThreads > 1 ? readerThreads + 1 : 1, task.fileSystems);
+    try {
+      List<RowSourceRecord> records = new ArrayList<>();
+      int polls = 0;
+      while (count(input) > 0) {
+        records.addAll(task._poll());
+        Assert.assertTrue(++polls < 100);
+      }
+      Assert.assertEquals(NUMBER_OF_FILES * NUMBER_OF_LINES, records.size());
+      // no duplicate records
+      Assert.assertEquals(
+          records.size(),
+          records.stream()
+              .map(r -> r.row().cell("file").value() + "-" + r.row().cell("line").value())
+              .distinct()
+              .count());
+      Assert.assertEquals(NUMBER_OF_FILES, count(completed));
+      // the concurrent readers need fewer polls
+      if (readerThreads >= NUMBER_OF_FILES) Assert.assertEquals(3, polls);
+    } finally {
+      task._stop();
+    }
+  }
+
+  @Test
+  public void testReadAllFilesByTaskThread() throws IOException {
+    testReadAllFiles(0);
+  }
+
+  @Test
+  public void testReadAllFilesConcurrently() throws IOException {
+    testReadAllFiles(NUMBER_OF_FILES);
+  }
+
+  @Test
+  public void testReadAllFilesByFewThreads() throws IOException {
+    testReadAllFiles(2);
+  }
+
+  @Test
+  public void testIdlePollWaitsForNextListing() throws IOException {
+    Map<String, String> props = props(0);
+    props.put(CsvConnectorDefinitions.LISTING_INTERVAL_KEY, "3 seconds");
+    LocalCsvSourceTask task = new LocalCsvSourceTask();
+    task._start(TaskSetting.of(props));
+    try {
+      while (count(input) > 0) task._poll();
+      long start = CommonUtils.current();
+      Assert.assertTrue(task._poll().isEmpty());
+      // the idle poll is blocked rather than returning immediately
+      Assert.assertTrue(CommonUtils.current() - start >= 1000);
+    } finally {
+      task._stop();
+    }
+  }
+
+  @Test
+  public void testEachFileIsClaimedByOneTask() {
+    int total = 3;
+    List<String> fileNames =
+        IntStream.range(0, 1000)
+            .mapToObj(i -> CommonUtils.randomString())
+            .collect(Collectors.toList());
+    // make sure the negative hash code is covered
+    Assert.assertTrue(fileNames.stream().anyMatch(name -> name.hashCode() < 0));
+    fileNames.forEach(
+        name ->
+            Assert.assertEquals(
+                1,
+                IntStream.range(0, total)
+                    .filter(hash -> CsvSourceTask.isClaimed(name, total, hash))
+                    .count()));
+  }
+
+  @After
+  public void tearDown() {
+    fs.delete(root.toString(), true);
+    fs.close();
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv.sink;
+
+import com.island.ohara.kafka.connector.RowSinkRecord;
+import com.island.ohara.kafka.connector.TopicPartition;
+import com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions;
+import com.island.ohara.kafka.connector.csv.WithMockStorage;
+import java.io.File;
+import java.util.*;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestAsyncCsvDataWriter extends WithMockStorage {
+  private final Map<String, String> localProps = new HashMap<>();
+  private final File topicsDir = createTemporaryFolder();
+
+  private AsyncCsvDataWriter dataWriter;
+
+  @Override
+  protected Map<String, String> createProps() {
+    Map<String, String> props = super.createProps();
+    props.put(CsvConnectorDefinitions.TOPICS_DIR_KEY, topicsDir.getPath());
+    props.put(CsvConnectorDefinitions.FILE_NEED_HEADER_KEY, "false");
+    props.put(CsvConnectorDefinitions.WRITER_THREADS_KEY, "2");
+    props.putAll(localProps);
+    return props;
+  }
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    dataWriter = new AsyncCsvDataWriter(config, context, fs);
+  }
+
+  @After
+  public void tearDown() {
+    if (dataWriter != null) dataWriter.close();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroWriterThreads() {
+    localProps.put(CsvConnectorDefinitions.WRITER_THREADS_KEY, "0");
+    setUp();
+  }
+
+  @Test
+  public void testWriteRecord() {
+    localProps.put(CsvConnectorDefinitions.FLUSH_SIZE_KEY, "3");
+    setUp();
+
+    dataWriter.write(createRecords(7));
+    dataWriter.flush();
+
+    Map<TopicPartition, Long> offsets = dataWriter.getCommittedOffsetsAndReset();
+    Assert.assertEquals(6, offsets.get(TOPIC_PARTITION).intValue());
+    Assert.assertEquals(
+        1, dataWriter.getTopicPartitionWriters().get(TOPIC_PARTITION).getRecordCount());
+    // the offsets are reset
+    Assert.assertTrue(dataWriter.getCommittedOffsetsAndReset().isEmpty());
+    Assert.assertEquals(3, readData(committedFile(0)).size());
+    Assert.assertEquals(3, readData(committedFile(3)).size());
+  }
+
+  @Test
+  public void testSmallQueue() {
+    localProps.put(CsvConnectorDefinitions.FLUSH_SIZE_KEY, "3");
+    localProps.put(CsvConnectorDefinitions.WRITER_QUEUE_SIZE_KEY, "1");
+    setUp();
+
+    List<RowSinkRecord> records = createRecords(9);
+    // the batch is bigger than the queue but it should not be blocked forever
+    dataWriter.write(records.subList(0, 5));
+    for (RowSinkRecord record : records.subList(5, records.size())) {
+      dataWriter.write(Collections.singletonList(record));
+    }
+    dataWriter.flush();
+
+    Assert.assertEquals(
+        9, dataWriter.getCommittedOffsetsAndReset().get(TOPIC_PARTITION).intValue());
+  }
+
+  @Test
+  public void testFlowControlIsAppliedByTaskThread() {
+    localProps.put(CsvConnectorDefinitions.FLUSH_SIZE_KEY, "3");
+    localProps.put(CsvConnectorDefinitions.BUFFER_MAX_BYTES_KEY, "1");
+    setUp();
+    MockSinkContext mockContext = (MockSinkContext) context;
+
+    // the queued bytes exceed the budget so the partition is paused by task thread
+    dataWriter.write(createRecords(3));
+    Assert.assertTrue(mockContext.paused().contains(TOPIC_PARTITION));
+    dataWriter.flush();
+    Assert.assertEquals(0, mockContext.commitRequests());
+
+    dataWriter.getCommittedOffsetsAndReset();
+    // the budget does not rotate the files so they are committed by flush.size
+    Assert.assertEquals(1, mockContext.commitRequests());
+
+    // the queue is drained and the files are committed so the partition is resumed by next write
+    dataWriter.write(Collections.emptyList());
+    Assert.assertTrue(mockContext.paused().isEmpty());
+  }
+
+  @Test
+  public void testWriteToUnassignedPartition() {
+    setUp();
+    assertException(
+        IllegalArgumentException.class,
+        () -> dataWriter.write(createRecords(1, 0, Collections.singleton(TOPIC_PARTITION3))));
+  }
+
+  @Test
+  public void testAssignment() {
+    setUp();
+    Assert.assertEquals(2, dataWriter.getTopicPartitionWriters().size());
+
+    dataWriter.attach(Collections.singleton(TOPIC_PARTITION3));
+    Assert.assertEquals(3, dataWriter.getTopicPartitionWriters().size());
+
+    dataWriter.write(Collections.emptyList());
+
+    dataWriter.detach(Collections.singleton(TOPIC_PARTITION3));
+    Assert.assertEquals(2, dataWriter.getTopicPartitionWriters().size());
+
+    dataWriter.close();
+    Assert.assertEquals(0, dataWriter.getTopicPartitionWriters().size());
+  }
+
+  private String committedFile(long startOffset) {
+    return FileUtils.committedFileName(
+        config.topicsDir(),
+        FileUtils.generatePartitionedPath(TOPIC, "partition" + PARTITION),
+        TOPIC_PARTITION,
+        startOffset,
+        ".csv");
+  }
+}
@@ -111,6 +111,40 @@ public class TestCsvDataWriter extends WithMockStorage {
     dataWriter.close();
   }
 
+  @Test
+  public void testPauseOnBufferMaxBytes() throws Exception {
+    List<RowSinkRecord> sinkRecords = createRecords(3, 0);
+    localProps.put(CsvConnectorDefinitions.FLUSH_SIZE_KEY, "99999");
+    localProps.put(CsvConnectorDefinitions.ROTATE_INTERVAL_MS_KEY, "1000");
+    localProps.put(
+        CsvConnectorDefinitions.BUFFER_MAX_BYTES_KEY,
+        String.valueOf(sinkRecords.get(0).rowBytes().length));
+    setUp();
+    MockSinkContext mockContext = (MockSinkContext) context;
+
+    // the uncommitted bytes exceed the budget so the partition is paused
+    dataWriter.write(sinkRecords);
+    Assert.assertTrue(dataWriter.getBudget().isPaused(TOPIC_PARTITION));
+    Assert.assertTrue(mockContext.paused().contains(TOPIC_PARTITION));
+    verifyOffset(dataWriter.getCommittedOffsetsAndReset(), -1);
+
+    // the paused partition gets no records so the files are committed by time
+    Thread.sleep(2000);
+    dataWriter.write(Collections.emptyList());
+    verifyOffset(dataWriter.getCommittedOffsetsAndReset(), 3);
+    Assert.assertFalse(dataWriter.getBudget().isPaused(TOPIC_PARTITION));
+    Assert.assertTrue(mockContext.paused().isEmpty());
+
+    dataWriter.close();
+  }
+
+  @Test
+  public void testBufferMaxBytesRequiresRotateInterval() {
+    localProps.put(CsvConnectorDefinitions.ROTATE_INTERVAL_MS_KEY, "0");
+    localProps.put(CsvConnectorDefinitions.BUFFER_MAX_BYTES_KEY, "100");
+    assertException(IllegalArgumentException.class, this::setUp);
+  }
+
   @Test
   public void testAssignment() {
     setUp();
@@ -134,6 +134,55 @@ public class TestTopicPartitionWriter extends WithMockStorage {
     verifyFilenames("test-topic-12-000000000.csv", "test-topic-12-000000003.csv");
   }
 
+  @Test
+  public void testCommitOnRotateMaxBytes() {
+    List<RowSinkRecord> records = createRecords(7);
+    long size = records.get(0).rowBytes().length;
+    localProps.put(CsvConnectorDefinitions.FLUSH_SIZE_KEY, "99999");
+    localProps.put(
+        CsvConnectorDefinitions.ROTATE_MAX_BYTES_KEY,
+        String.valueOf(records.subList(0, 3).stream().mapToLong(r -> r.rowBytes().length).sum()));
+
+    setUp();
+    MockSinkContext mockContext = (MockSinkContext) context;
+
+    // the uncommitted bytes are kept across writes
+    writer.buffer(records.get(0));
+    writer.buffer(records.get(1));
+    writer.write();
+    Assert.assertNull(writer.getCommittedOffset());
+    Assert.assertEquals(size + records.get(1).rowBytes().length, writer.getUncommittedBytes());
+
+    writer.buffer(records.get(2));
+    writer.buffer(records.get(3));
+    writer.write();
+    Assert.assertEquals(3, writer.getCommittedOffset().intValue());
+    Assert.assertEquals(1, writer.getRecordCount());
+    Assert.assertEquals(records.get(3).rowBytes().length, writer.getUncommittedBytes());
+    Assert.assertEquals(1, mockContext.commitRequests());
+    // the writer does not pause the partition by itself
+    Assert.assertTrue(mockContext.paused().isEmpty());
+  }
+
+  @Test
+  public void testUnlimitedRotateBytes() {
+    localProps.put(CsvConnectorDefinitions.FLUSH_SIZE_KEY, "10");
+
+    setUp();
+
+    List<RowSinkRecord> records = createRecords(7);
+    for (RowSinkRecord record : records) {
+      writer.buffer(record);
+    }
+
+    writer.write();
+
+    Assert.assertNull(writer.getCommittedOffset());
+    Assert.assertEquals(7, writer.getRecordCount());
+    Assert.assertEquals(
+        records.stream().mapToLong(r -> r.rowBytes().length).sum(), writer.getUncommittedBytes());
+  }
+
   protected void verifyFilenames(String... filenames) {
     String encodedPartition = "partition" + TOPIC_PARTITION.partition();
     String dir = topicsDir + "/" + TOPIC_PARTITION.topicName() + "/" + encodedPartition;
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv.source;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.island.ohara.common.rule.OharaTest;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.connector.csv.LocalFileSystem;
+import com.island.ohara.kafka.connector.storage.FileSystem;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.xerial.snappy.SnappyFramedOutputStream;
+
+public class TestCompressionCodec extends OharaTest {
+  private final FileSystem fs = LocalFileSystem.of();
+  private final String data = CommonUtils.randomString(100);
+
+  private static OutputStream compress(CompressionCodec codec, OutputStream output)
+      throws IOException {
+    switch (codec) {
+      case GZIP:
+        return new GZIPOutputStream(output);
+      case ZSTD:
+        return new ZstdOutputStream(output);
+      case SNAPPY:
+        return new SnappyFramedOutputStream(output);
+      default:
+        return output;
+    }
+  }
+
+  private String write(CompressionCodec codec) throws IOException {
+    File file = CommonUtils.createTempFile(CommonUtils.randomString(5), ".csv");
+    try (OutputStream output = compress(codec, Files.newOutputStream(file.toPath()))) {
+      output.write(data.getBytes(StandardCharsets.UTF_8));
+    }
+    return file.getAbsolutePath();
+  }
+
+  private static String read(InputStream input) throws IOException {
+    try (InputStream in = input) {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      byte[] buffer = new byte[16];
+      int count;
+      while ((count = in.read(buffer)) >= 0) output.write(buffer, 0, count);
+      return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testOf() {
+    for (CompressionCodec codec : CompressionCodec.values())
+      Assert.assertEquals(codec, CompressionCodec.of(codec.alias().toUpperCase()));
+    assertException(IllegalArgumentException.class, () -> CompressionCodec.of("lzo"));
+    assertException(
+        IllegalArgumentException.class, () -> CompressionCodec.of(CompressionCodec.AUTO));
+  }
+
+  @Test
+  public void testDetect() {
+    Assert.assertEquals(CompressionCodec.GZIP, CompressionCodec.detect("/a/b.csv.gz"));
+    Assert.assertEquals(CompressionCodec.ZSTD, CompressionCodec.detect("/a/b.csv.zst"));
+    Assert.assertEquals(CompressionCodec.ZSTD, CompressionCodec.detect("/a/b.csv.ZSTD"));
+    Assert.assertEquals(CompressionCodec.SNAPPY, CompressionCodec.detect("/a/b.csv.sz"));
+    Assert.assertEquals(CompressionCodec.NONE, CompressionCodec.detect("/a/b.csv"));
+  }
+
+  @Test
+  public void testOpen() throws IOException {
+    for (CompressionCodec codec : CompressionCodec.values()) {
+      String path = write(codec);
+      Assert.assertEquals(data, read(codec.open(fs, path, 0)));
+      // the position is the position of decompressed data
+      Assert.assertEquals(data.substring(30), read(codec.open(fs, path, 30)));
+      Assert.assertEquals("", read(codec.open(fs, path, data.length())));
+      assertException(
+          IllegalArgumentException.class, () -> codec.open(fs, path, data.length() + 1));
+    }
+  }
+}
@@ -18,10 +18,22 @@ package com.island.ohara.kafka.connector.csv.source;
 
 import com.island.ohara.common.data.Column;
 import com.island.ohara.common.data.DataType;
+import com.island.ohara.common.setting.TopicKey;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.kafka.connector.RowSourceContext;
 import com.island.ohara.kafka.connector.RowSourceRecord;
+import com.island.ohara.kafka.connector.csv.CsvConnectorDefinitions;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -40,6 +52,17 @@ public class TestCsvDataReader extends WithFakeStorage {
     return CsvDataReader.of(storage, config, rowContext);
   }
 
+  @Test
+  public void testDeadLetterTopicKey() {
+    setup();
+    TopicKey key = TopicKey.of(CommonUtils.randomString(5), CommonUtils.randomString(5));
+    Map<String, String> props = new HashMap<>(this.props);
+    props.put(CsvConnectorDefinitions.ROW_ERROR_POLICY_KEY, "dead_letter");
+    props.put(CsvConnectorDefinitions.DEAD_LETTER_TOPIC_KEY, TopicKey.toJsonString(key));
+    Assert.assertEquals(
+        key.topicNameOnKafka(), CsvSourceConfig.of(props, SCHEMA).deadLetterTopic().get());
+  }
+
   @Test
   public void testNormal() {
     setup();
@@ -70,6 +93,128 @@ public class TestCsvDataReader extends WithFakeStorage {
     verifyFileSize(0, 0, 1);
   }
 
+  @Test
+  public void testReadByBatches() {
+    setup();
+    verifyFileSize(1, 0, 0);
+
+    DataReader dataReader = createDataReader();
+    List<RowSourceRecord> records = new ArrayList<>(dataReader.read(INPUT_FILE.toString(), 10));
+    Assert.assertEquals(10, records.size());
+    // the file is not completed so it is kept in the input folder
+    Assert.assertEquals(INPUT_FILE.toString(), dataReader.openedPath().get());
+    verifyFileSize(1, 0, 0);
+
+    while (dataReader.openedPath().isPresent()) {
+      List<RowSourceRecord> batch = dataReader.read(dataReader.openedPath().get(), 10);
+      Assert.assertTrue(batch.size() <= 10);
+      records.addAll(batch);
+    }
+
+    verifyRecords(records);
+    verifyFileSize(0, 1, 0);
+  }
+
+  @Test
+  public void testResumeFromOtherFile() {
+    setup();
+    DataReader dataReader = createDataReader();
+    List<RowSourceRecord> records = new ArrayList<>(dataReader.read(INPUT_FILE.toString(), 10));
+    // switch to another file releases the opened file
+    Assert.assertEquals(0, dataReader.read(CommonUtils.randomString(), 10).size());
+    Assert.assertFalse(dataReader.openedPath().isPresent());
+    // the processed lines are skipped
+    records.addAll(dataReader.read(INPUT_FILE.toString()));
+    verifyRecords(records);
+    verifyFileSize(0, 1, 0);
+  }
+
+  @Test
+  public void testCheckpoints() {
+    setup();
+    props.put(CsvConnectorDefinitions.OFFSET_CHECKPOINT_LINES_KEY, "7");
+    DataReader dataReader = createDataReader(props, SCHEMA);
+    List<RowSourceRecord> records = dataReader.read(INPUT_FILE.toString(), 10);
+    Assert.assertEquals(10, records.size());
+    // the checkpoints are the first line, the 7th line and the last line of batch
+    Assert.assertEquals(
+        Arrays.asList(1, 1, 1, 1, 1, 1, 7, 7, 7, 10),
+        records.stream()
+            .map(r -> r.sourceOffset().get(CsvRecordConverter.CSV_OFFSET_KEY))
+            .collect(Collectors.toList()));
+    records.forEach(
+        r -> Assert.assertTrue(r.sourceOffset().containsKey(CsvRecordConverter.CSV_POSITION_KEY)));
+    dataReader.close();
+  }
+
+  @Test
+  public void testResumeFromPosition() {
+    setup();
+    DataReader dataReader = createDataReader();
+    List<RowSourceRecord> records = dataReader.read(INPUT_FILE.toString(), 10);
+    dataReader.close();
+    Map<String, ?> lastOffset = records.get(records.size() - 1).sourceOffset();
+
+    // the index of checkpoint is changed to a smaller value. The lines between the index and
+    // position should be skipped if the reader seeks to the position.
+    Map<String, Object> offset = new HashMap<>(lastOffset);
+    offset.put(CsvRecordConverter.CSV_OFFSET_KEY, 5);
+    rowContext =
+        new RowSourceContext() {
+          @Override
+          public <T> Map<String, Object> offset(Map<String, T> partition) {
+            return offset;
+          }
+
+          @Override
+          public <T> Map<Map<String, T>, Map<String, Object>> offset(
+              List<Map<String, T>> partitions) {
+            return Collections.emptyMap();
+          }
+        };
+    records = createDataReader().read(INPUT_FILE.toString());
+    Assert.assertEquals(VERIFICATION_DATA.size() - 10, records.size());
+    verifyRows(VERIFICATION_DATA.subList(10, VERIFICATION_DATA.size()), extractRow(records));
+    verifyFileSize(0, 1, 0);
+  }
+
+  @Test
+  public void testReadCompressedFile() throws IOException {
+    setup();
+    String path = INPUT_FILE.toString() + ".gz";
+    try (InputStream input = storage.open(INPUT_FILE.toString());
+        OutputStream output = new GZIPOutputStream(storage.create(path))) {
+      byte[] buffer = new byte[1024];
+      int count;
+      while ((count = input.read(buffer)) >= 0) output.write(buffer, 0, count);
+    }
+    storage.delete(INPUT_FILE.toString());
+
+    props.put(CsvConnectorDefinitions.FILE_COMPRESSION_KEY, CompressionCodec.AUTO);
+    DataReader dataReader = createDataReader(props, SCHEMA);
+    List<RowSourceRecord> records = new ArrayList<>(dataReader.read(path, 10));
+    dataReader.close();
+
+    // resume the compressed file by another reader
+    Map<String, ?> offset = records.get(records.size() - 1).sourceOffset();
+    rowContext =
+        new RowSourceContext() {
+          @Override
+          public <T> Map<String, Object> offset(Map<String, T> partition) {
+            return new HashMap<>(offset);
+          }
+
+          @Override
+          public <T> Map<Map<String, T>, Map<String, Object>> offset(
+              List<Map<String, T>> partitions) {
+            return Collections.emptyMap();
+          }
+        };
+    records.addAll(createDataReader(props, SCHEMA).read(path));
+    verifyRecords(records);
+    verifyFileSize(0, 1, 0);
+  }
+
   private void verifyFileSize(int inputSize, int completedSize, int errorSize) {
     verifyFileSizeInFolder(inputSize, INPUT_FOLDER);
     verifyFileSizeInFolder(completedSize, COMPLETED_FOLDER);
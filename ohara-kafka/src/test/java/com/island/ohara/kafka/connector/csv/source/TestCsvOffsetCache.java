@@ -17,6 +17,13 @@
 package com.island.ohara.kafka.connector.csv.source;
 
 import com.island.ohara.common.rule.OharaTest;
+import com.island.ohara.kafka.connector.RowSourceContext;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -30,4 +37,104 @@ public class TestCsvOffsetCache extends OharaTest {
     Assert.assertTrue(cache.predicate(path, 2));
     Assert.assertFalse(cache.predicate(path, 1));
   }
+
+  @Test
+  public void testCheckpoint() {
+    CsvOffsetCache cache = new CsvOffsetCache();
+    Assert.assertFalse(cache.checkpoint(path).isPresent());
+    cache.update(path, 10, 100);
+    cache.update(path, 5, 50);
+    cache.update(path, 12);
+    Assert.assertEquals(10, cache.checkpoint(path).get().index);
+    Assert.assertEquals(100, cache.checkpoint(path).get().position);
+    Assert.assertFalse(cache.predicate(path, 12));
+  }
+
+  @Test
+  public void testLoadCheckpoint() {
+    Map<String, Object> offset = new HashMap<>();
+    offset.put(CsvRecordConverter.CSV_OFFSET_KEY, 10);
+    // the number is deserialized to long by kafka
+    offset.put(CsvRecordConverter.CSV_POSITION_KEY, 100L);
+    RowSourceContext context =
+        new RowSourceContext() {
+          @Override
+          public <T> Map<String, Object> offset(Map<String, T> partition) {
+            return offset;
+          }
+
+          @Override
+          public <T> Map<Map<String, T>, Map<String, Object>> offset(
+              List<Map<String, T>> partitions) {
+            return Collections.emptyMap();
+          }
+        };
+    CsvOffsetCache cache = new CsvOffsetCache();
+    cache.loadIfNeed(context, path);
+    Assert.assertFalse(cache.predicate(path, 10));
+    Assert.assertEquals(10, cache.checkpoint(path).get().index);
+    Assert.assertEquals(100, cache.checkpoint(path).get().position);
+  }
+
+  /** a context which stores the offsets in memory and counts the requests */
+  private static class CountingContext implements RowSourceContext {
+    private final Map<String, Integer> offsets = new HashMap<>();
+    private int singleRequests = 0;
+    private int batchRequests = 0;
+
+    @Override
+    public <T> Map<String, Object> offset(Map<String, T> partition) {
+      singleRequests++;
+      Integer offset = offsets.get(partition.get(CsvRecordConverter.CSV_PARTITION_KEY));
+      return offset == null
+          ? Collections.emptyMap()
+          : Collections.singletonMap(CsvRecordConverter.CSV_OFFSET_KEY, offset);
+    }
+
+    @Override
+    public <T> Map<Map<String, T>, Map<String, Object>> offset(List<Map<String, T>> partitions) {
+      batchRequests++;
+      Map<Map<String, T>, Map<String, Object>> result = new HashMap<>();
+      partitions.forEach(
+          partition -> {
+            Integer offset = offsets.get(partition.get(CsvRecordConverter.CSV_PARTITION_KEY));
+            if (offset != null)
+              result.put(
+                  partition, Collections.singletonMap(CsvRecordConverter.CSV_OFFSET_KEY, offset));
+          });
+      return result;
+    }
+  }
+
+  @Test
+  public void testBatchLoad() {
+    CountingContext context = new CountingContext();
+    List<String> paths =
+        IntStream.range(0, 100).mapToObj(i -> path + i).collect(Collectors.toList());
+    paths.stream().filter(p -> p.hashCode() % 2 == 0).forEach(p -> context.offsets.put(p, 10));
+
+    CsvOffsetCache cache = new CsvOffsetCache();
+    cache.loadIfNeed(context, paths);
+    Assert.assertEquals(1, context.batchRequests);
+    Assert.assertEquals(0, context.singleRequests);
+    paths.forEach(
+        p -> Assert.assertEquals(!context.offsets.containsKey(p), cache.predicate(p, 10)));
+
+    // the loaded paths are not requested again even if they have no offsets
+    cache.loadIfNeed(context, paths);
+    paths.forEach(p -> cache.loadIfNeed(context, p));
+    Assert.assertEquals(1, context.batchRequests);
+    Assert.assertEquals(0, context.singleRequests);
+  }
+
+  @Test
+  public void testLoadSinglePathOnce() {
+    CountingContext context = new CountingContext();
+    CsvOffsetCache cache = new CsvOffsetCache();
+    cache.loadIfNeed(context, path);
+    cache.loadIfNeed(context, path);
+    cache.loadIfNeed(context, Collections.singletonList(path));
+    Assert.assertEquals(1, context.singleRequests);
+    Assert.assertEquals(0, context.batchRequests);
+  }
 }
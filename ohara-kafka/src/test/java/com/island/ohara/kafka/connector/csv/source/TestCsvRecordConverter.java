@@ -21,8 +21,13 @@ import com.island.ohara.common.data.Column;
 import com.island.ohara.common.data.DataType;
 import com.island.ohara.common.data.Row;
 import com.island.ohara.common.rule.OharaTest;
+import com.island.ohara.kafka.connector.ColumnPartitioner;
+import com.island.ohara.kafka.connector.RowPartitioner;
 import com.island.ohara.kafka.connector.RowSourceContext;
 import com.island.ohara.kafka.connector.RowSourceRecord;
+import com.island.ohara.kafka.connector.TaskSetting;
+import com.island.ohara.kafka.connector.json.ConnectorDefUtils;
+import com.island.ohara.kafka.connector.json.StringList;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.util.*;
@@ -122,31 +127,40 @@ public class TestCsvRecordConverter extends OharaTest {
     return data;
   }
 
+  /** convert the cells to rows by the converter */
+  private Map<Integer, Row> toRows(Map<Integer, List<Cell<String>>> data) {
+    return data.entrySet().stream()
+        .collect(
+            Collectors.toMap(
+                Map.Entry::getKey,
+                e ->
+                    converter.toRow(
+                        e.getValue().stream().map(Cell::name).collect(Collectors.toList()),
+                        e.getValue().stream().map(Cell::value).collect(Collectors.toList()))));
+  }
+
   @Test
-  public void testTransform() {
+  public void testToRow() {
     converter = createConverter();
     data = setupInputData();
-    System.out.println(data);
-    Map<Integer, Row> transformedData = converter.transform(data);
-    System.out.println(transformedData);
-    Assert.assertEquals(mapToRow(data), converter.transform(data));
+    Assert.assertEquals(mapToRow(data), toRows(data));
   }
 
   @Test
-  public void testTransform_WithFullSchema() {
+  public void testToRow_WithFullSchema() {
     converter = createConverter(schema);
     data = setupInputData();
-    Map<Integer, Row> transformedData = converter.transform(data);
+    Map<Integer, Row> transformedData = toRows(data);
     Assert.assertEquals(data.size(), transformedData.size());
     Assert.assertEquals(mapToRow(data), transformedData);
   }
 
   @Test
-  public void testTransform_WithSingleColumn() {
+  public void testToRow_WithSingleColumn() {
     Column column = Column.builder().name("cf1").dataType(DataType.STRING).order(0).build();
     converter = createConverter(Arrays.asList(column));
     data = setupInputData();
-    Map<Integer, Row> transformedData = converter.transform(data);
+    Map<Integer, Row> transformedData = toRows(data);
     Assert.assertEquals(data.size(), transformedData.size());
     transformedData
         .values()
@@ -157,6 +171,31 @@ public class TestCsvRecordConverter extends OharaTest {
             });
   }
 
+  @Test
+  public void testToRow_ByHeaderIndex() {
+    converter =
+        createConverter(
+            Arrays.asList(
+                Column.builder().name("cf3").newName("c").dataType(DataType.INT).order(0).build(),
+                Column.builder().name("cf1").dataType(DataType.STRING).order(1).build()));
+    Row row = converter.toRow(Arrays.asList("cf1", "cf2", "cf3"), Arrays.asList("x", "y", "10"));
+    Assert.assertEquals(Arrays.asList("c", "cf1"), row.names());
+    Assert.assertEquals(10, row.cell("c").value());
+    Assert.assertEquals("x", row.cell("cf1").value());
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testToRow_WithMissingColumn() {
+    converter = createConverter(schema);
+    converter.toRow(Arrays.asList("cf1", "cf2"), Arrays.asList("a", "b"));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testToRow_WithShortLine() {
+    converter = createConverter(schema);
+    converter.toRow(Arrays.asList("cf1", "cf2", "cf3"), Arrays.asList("a", "b"));
+  }
+
   private Map<Integer, Row> mapToRow(Map<Integer, List<Cell<String>>> data) {
     return data.entrySet().stream()
         .collect(
@@ -164,16 +203,6 @@ public class TestCsvRecordConverter extends OharaTest {
                 e -> e.getKey(), e -> Row.of(e.getValue().stream().toArray(Cell[]::new))));
   }
 
-  @Test
-  public void testFindCellByName() {
-    converter = createConverter();
-    data = setupInputData();
-    List<Cell<String>> cells = data.get(3);
-    Cell<String> cell = converter.findCellByName(cells, "cf3");
-    Assert.assertEquals("cf3", cell.name());
-    Assert.assertEquals("c", cell.value());
-  }
-
   @Test
   public void testConvertByType() {
     converter = createConverter();
@@ -200,6 +229,128 @@ public class TestCsvRecordConverter extends OharaTest {
     converter.convertByType("row", DataType.ROW);
   }
 
+  private List<RowSourceRecord> convertWithPolicy(
+      CsvRecordConverter.RowErrorPolicy policy, String... lines) {
+    CsvRecordConverter.Builder builder =
+        new CsvRecordConverter.Builder()
+            .path(path)
+            .topics(topicNames)
+            .offsetCache(new FakeOffsetCache())
+            .schema(
+                Arrays.asList(
+                    Column.builder().name("cf1").dataType(DataType.STRING).order(0).build(),
+                    Column.builder().name("cf2").dataType(DataType.INT).order(1).build()))
+            .errorPolicy(policy);
+    if (policy == CsvRecordConverter.RowErrorPolicy.DEAD_LETTER) builder.deadLetterTopic("dead");
+    return builder.build().convert(Stream.of(lines));
+  }
+
+  @Test
+  public void testFailPolicy() {
+    assertException(
+        NumberFormatException.class,
+        () -> convertWithPolicy(CsvRecordConverter.RowErrorPolicy.FAIL, "cf1,cf2", "a,b"));
+  }
+
+  @Test
+  public void testSkipPolicy() {
+    List<RowSourceRecord> records =
+        convertWithPolicy(CsvRecordConverter.RowErrorPolicy.SKIP, "cf1,cf2", "a,b", "c", "d,1");
+    Assert.assertEquals(topicNames.size(), records.size());
+    Assert.assertEquals(Row.of(Cell.of("cf1", "d"), Cell.of("cf2", 1)), records.get(0).row());
+    Assert.assertEquals(3, records.get(0).sourceOffset().get(CsvRecordConverter.CSV_OFFSET_KEY));
+  }
+
+  @Test
+  public void testNullPolicy() {
+    List<RowSourceRecord> records =
+        convertWithPolicy(CsvRecordConverter.RowErrorPolicy.NULL, "cf1,cf2", "a,b", "c", "d,1");
+    Assert.assertEquals(
+        Arrays.asList(
+            Row.of(Cell.of("cf1", "a")),
+            Row.of(Cell.of("cf1", "c")),
+            Row.of(Cell.of("cf1", "d"), Cell.of("cf2", 1))),
+        records.stream()
+            .filter(r -> r.topicName().equals(topicNames.get(0)))
+            .map(RowSourceRecord::row)
+            .collect(Collectors.toList()));
+  }
+
+  private RowPartitioner columnPartitioner(String column) {
+    Map<String, String> settings = new HashMap<>();
+    settings.put(
+        ConnectorDefUtils.TOPIC_NAMES_DEFINITION.key(), StringList.toKafkaString(topicNames));
+    settings.put(
+        ConnectorDefUtils.PARTITIONER_COLUMNS_DEFINITION.key(),
+        StringList.toKafkaString(Collections.singletonList(column)));
+    settings.put(ConnectorDefUtils.PARTITIONER_PARTITIONS_DEFINITION.key(), "4");
+    RowPartitioner partitioner = new ColumnPartitioner();
+    partitioner.configure(TaskSetting.of(settings));
+    return partitioner;
+  }
+
+  @Test
+  public void testNullPolicyWithColumnPartitioner() {
+    RowPartitioner partitioner = columnPartitioner("cf2");
+    List<RowSourceRecord> records =
+        convertWithPolicy(CsvRecordConverter.RowErrorPolicy.NULL, "cf1,cf2", "a,b", "d,1");
+    Assert.assertEquals(2 * topicNames.size(), records.size());
+    // the unparsable cell is removed so the row is left to the default partitioner of kafka
+    records.stream()
+        .filter(r -> r.row().names().contains("cf2"))
+        .forEach(r -> Assert.assertTrue(partitioner.partition(r.topicName(), r.row()).isPresent()));
+    records.stream()
+        .filter(r -> !r.row().names().contains("cf2"))
+        .forEach(
+            r -> Assert.assertFalse(partitioner.partition(r.topicName(), r.row()).isPresent()));
+  }
+
+  @Test
+  public void testDeadLetterIsNotPartitionedByColumns() {
+    RowPartitioner partitioner = columnPartitioner("cf1");
+    List<RowSourceRecord> records =
+        convertWithPolicy(CsvRecordConverter.RowErrorPolicy.DEAD_LETTER, "cf1,cf2", "a,b", "d,1");
+    Assert.assertEquals("dead", records.get(0).topicName());
+    // the dead letter topic may have fewer partitions than the topics of connector
+    Assert.assertFalse(
+        partitioner.partition(records.get(0).topicName(), records.get(0).row()).isPresent());
+    records.stream()
+        .skip(1)
+        .forEach(r -> Assert.assertTrue(partitioner.partition(r.topicName(), r.row()).isPresent()));
+  }
+
+  @Test
+  public void testDeadLetterPolicy() {
+    List<RowSourceRecord> records =
+        convertWithPolicy(CsvRecordConverter.RowErrorPolicy.DEAD_LETTER, "cf1,cf2", "a,b,c", "d,1");
+    Assert.assertEquals(1 + topicNames.size(), records.size());
+    Assert.assertEquals("dead", records.get(0).topicName());
+    Assert.assertEquals(
+        Row.of(Cell.of("cf1", "a"), Cell.of("cf2", "b"), Cell.of("2", "c")), records.get(0).row());
+    // the offset of malformed line is committed also
+    Assert.assertEquals(1, records.get(0).sourceOffset().get(CsvRecordConverter.CSV_OFFSET_KEY));
+  }
+
+  @Test
+  public void testHeaderErrorIsNotRowError() {
+    assertException(
+        NoSuchElementException.class,
+        () -> convertWithPolicy(CsvRecordConverter.RowErrorPolicy.SKIP, "cf1,cf3", "a,1"));
+  }
+
+  @Test
+  public void testDeadLetterPolicyRequiresTopic() {
+    assertException(
+        NullPointerException.class,
+        () ->
+            new CsvRecordConverter.Builder()
+                .path(path)
+                .topics(topicNames)
+                .offsetCache(new FakeOffsetCache())
+                .errorPolicy(CsvRecordConverter.RowErrorPolicy.DEAD_LETTER)
+                .build());
+  }
+
   @Test
   public void testToRecords_BySingleRow() {
     converter = createConverter();
@@ -228,17 +379,40 @@ public class TestCsvRecordConverter extends OharaTest {
     data = setupInputData();
     Map<Integer, Row> rows = mapToRow(data);
 
-    List<RowSourceRecord> records = converter.toRecords(rows);
+    List<RowSourceRecord> records =
+        converter.convert(
+            data.get(1).stream().map(Cell::name).collect(Collectors.toList()),
+            data.entrySet().stream()
+                .collect(
+                    Collectors.toMap(
+                        Map.Entry::getKey,
+                        e -> e.getValue().stream().map(Cell::value).collect(Collectors.toList()),
+                        (a, b) -> a,
+                        TreeMap::new)),
+            // each record is a checkpoint
+            data.keySet().stream()
+                .collect(Collectors.toMap(index -> index, index -> OptionalLong.empty())));
     Assert.assertEquals(topicNames.size() * rows.size(), records.size());
+    // the records are generated in the order of lines
+    Assert.assertEquals(
+        Arrays.asList(1, 1, 2, 2, 3, 3),
+        records.stream()
+            .map(r -> r.sourceOffset().get(CsvRecordConverter.CSV_OFFSET_KEY))
+            .collect(Collectors.toList()));
   }
 
   @Test
-  public void testToCells() throws IOException {
+  public void testConvertLines() throws IOException {
     converter = createConverter();
     data = setupInputData();
     try (BufferedReader reader = createReader()) {
       Stream<String> lines = reader.lines();
-      Assert.assertEquals(data, converter.toCells(lines));
+      Assert.assertEquals(
+          new ArrayList<>(new TreeMap<>(mapToRow(data)).values()),
+          converter.convert(lines).stream()
+              .filter(r -> r.topicName().equals(topicNames.get(0)))
+              .map(RowSourceRecord::row)
+              .collect(Collectors.toList()));
     }
   }
 
@@ -283,18 +457,12 @@ public class TestCsvRecordConverter extends OharaTest {
   }
 
   @Test
-  public void testRegex() {
-    String[] splits = "1,\"2,3,4\",5".split(CsvRecordConverter.CSV_REGEX);
-    Assert.assertEquals(3, splits.length);
-    Assert.assertEquals("1", splits[0]);
-    Assert.assertEquals("\"2,3,4\"", splits[1]);
-    Assert.assertEquals("5", splits[2]);
-
-    String[] splits2 = "1,3,5".split(CsvRecordConverter.CSV_REGEX);
-    Assert.assertEquals(3, splits.length);
-    Assert.assertEquals("1", splits2[0]);
-    Assert.assertEquals("3", splits2[1]);
-    Assert.assertEquals("5", splits2[2]);
+  public void testQuotedField() {
+    converter = createConverter();
+    List<RowSourceRecord> records = converter.convert(Stream.of("a,b,c", "1,\"2,3,4\",5"));
+    Assert.assertEquals(topicNames.size(), records.size());
+    Assert.assertEquals(
+        Row.of(Cell.of("a", "1"), Cell.of("b", "2,3,4"), Cell.of("c", "5")), records.get(0).row());
   }
 
   class FakeOffsetCache implements OffsetCache {
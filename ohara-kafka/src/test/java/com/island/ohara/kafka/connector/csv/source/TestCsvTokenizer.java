@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv.source;
+
+import com.island.ohara.common.rule.OharaTest;
+import com.island.ohara.common.util.CommonUtils;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestCsvTokenizer extends OharaTest {
+
+  private static List<List<String>> tokenize(String data, char delimiter) {
+    CsvTokenizer tokenizer = CsvTokenizer.of(new StringReader(data), delimiter);
+    List<List<String>> records = new ArrayList<>();
+    List<String> fields;
+    while ((fields = tokenizer.next()) != null) records.add(fields);
+    return records;
+  }
+
+  private static List<List<String>> tokenize(String data) {
+    return tokenize(data, CsvTokenizer.DEFAULT_DELIMITER);
+  }
+
+  @Test
+  public void testSimpleLine() {
+    Assert.assertEquals(Arrays.asList("1", "3", "5"), CsvTokenizer.split("1,3,5", ','));
+  }
+
+  @Test
+  public void testTrimUnquotedField() {
+    Assert.assertEquals(Arrays.asList("a", "b c", "d"), CsvTokenizer.split(" a , b c ,d\t", ','));
+  }
+
+  @Test
+  public void testQuotedField() {
+    Assert.assertEquals(Arrays.asList("1", "2,3,4", "5"), CsvTokenizer.split("1,\"2,3,4\",5", ','));
+    // the whitespace in quoted field is kept
+    Assert.assertEquals(Arrays.asList(" a ", "b"), CsvTokenizer.split(" \" a \" ,b", ','));
+  }
+
+  @Test
+  public void testEscapedQuote() {
+    Assert.assertEquals(
+        Arrays.asList("say \"hi\"", "\""), CsvTokenizer.split("\"say \"\"hi\"\"\",\"\"\"\"", ','));
+  }
+
+  @Test
+  public void testEmptyFields() {
+    Assert.assertEquals(Arrays.asList("", "", ""), CsvTokenizer.split(",,", ','));
+    Assert.assertEquals(Arrays.asList("", "a"), CsvTokenizer.split("\"\",a", ','));
+    Assert.assertEquals(Collections.singletonList(""), CsvTokenizer.split("", ','));
+  }
+
+  @Test
+  public void testMultilineField() {
+    List<List<String>> records = tokenize("a,b\n1,\"x\ny\r\nz\"\n2,w\n");
+    Assert.assertEquals(3, records.size());
+    Assert.assertEquals(Arrays.asList("1", "x\ny\r\nz"), records.get(1));
+    Assert.assertEquals(Arrays.asList("2", "w"), records.get(2));
+  }
+
+  @Test
+  public void testLineBreaks() {
+    List<List<String>> records = tokenize("a\r\nb\rc\nd");
+    Assert.assertEquals(
+        Arrays.asList(
+            Collections.singletonList("a"),
+            Collections.singletonList("b"),
+            Collections.singletonList("c"),
+            Collections.singletonList("d")),
+        records);
+  }
+
+  @Test
+  public void testCustomDelimiter() {
+    Assert.assertEquals(Arrays.asList("1", "2,3", "4"), CsvTokenizer.split("1;2,3;4", ';'));
+    Assert.assertEquals(Arrays.asList("1", "", "a b"), CsvTokenizer.split("1\t\ta b", '\t'));
+  }
+
+  @Test
+  public void testUnclosedQuote() {
+    Assert.assertEquals(Arrays.asList("a", "b\n"), tokenize("a,\"b\n").get(0));
+  }
+
+  @Test
+  public void testIllegalDelimiter() {
+    assertException(IllegalArgumentException.class, () -> CsvTokenizer.split("a", '"'));
+    assertException(IllegalArgumentException.class, () -> CsvTokenizer.split("a", '\n'));
+  }
+
+  private static List<Long> positions(String data, Charset charset) {
+    CsvTokenizer tokenizer = CsvTokenizer.of(new StringReader(data), ',', charset);
+    List<Long> positions = new ArrayList<>();
+    while (tokenizer.next() != null) positions.add(tokenizer.position().getAsLong());
+    return positions;
+  }
+
+  @Test
+  public void testPosition() {
+    String data = "a,b\r\n\u6E2C\u8A66,\"x\ny\"\n\uD83D\uDE00\rlast";
+    List<Long> expected = new ArrayList<>();
+    for (String record :
+        Arrays.asList("a,b\r\n", "\u6E2C\u8A66,\"x\ny\"\n", "\uD83D\uDE00\r", "last")) {
+      long previous = expected.isEmpty() ? 0 : expected.get(expected.size() - 1);
+      expected.add(previous + record.getBytes(StandardCharsets.UTF_8).length);
+    }
+    Assert.assertEquals(expected, positions(data, StandardCharsets.UTF_8));
+    Assert.assertEquals(
+        Arrays.asList(5L, 9L), positions("a,b\r\nc,d\n", StandardCharsets.ISO_8859_1));
+  }
+
+  @Test
+  public void testPositionOfLargeInput() {
+    // the data is larger than the buffer of tokenizer
+    String line = "\u6E2C" + CommonUtils.randomString(10) + "\n";
+    String data = IntStream.range(0, 10000).mapToObj(i -> line).collect(Collectors.joining());
+    List<Long> positions = positions(data, StandardCharsets.UTF_8);
+    Assert.assertEquals(10000, positions.size());
+    Assert.assertEquals(
+        data.getBytes(StandardCharsets.UTF_8).length, (long) positions.get(positions.size() - 1));
+  }
+
+  @Test
+  public void testUnsupportedPosition() {
+    Assert.assertEquals(
+        OptionalLong.empty(), CsvTokenizer.of(new StringReader("a"), ',').position());
+    Assert.assertEquals(
+        OptionalLong.empty(),
+        CsvTokenizer.of(new StringReader("a"), ',', StandardCharsets.UTF_16).position());
+    // the bytes of malformed input are unknown
+    CsvTokenizer tokenizer =
+        CsvTokenizer.of(new StringReader("\uFFFD,a\nb"), ',', StandardCharsets.UTF_8);
+    tokenizer.next();
+    Assert.assertEquals(OptionalLong.empty(), tokenizer.position());
+  }
+
+  @Test
+  public void testLargeInput() {
+    // the data is larger than the buffer of tokenizer
+    List<List<String>> expected =
+        IntStream.range(0, 10000)
+            .mapToObj(
+                i -> Arrays.asList(String.valueOf(i), CommonUtils.randomString(10), "x,\"" + i))
+            .collect(Collectors.toList());
+    String data =
+        expected.stream()
+            .map(
+                fields ->
+                    fields.get(0)
+                        + ","
+                        + fields.get(1)
+                        + ",\""
+                        + fields.get(2).replace("\"", "\"\"")
+                        + "\"")
+            .collect(Collectors.joining("\n"));
+    Assert.assertEquals(expected, tokenize(data));
+  }
+}
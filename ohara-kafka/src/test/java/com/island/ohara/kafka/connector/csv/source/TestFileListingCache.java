@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.kafka.connector.csv.source;
+
+import com.island.ohara.common.rule.OharaTest;
+import com.island.ohara.common.util.Releasable;
+import com.island.ohara.kafka.connector.csv.LocalFileSystem;
+import com.island.ohara.kafka.connector.storage.FileSystem;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestFileListingCache extends OharaTest {
+  private Path folder;
+  private FileSystem fs;
+
+  @Before
+  public void setup() throws IOException {
+    folder = Files.createTempDirectory("listing");
+    fs = LocalFileSystem.of();
+  }
+
+  private void createFile(String name) throws IOException {
+    Files.createFile(folder.resolve(name));
+  }
+
+  private FileListingCache.Builder builder() {
+    return FileListingCache.builder().fileSystem(fs).folder(folder.toString());
+  }
+
+  @Test
+  public void testNoListingIfQueueIsNotDrained() throws IOException {
+    createFile("a");
+    createFile("b");
+    FileListingCache listing = builder().build();
+    Assert.assertEquals(2, listing.refreshIfNeeded().size());
+    Assert.assertEquals(1, listing.numberOfListings());
+    createFile("c");
+    // the pending files are not done
+    Assert.assertEquals(0, listing.refreshIfNeeded().size());
+    Assert.assertTrue(listing.next(Collections.emptySet()).isPresent());
+    Assert.assertEquals(0, listing.refreshIfNeeded().size());
+    Assert.assertTrue(listing.next(Collections.emptySet()).isPresent());
+    Assert.assertFalse(listing.next(Collections.emptySet()).isPresent());
+    Assert.assertEquals(1, listing.numberOfListings());
+    // the queue is drained so the folder is listed again
+    Assert.assertEquals(3, listing.refreshIfNeeded().size());
+    Assert.assertEquals(2, listing.numberOfListings());
+  }
+
+  @Test
+  public void testInterval() throws IOException {
+    createFile("a");
+    FileListingCache listing = builder().interval(Duration.ofHours(1)).build();
+    Assert.assertEquals(1, listing.refreshIfNeeded().size());
+    listing.next(Collections.emptySet());
+    createFile("b");
+    Assert.assertEquals(0, listing.refreshIfNeeded().size());
+    Assert.assertEquals(1, listing.numberOfListings());
+  }
+
+  @Test
+  public void testTimeToRefresh() throws IOException {
+    createFile("a");
+    FileListingCache listing = builder().interval(Duration.ofHours(1)).build();
+    Assert.assertEquals(0, listing.timeToRefresh());
+    Assert.assertEquals(1, listing.refreshIfNeeded().size());
+    Assert.assertTrue(listing.timeToRefresh() > 0);
+    Assert.assertTrue(listing.timeToRefresh() <= Duration.ofHours(1).toMillis());
+    Assert.assertEquals(0, builder().interval(Duration.ZERO).build().timeToRefresh());
+  }
+
+  @Test
+  public void testChangeDetectionByMtime() throws IOException {
+    createFile("a");
+    FileListingCache listing =
+        builder()
+            .interval(Duration.ZERO)
+            .changeDetection(FileListingCache.ChangeDetection.MTIME)
+            .build();
+    Assert.assertEquals(1, listing.refreshIfNeeded().size());
+    listing.next(Collections.emptySet());
+    // nothing is changed so the folder is not listed even if the interval is elapsed
+    Assert.assertEquals(0, listing.refreshIfNeeded().size());
+    Assert.assertEquals(0, listing.refreshIfNeeded().size());
+    Assert.assertEquals(1, listing.numberOfListings());
+
+    createFile("b");
+    // the resolution of mtime may be coarse so we change it manually
+    Files.setLastModifiedTime(
+        folder,
+        FileTime.fromMillis(
+            Files.getLastModifiedTime(folder).toMillis() + TimeUnit.SECONDS.toMillis(10)));
+    List<String> added = listing.refreshIfNeeded();
+    Assert.assertEquals(2, added.size());
+    Assert.assertEquals(2, listing.numberOfListings());
+  }
+
+  @Test
+  public void testNoMtimeCheckBeforeInterval() throws IOException {
+    AtomicInteger checks = new AtomicInteger(0);
+    fs =
+        new LocalFileSystem() {
+          @Override
+          public Optional<Long> lastModified(String path) {
+            checks.incrementAndGet();
+            return super.lastModified(path);
+          }
+        };
+    createFile("a");
+    FileListingCache listing =
+        builder()
+            .interval(Duration.ofHours(1))
+            .changeDetection(FileListingCache.ChangeDetection.MTIME)
+            .build();
+    Assert.assertEquals(1, listing.refreshIfNeeded().size());
+    Assert.assertEquals(1, checks.get());
+    listing.next(Collections.emptySet());
+    // the idle polls don't touch the folder until the interval is elapsed
+    for (int i = 0; i != 10; ++i) Assert.assertEquals(0, listing.refreshIfNeeded().size());
+    Assert.assertEquals(1, checks.get());
+    Assert.assertEquals(1, listing.numberOfListings());
+  }
+
+  @Test
+  public void testFilterAndExcludedPaths() throws IOException {
+    createFile("a");
+    createFile("b");
+    FileListingCache listing = builder().filter(name -> !name.equals("b")).build();
+    List<String> added = listing.refreshIfNeeded();
+    Assert.assertEquals(1, added.size());
+    Assert.assertEquals(folder.resolve("a").toString(), added.get(0));
+    Assert.assertEquals(
+        Optional.empty(), listing.next(Collections.singleton(folder.resolve("a").toString())));
+    Assert.assertEquals(0, listing.size());
+  }
+
+  @Test
+  public void testParseChangeDetection() {
+    Assert.assertEquals(
+        FileListingCache.ChangeDetection.MTIME, FileListingCache.ChangeDetection.of("mtime"));
+    assertException(
+        IllegalArgumentException.class, () -> FileListingCache.ChangeDetection.of("size"));
+  }
+
+  @After
+  public void tearDown() {
+    fs.delete(folder.toString(), true);
+    Releasable.close(fs);
+  }
+}
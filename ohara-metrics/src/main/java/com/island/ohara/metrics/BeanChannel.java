@@ -19,6 +19,7 @@ package com.island.ohara.metrics;
 import com.island.ohara.common.annotations.VisibleForTesting;
 import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.metrics.basic.CounterMBean;
+import com.island.ohara.metrics.basic.HistogramMBean;
 import com.island.ohara.metrics.kafka.TopicMeter;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
@@ -95,6 +96,11 @@ public interface BeanChannel extends Iterable<BeanObject> {
     return stream().filter(CounterMBean::is).map(CounterMBean::of).collect(Collectors.toList());
   }
 
+  /** @return get only histogram type from bean objects */
+  default List<HistogramMBean> histogramMBeans() {
+    return stream().filter(HistogramMBean::is).map(HistogramMBean::of).collect(Collectors.toList());
+  }
+
   /** @return get only TopicMeter type from bean objects */
   default List<TopicMeter> topicMeters() {
     return stream().filter(TopicMeter::is).map(TopicMeter::of).collect(Collectors.toList());
@@ -27,10 +27,17 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * This class is an implementation of JMX Bean. We need to implement serializable since we write
  * metrics data to rocksDB.
+ *
+ * <p>The counter is backed by an AtomicLong by default. A striped counter (see {@link
+ * Builder#striped(boolean)}) is backed by a LongAdder instead, so many threads are able to update
+ * it without contending for the same cache line. The methods returning the updated or previous
+ * value are not atomic for a striped counter, and hence the hot path should use {@link #add(long)}
+ * and {@link #increment()}.
  */
 public final class Counter extends ReleaseOnce implements CounterMBean, Serializable {
 
@@ -46,7 +53,11 @@ public final class Counter extends ReleaseOnce implements CounterMBean, Serializ
   private final String name;
   private final String document;
   private final String unit;
-  private final AtomicLong value = new AtomicLong(0);
+  /** null if this counter is striped */
+  private final AtomicLong value;
+  /** null if this counter is not striped */
+  private final LongAdder adder;
+
   private final long startTime;
   private final long queryTime;
 
@@ -59,7 +70,8 @@ public final class Counter extends ReleaseOnce implements CounterMBean, Serializ
       String unit,
       long startTime,
       long queryTime,
-      long value) {
+      long value,
+      boolean striped) {
     this.needClose = needClose;
     this.properties =
         Collections.unmodifiableMap(new HashMap<>(CommonUtils.requireNonEmpty(properties)));
@@ -69,7 +81,35 @@ public final class Counter extends ReleaseOnce implements CounterMBean, Serializ
     this.unit = CommonUtils.requireNonEmpty(unit);
     this.startTime = startTime;
     this.queryTime = queryTime;
-    this.value.set(value);
+    if (striped) {
+      this.value = null;
+      this.adder = new LongAdder();
+      this.adder.add(value);
+    } else {
+      this.value = new AtomicLong(value);
+      this.adder = null;
+    }
+  }
+
+  /** @return true if this counter is backed by LongAdder */
+  public boolean striped() {
+    return adder != null;
+  }
+
+  /**
+   * Adds the given value to the current value. It is the cheapest way to update a striped counter
+   * since it doesn't read the current value.
+   *
+   * @param delta the value to add
+   */
+  public void add(long delta) {
+    if (adder != null) adder.add(delta);
+    else value.addAndGet(delta);
+  }
+
+  /** Increments by one the current value. */
+  public void increment() {
+    add(1);
   }
 
   @Override
@@ -92,69 +132,93 @@ public final class Counter extends ReleaseOnce implements CounterMBean, Serializ
     return unit;
   }
   /**
-   * Atomically increments by one the current value.
+   * Increments by one the current value. It is atomic only if this counter is not striped. For a
+   * striped counter, the returned value is summed after the increment, so it may include the
+   * concurrent updates of other threads.
    *
    * @return the updated value
    */
   public long incrementAndGet() {
-    return value.incrementAndGet();
+    return addAndGet(1);
   }
 
   /**
-   * Atomically increments by one the current value.
+   * Increments by one the current value. It is atomic only if this counter is not striped. For a
+   * striped counter, the returned value is summed before the increment, so other threads may
+   * observe the same previous value.
    *
    * @return the previous value
    */
   public long getAndIncrement() {
-    return value.getAndIncrement();
+    return getAndAdd(1);
   }
 
   /**
-   * Atomically decrements by one the current value.
+   * Decrements by one the current value. It is atomic only if this counter is not striped. For a
+   * striped counter, the returned value is summed after the decrement, so it may include the
+   * concurrent updates of other threads.
    *
    * @return the updated value
    */
   public long decrementAndGet() {
-    return value.decrementAndGet();
+    return addAndGet(-1);
   }
 
   /**
-   * Atomically decrements by one the current value.
+   * Decrements by one the current value. It is atomic only if this counter is not striped. For a
+   * striped counter, the returned value is summed before the decrement, so other threads may
+   * observe the same previous value.
    *
    * @return the previous value
    */
   public long getAndDecrement() {
-    return value.getAndDecrement();
+    return getAndAdd(-1);
   }
 
   /**
-   * Atomically adds the given value to the current value.
+   * Adds the given value to the current value. It is atomic only if this counter is not striped.
+   * For a striped counter, the returned value is summed after the addition, so it may include the
+   * concurrent updates of other threads. Use {@link #add(long)} if the value is not needed.
    *
    * @param delta the value to add
    * @return the updated value
    */
   public long addAndGet(long delta) {
-    return value.addAndGet(delta);
+    if (adder == null) return value.addAndGet(delta);
+    adder.add(delta);
+    return adder.sum();
   }
 
   /**
-   * Atomically adds the given value to the current value.
+   * Adds the given value to the current value. It is atomic only if this counter is not striped.
+   * For a striped counter, the returned value is summed before the addition, so other threads may
+   * observe the same previous value. Use {@link #add(long)} if the value is not needed.
    *
    * @param delta the value to add
    * @return the previous value
    */
   public long getAndAdd(long delta) {
-    return value.getAndAdd(delta);
+    if (adder == null) return value.getAndAdd(delta);
+    long previous = adder.sum();
+    adder.add(delta);
+    return previous;
   }
 
   /**
-   * Atomically sets to the given value and returns the old value.
+   * Sets to the given value and returns the old value. It is atomic only if this counter is not
+   * striped. For a striped counter, the concurrent {@link #add(long)} may land between the reset
+   * and the set, and it is either counted in the returned value or kept in the new value.
    *
    * @param newValue the new value
    * @return the previous value
    */
   public long getAndSet(long newValue) {
-    return value.getAndSet(newValue);
+    if (adder == null) return value.getAndSet(newValue);
+    synchronized (adder) {
+      long previous = adder.sumThenReset();
+      adder.add(newValue);
+      return previous;
+    }
   }
 
   /**
@@ -164,7 +228,7 @@ public final class Counter extends ReleaseOnce implements CounterMBean, Serializ
    * @return the new value
    */
   public long setAndGet(long newValue) {
-    value.set(newValue);
+    getAndSet(newValue);
     return newValue;
   }
 
@@ -180,7 +244,7 @@ public final class Counter extends ReleaseOnce implements CounterMBean, Serializ
 
   @Override
   public long getValue() {
-    return value.get();
+    return adder == null ? value.get() : adder.sum();
   }
 
   @Override
@@ -229,6 +293,7 @@ public final class Counter extends ReleaseOnce implements CounterMBean, Serializ
     private long value = 0;
     private long startTime = CommonUtils.current();
     private long queryTime = CommonUtils.current();
+    private boolean striped = false;
 
     private Builder() {}
 
@@ -268,6 +333,17 @@ public final class Counter extends ReleaseOnce implements CounterMBean, Serializ
       return this;
     }
 
+    /**
+     * @param striped true if the counter is backed by LongAdder. It is useful to the counter which
+     *     is updated by many threads frequently.
+     * @return this builder
+     */
+    @Optional("default is false")
+    public Builder striped(boolean striped) {
+      this.striped = striped;
+      return this;
+    }
+
     @Optional("default is no document")
     public Builder document(String document) {
       this.document = CommonUtils.requireNonEmpty(document);
@@ -333,7 +409,7 @@ public final class Counter extends ReleaseOnce implements CounterMBean, Serializ
       // If we don't have this id, the multiple tasks will fail since the duplicate counters.
       properties.put(ID_KEY, CommonUtils.isEmpty(id) ? CommonUtils.randomString() : id);
       return new Counter(
-          needClose, properties, group, name, document, unit, startTime, queryTime, value);
+          needClose, properties, group, name, document, unit, startTime, queryTime, value, striped);
     }
   }
 }
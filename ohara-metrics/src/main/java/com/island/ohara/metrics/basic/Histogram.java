@@ -0,0 +1,331 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.metrics.basic;
+
+import com.island.ohara.common.annotations.Optional;
+import com.island.ohara.common.annotations.VisibleForTesting;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.common.util.ReleaseOnce;
+import com.island.ohara.metrics.BeanChannel;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative long values. It is similar to HdrHistogram: the values are recorded
+ * to log-linear buckets, so recording is O(1) and lock-free, and the memory usage is fixed. The
+ * relative error of percentiles is smaller than 1/32 (about 3%).
+ */
+public final class Histogram extends ReleaseOnce implements HistogramMBean, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /** the number of bits used to distinguish the values in the same power of two */
+  private static final int SUB_BUCKET_BITS = 5;
+
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /** the highest bit of a positive long is 62 */
+  private static final int BUCKET_COUNT =
+      SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @VisibleForTesting
+  static int index(long value) {
+    if (value < SUB_BUCKET_COUNT) return (int) value;
+    int highestBit = 63 - Long.numberOfLeadingZeros(value);
+    int shift = highestBit - SUB_BUCKET_BITS;
+    int mantissa = (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+    return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + mantissa;
+  }
+
+  /**
+   * @param index bucket index
+   * @return the highest value which is recorded to the bucket
+   */
+  @VisibleForTesting
+  static long highestValue(int index) {
+    if (index < SUB_BUCKET_COUNT) return index;
+    int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+    long mantissa = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+    long lowest = (SUB_BUCKET_COUNT + mantissa) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  @VisibleForTesting final boolean needClose;
+  @VisibleForTesting final Map<String, String> properties;
+  private final String group;
+  private final String name;
+  private final String document;
+  private final String unit;
+  private final long startTime;
+  private final long queryTime;
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  private Histogram(
+      boolean needClose,
+      Map<String, String> properties,
+      String group,
+      String name,
+      String document,
+      String unit,
+      long startTime,
+      long queryTime) {
+    this.needClose = needClose;
+    this.properties =
+        Collections.unmodifiableMap(new HashMap<>(CommonUtils.requireNonEmpty(properties)));
+    this.group = CommonUtils.requireNonEmpty(group);
+    this.name = CommonUtils.requireNonEmpty(name);
+    this.document = CommonUtils.requireNonEmpty(document);
+    this.unit = CommonUtils.requireNonEmpty(unit);
+    this.startTime = startTime;
+    this.queryTime = queryTime;
+  }
+
+  /**
+   * record a value. The negative value is recorded as zero.
+   *
+   * @param value value
+   */
+  public void record(long value) {
+    long v = Math.max(0, value);
+    buckets.incrementAndGet(index(v));
+    count.increment();
+    sum.add(v);
+    min.accumulate(v);
+    max.accumulate(v);
+  }
+
+  /**
+   * @param percentile percentile. it must be in (0, 100]
+   * @return the value at the percentile. zero if there is no recorded values
+   */
+  public long percentile(double percentile) {
+    if (percentile <= 0 || percentile > 100)
+      throw new IllegalArgumentException("percentile must be in (0, 100], actual:" + percentile);
+    long[] snapshot = new long[BUCKET_COUNT];
+    long total = 0;
+    for (int i = 0; i != BUCKET_COUNT; ++i) {
+      snapshot[i] = buckets.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) return 0;
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long accumulated = 0;
+    for (int i = 0; i != BUCKET_COUNT; ++i) {
+      accumulated += snapshot[i];
+      if (accumulated >= rank) return Math.min(highestValue(i), getMax());
+    }
+    return getMax();
+  }
+
+  @Override
+  public String group() {
+    return group;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public long getStartTime() {
+    return startTime;
+  }
+
+  @Override
+  public long getQueryTime() {
+    return queryTime;
+  }
+
+  @Override
+  public long getCount() {
+    return count.sum();
+  }
+
+  @Override
+  public long getMin() {
+    return getCount() == 0 ? 0 : min.get();
+  }
+
+  @Override
+  public long getMax() {
+    return max.get();
+  }
+
+  @Override
+  public double getMean() {
+    long c = getCount();
+    return c == 0 ? 0 : (double) sum.sum() / c;
+  }
+
+  @Override
+  public long getP50() {
+    return percentile(50);
+  }
+
+  @Override
+  public long getP90() {
+    return percentile(90);
+  }
+
+  @Override
+  public long getP99() {
+    return percentile(99);
+  }
+
+  @Override
+  public long getP999() {
+    return percentile(99.9);
+  }
+
+  @Override
+  public String getUnit() {
+    return unit;
+  }
+
+  @Override
+  public String getDocument() {
+    return document;
+  }
+
+  @Override
+  public String toString() {
+    return "group:"
+        + group()
+        + " name:"
+        + name()
+        + " start:"
+        + getStartTime()
+        + " count:"
+        + getCount()
+        + " p50:"
+        + getP50()
+        + " p99:"
+        + getP99()
+        + " unit:"
+        + getUnit();
+  }
+
+  @Override
+  protected void doClose() {
+    if (needClose) BeanChannel.unregister(DOMAIN, properties);
+  }
+
+  public static class Builder implements com.island.ohara.common.pattern.Builder<Histogram> {
+    private String id;
+    private String group;
+    private String name;
+    private String unit = "N/A";
+    private String document = "there is no document for this histogram...";
+    private long startTime = CommonUtils.current();
+
+    private Builder() {}
+
+    @Optional("default is random string")
+    public Builder id(String id) {
+      this.id = CommonUtils.requireNonEmpty(id);
+      return this;
+    }
+
+    @Optional("default is equal to name")
+    public Builder group(String group) {
+      this.group = CommonUtils.requireNonEmpty(group);
+      return this;
+    }
+
+    public Builder name(String name) {
+      this.name = CommonUtils.requireNonEmpty(name);
+      if (CommonUtils.isEmpty(group)) group = this.name;
+      return this;
+    }
+
+    @Optional("default is current time")
+    public Builder startTime(long startTime) {
+      this.startTime = startTime;
+      return this;
+    }
+
+    @Optional("default is no document")
+    public Builder document(String document) {
+      this.document = CommonUtils.requireNonEmpty(document);
+      return this;
+    }
+
+    @Optional("default is N/A")
+    public Builder unit(String unit) {
+      this.unit = CommonUtils.requireNonEmpty(unit);
+      return this;
+    }
+
+    private void checkArgument() {
+      CommonUtils.requireNonEmpty(group);
+      CommonUtils.requireNonEmpty(name);
+      CommonUtils.requireNonEmpty(unit);
+      CommonUtils.requireNonEmpty(document);
+      CommonUtils.requirePositiveLong(startTime);
+    }
+
+    /**
+     * create a histogram without registry.
+     *
+     * @return Histogram
+     */
+    @Override
+    public Histogram build() {
+      return build(false);
+    }
+
+    /**
+     * create and register a histogram.
+     *
+     * @return Histogram
+     */
+    public Histogram register() {
+      Histogram histogram = build(true);
+      return BeanChannel.<Histogram>register()
+          .domain(DOMAIN)
+          .properties(histogram.properties)
+          .beanObject(histogram)
+          .run();
+    }
+
+    private Histogram build(boolean needClose) {
+      checkArgument();
+      Map<String, String> properties = new HashMap<>();
+      properties.put(TYPE_KEY, TYPE_VALUE);
+      properties.put(GROUP_KEY, group);
+      properties.put(NAME_KEY, name);
+      // we use a random string to avoid duplicate jmx
+      properties.put(ID_KEY, CommonUtils.isEmpty(id) ? CommonUtils.randomString() : id);
+      return new Histogram(
+          needClose, properties, group, name, document, unit, startTime, CommonUtils.current());
+    }
+  }
+}
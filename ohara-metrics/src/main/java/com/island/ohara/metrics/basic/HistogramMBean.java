@@ -0,0 +1,207 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.metrics.basic;
+
+import com.island.ohara.metrics.BeanObject;
+
+/**
+ * The JMX bean of {@link Histogram}. The percentiles are exported as attributes so the metrics
+ * tools are able to read them without ohara's classes.
+ */
+public interface HistogramMBean {
+  String DOMAIN = CounterMBean.DOMAIN;
+  String TYPE_KEY = CounterMBean.TYPE_KEY;
+  String TYPE_VALUE = "histogram";
+  String GROUP_KEY = CounterMBean.GROUP_KEY;
+  String NAME_KEY = CounterMBean.NAME_KEY;
+  String ID_KEY = CounterMBean.ID_KEY;
+
+  String START_TIME_KEY = "StartTime";
+  String COUNT_KEY = "Count";
+  String MIN_KEY = "Min";
+  String MAX_KEY = "Max";
+  String MEAN_KEY = "Mean";
+  String P50_KEY = "P50";
+  String P90_KEY = "P90";
+  String P99_KEY = "P99";
+  String P999_KEY = "P999";
+  String DOCUMENT_KEY = "Document";
+  String UNIT_KEY = "Unit";
+
+  static boolean is(BeanObject obj) {
+    return obj.domainName().equals(DOMAIN)
+        && TYPE_VALUE.equals(obj.properties().get(TYPE_KEY))
+        && obj.properties().containsKey(NAME_KEY)
+        && obj.properties().containsKey(GROUP_KEY)
+        && obj.attributes().containsKey(START_TIME_KEY)
+        && obj.attributes().containsKey(COUNT_KEY)
+        && obj.attributes().containsKey(MIN_KEY)
+        && obj.attributes().containsKey(MAX_KEY)
+        && obj.attributes().containsKey(MEAN_KEY)
+        && obj.attributes().containsKey(P50_KEY)
+        && obj.attributes().containsKey(P90_KEY)
+        && obj.attributes().containsKey(P99_KEY)
+        && obj.attributes().containsKey(P999_KEY)
+        && obj.attributes().containsKey(DOCUMENT_KEY)
+        && obj.attributes().containsKey(UNIT_KEY);
+  }
+
+  /**
+   * create a read-only snapshot of histogram from the bean object.
+   *
+   * @param obj bean object
+   * @return histogram snapshot
+   */
+  static HistogramMBean of(BeanObject obj) {
+    // NOTED: group and name are NOT a part of attribute!!!!
+    String group = obj.properties().get(GROUP_KEY);
+    String name = obj.properties().get(NAME_KEY);
+    long startTime = (long) obj.attributes().get(START_TIME_KEY);
+    long queryTime = obj.queryTime();
+    long count = (long) obj.attributes().get(COUNT_KEY);
+    long min = (long) obj.attributes().get(MIN_KEY);
+    long max = (long) obj.attributes().get(MAX_KEY);
+    double mean = (double) obj.attributes().get(MEAN_KEY);
+    long p50 = (long) obj.attributes().get(P50_KEY);
+    long p90 = (long) obj.attributes().get(P90_KEY);
+    long p99 = (long) obj.attributes().get(P99_KEY);
+    long p999 = (long) obj.attributes().get(P999_KEY);
+    String document = (String) obj.attributes().get(DOCUMENT_KEY);
+    String unit = (String) obj.attributes().get(UNIT_KEY);
+    return new HistogramMBean() {
+      @Override
+      public String group() {
+        return group;
+      }
+
+      @Override
+      public String name() {
+        return name;
+      }
+
+      @Override
+      public long getStartTime() {
+        return startTime;
+      }
+
+      @Override
+      public long getQueryTime() {
+        return queryTime;
+      }
+
+      @Override
+      public long getCount() {
+        return count;
+      }
+
+      @Override
+      public long getMin() {
+        return min;
+      }
+
+      @Override
+      public long getMax() {
+        return max;
+      }
+
+      @Override
+      public double getMean() {
+        return mean;
+      }
+
+      @Override
+      public long getP50() {
+        return p50;
+      }
+
+      @Override
+      public long getP90() {
+        return p90;
+      }
+
+      @Override
+      public long getP99() {
+        return p99;
+      }
+
+      @Override
+      public long getP999() {
+        return p999;
+      }
+
+      @Override
+      public String getUnit() {
+        return unit;
+      }
+
+      @Override
+      public String getDocument() {
+        return document;
+      }
+    };
+  }
+
+  /**
+   * NOTED: this is NOT a part of java beans!!!
+   *
+   * @return group of this histogram
+   */
+  String group();
+
+  /**
+   * NOTED: this is NOT a part of java beans!!!
+   *
+   * @return name of this histogram
+   */
+  String name();
+
+  /** @return the start time of this histogram */
+  long getStartTime();
+
+  /** @return the time of querying metrics object */
+  long getQueryTime();
+
+  /** @return the number of recorded values */
+  long getCount();
+
+  /** @return the min of recorded values. zero if there is no recorded values */
+  long getMin();
+
+  /** @return the max of recorded values. zero if there is no recorded values */
+  long getMax();
+
+  /** @return the mean of recorded values. zero if there is no recorded values */
+  double getMean();
+
+  /** @return the 50th percentile of recorded values */
+  long getP50();
+
+  /** @return the 90th percentile of recorded values */
+  long getP90();
+
+  /** @return the 99th percentile of recorded values */
+  long getP99();
+
+  /** @return the 99.9th percentile of recorded values */
+  long getP999();
+
+  /** @return the unit of value */
+  String getUnit();
+
+  /** @return description of histogram */
+  String getDocument();
+}
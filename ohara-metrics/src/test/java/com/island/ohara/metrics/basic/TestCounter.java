@@ -21,6 +21,11 @@ import com.island.ohara.common.util.CommonUtils;
 import com.island.ohara.metrics.BeanChannel;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -384,4 +389,57 @@ public class TestCounter extends OharaTest {
         .queryTime(-999)
         .build();
   }
+
+  @Test
+  public void testStripedCounter() {
+    try (Counter counter =
+        Counter.builder().value(10).striped(true).name(CommonUtils.randomString()).build()) {
+      Assert.assertTrue(counter.striped());
+      Assert.assertEquals(10, counter.getValue());
+      counter.add(5);
+      counter.increment();
+      Assert.assertEquals(16, counter.getValue());
+      Assert.assertEquals(17, counter.incrementAndGet());
+      Assert.assertEquals(17, counter.getAndDecrement());
+      Assert.assertEquals(16, counter.getAndSet(100));
+      Assert.assertEquals(5, counter.setAndGet(5));
+      Assert.assertEquals(5, counter.getValue());
+    }
+  }
+
+  @Test
+  public void testStripedCounterInMultiThreads() throws Exception {
+    try (Counter counter =
+        Counter.builder().striped(true).name(CommonUtils.randomString()).build()) {
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        List<Future<?>> futures =
+            IntStream.range(0, 4)
+                .mapToObj(
+                    i ->
+                        executor.submit(
+                            () -> IntStream.range(0, 10000).forEach(j -> counter.add(1))))
+                .collect(Collectors.toList());
+        for (Future<?> f : futures) f.get();
+      } finally {
+        executor.shutdownNow();
+      }
+      Assert.assertEquals(40000, counter.getValue());
+    }
+  }
+
+  @Test
+  public void testStripedCounterFromBean() {
+    String name = CommonUtils.randomString();
+    try (Counter counter = Counter.builder().striped(true).name(name).register()) {
+      counter.add(100);
+      Assert.assertEquals(
+          100,
+          BeanChannel.local().counterMBeans().stream()
+              .filter(c -> c.name().equals(name))
+              .findFirst()
+              .get()
+              .getValue());
+    }
+  }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 is-land
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.island.ohara.metrics.basic;
+
+import com.island.ohara.common.rule.OharaTest;
+import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.metrics.BeanChannel;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestHistogram extends OharaTest {
+
+  @Test(expected = NullPointerException.class)
+  public void testNullName() {
+    Histogram.builder().name(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyName() {
+    Histogram.builder().name("");
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testNullUnit() {
+    Histogram.builder().unit(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalPercentile() {
+    Histogram.builder().name(CommonUtils.randomString()).build().percentile(0);
+  }
+
+  @Test
+  public void testBuckets() {
+    long previous = -1;
+    for (int index = 0; index != 1888; ++index) {
+      long highest = Histogram.highestValue(index);
+      Assert.assertTrue(highest > previous);
+      Assert.assertEquals(index, Histogram.index(highest));
+      Assert.assertEquals(index, Histogram.index(previous + 1));
+      previous = highest;
+    }
+    Assert.assertEquals(Long.MAX_VALUE, previous);
+  }
+
+  @Test
+  public void testEmpty() {
+    try (Histogram histogram = Histogram.builder().name(CommonUtils.randomString()).build()) {
+      Assert.assertEquals(0, histogram.getCount());
+      Assert.assertEquals(0, histogram.getMin());
+      Assert.assertEquals(0, histogram.getMax());
+      Assert.assertEquals(0, histogram.getMean(), 0);
+      Assert.assertEquals(0, histogram.getP99());
+    }
+  }
+
+  @Test
+  public void testPercentiles() {
+    try (Histogram histogram = Histogram.builder().name(CommonUtils.randomString()).build()) {
+      IntStream.rangeClosed(1, 10000).forEach(histogram::record);
+      Assert.assertEquals(10000, histogram.getCount());
+      Assert.assertEquals(1, histogram.getMin());
+      Assert.assertEquals(10000, histogram.getMax());
+      Assert.assertEquals(5000.5, histogram.getMean(), 0.001);
+      assertClose(5000, histogram.getP50());
+      assertClose(9000, histogram.getP90());
+      assertClose(9900, histogram.getP99());
+      assertClose(9990, histogram.getP999());
+      Assert.assertEquals(10000, histogram.percentile(100));
+    }
+  }
+
+  @Test
+  public void testSmallValuesAreExact() {
+    try (Histogram histogram = Histogram.builder().name(CommonUtils.randomString()).build()) {
+      IntStream.range(0, 10).forEach(histogram::record);
+      Assert.assertEquals(4, histogram.getP50());
+      Assert.assertEquals(9, histogram.getP999());
+    }
+  }
+
+  @Test
+  public void testNegativeValue() {
+    try (Histogram histogram = Histogram.builder().name(CommonUtils.randomString()).build()) {
+      histogram.record(-100);
+      Assert.assertEquals(1, histogram.getCount());
+      Assert.assertEquals(0, histogram.getMax());
+    }
+  }
+
+  @Test
+  public void testFromBean() {
+    String group = CommonUtils.randomString();
+    String name = CommonUtils.randomString();
+    String document = CommonUtils.randomString();
+    String unit = CommonUtils.randomString();
+    try (Histogram histogram =
+        Histogram.builder().group(group).name(name).document(document).unit(unit).register()) {
+      IntStream.rangeClosed(1, 100).forEach(histogram::record);
+      HistogramMBean bean =
+          BeanChannel.local().histogramMBeans().stream()
+              .filter(h -> h.name().equals(name))
+              .findFirst()
+              .get();
+      Assert.assertEquals(group, bean.group());
+      Assert.assertEquals(document, bean.getDocument());
+      Assert.assertEquals(unit, bean.getUnit());
+      Assert.assertEquals(histogram.getStartTime(), bean.getStartTime());
+      Assert.assertEquals(100, bean.getCount());
+      Assert.assertEquals(1, bean.getMin());
+      Assert.assertEquals(100, bean.getMax());
+      Assert.assertEquals(histogram.getP50(), bean.getP50());
+      Assert.assertEquals(histogram.getP99(), bean.getP99());
+      // histogram is not a counter
+      Assert.assertTrue(
+          BeanChannel.local().counterMBeans().stream().noneMatch(c -> c.name().equals(name)));
+    }
+    Assert.assertTrue(
+        BeanChannel.local().histogramMBeans().stream().noneMatch(h -> h.name().equals(name)));
+  }
+
+  private static void assertClose(long expected, long actual) {
+    Assert.assertTrue(
+        "expected:" + expected + " actual:" + actual,
+        Math.abs(expected - actual) <= expected / 32 + 1);
+  }
+}
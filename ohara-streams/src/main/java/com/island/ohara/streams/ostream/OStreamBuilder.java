@@ -20,6 +20,8 @@ import com.island.ohara.common.annotations.VisibleForTesting;
 import com.island.ohara.common.data.Row;
 import com.island.ohara.common.pattern.Builder;
 import com.island.ohara.common.util.CommonUtils;
+import com.island.ohara.common.util.Releasable;
+import com.island.ohara.kafka.BrokerClient;
 import com.island.ohara.streams.OStream;
 import java.util.Objects;
 
@@ -41,6 +43,8 @@ public final class OStreamBuilder implements Builder<OStream<Row>> {
   // We are in Ohara world, the data type of topics must be <Row, byte[]> for current version...
   private final Consumed fromSerde = new Consumed<>(Serdes.ROW, Serdes.BYTES);
   private final Produced toSerde = new Produced<>(Serdes.ROW, Serdes.BYTES);
+  // shared by all streams built from this builder. It is acquired by the first through()
+  private BrokerClient brokerClient = null;
 
   public static OStreamBuilder builder() {
     return new OStreamBuilder();
@@ -140,6 +144,25 @@ public final class OStreamBuilder implements Builder<OStream<Row>> {
     return new OStreamImpl(this);
   }
 
+  /**
+   * get the broker client used to create the topics of stream. The client is shared by all streams
+   * of this builder so the admin connections are not created for each topic.
+   *
+   * @return broker client
+   */
+  synchronized BrokerClient brokerClient() {
+    if (brokerClient == null) brokerClient = BrokerClient.shared(bootstrapServers);
+    return brokerClient;
+  }
+
+  /**
+   * release the shared broker client. It is acquired again if {@link #brokerClient()} is called.
+   */
+  synchronized void releaseBrokerClient() {
+    Releasable.close(brokerClient);
+    brokerClient = null;
+  }
+
   // Getters
   String getBootstrapServers() {
     return bootstrapServers;
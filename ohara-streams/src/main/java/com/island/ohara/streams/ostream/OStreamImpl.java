@@ -20,7 +20,6 @@ import com.island.ohara.common.data.Cell;
 import com.island.ohara.common.data.Pair;
 import com.island.ohara.common.data.Row;
 import com.island.ohara.common.util.CommonUtils;
-import com.island.ohara.kafka.BrokerClient;
 import com.island.ohara.metrics.basic.Counter;
 import com.island.ohara.streams.OGroupedStream;
 import com.island.ohara.streams.OStream;
@@ -68,8 +67,12 @@ class OStreamImpl extends AbstractStream<Row, Row> implements OStream<Row> {
 
   @Override
   public OStream<Row> through(String topicName, int partitions) {
-    BrokerClient client = BrokerClient.of(builder.getBootstrapServers());
-    client.topicCreator().topicName(topicName).numberOfPartitions(partitions).create();
+    builder
+        .brokerClient()
+        .topicCreator()
+        .topicName(topicName)
+        .numberOfPartitions(partitions)
+        .create();
     return new OStreamImpl(
         builder,
         kstreams.through(
@@ -152,6 +155,8 @@ class OStreamImpl extends AbstractStream<Row, Row> implements OStream<Row> {
    * @param isDryRun describe only or not
    */
   private void baseActionInitial(boolean isDryRun) {
+    // the definition of stream is done so the topics required by through() are already created
+    builder.releaseBrokerClient();
     if (topology == null) {
       Properties prop = new Properties();
 